@@ -5,12 +5,15 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
 import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.PropertySource;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @Configuration
 @EnableAspectJAutoProxy
+@EnableScheduling
 @Import({
     WebConfig.class, 
     DBConfig.class,
+    EntityCacheConfig.class,
     SecurityConfig.class
 })
 @ComponentScan("com.app.exceptionHandler")
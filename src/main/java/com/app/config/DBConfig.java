@@ -2,26 +2,43 @@ package com.app.config;
 
 import java.util.Properties;
 
+import javax.cache.CacheManager;
 import javax.sql.DataSource;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
 import liquibase.integration.spring.SpringLiquibase;
 
 @Configuration
 @EnableTransactionManagement
 @EnableJpaRepositories(basePackages="com.app.repository")
 public class DBConfig {
+    public static final String SQL_DEBUG_PROFILE = "sql-debug";
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private CacheManager entityCacheManager;
+
     @Value("${database.driver}")
     private String dbDriverClassname;
     @Value("${database.url}")
@@ -31,20 +48,117 @@ public class DBConfig {
     @Value("${database.password}")
     private String dbPassword;
 
+    @Value("${database.pool.min.idle:5}")
+    private int poolMinIdle;
+    @Value("${database.pool.max.size:20}")
+    private int poolMaxSize;
+    @Value("${database.pool.connection.timeout:30000}")
+    private long poolConnectionTimeout;
+    @Value("${database.pool.idle.timeout:600000}")
+    private long poolIdleTimeout;
+    @Value("${database.pool.max.lifetime:1800000}")
+    private long poolMaxLifetime;
+    @Value("${database.pool.leak.detection.threshold:0}")
+    private long poolLeakDetectionThreshold;
+    @Value("${database.pool.validation.timeout:5000}")
+    private long poolValidationTimeout;
+    @Value("${database.pool.test.query:}")
+    private String poolTestQuery;
+
+    @Value("${database.mysql.server.prep.stmts:true}")
+    private boolean mysqlServerPrepStmts;
+    @Value("${database.mysql.prep.stmt.cache.size:250}")
+    private int mysqlPrepStmtCacheSize;
+    @Value("${database.mysql.prep.stmt.cache.sql.limit:2048}")
+    private int mysqlPrepStmtCacheSqlLimit;
+
+    @Value("${hibernate.jdbc.batch.size:50}")
+    private int jdbcBatchSize;
+    @Value("${hibernate.jdbc.fetch.size:0}")
+    private int jdbcFetchSize;
+    @Value("${hibernate.query.plan.cache.max.size:2048}")
+    private int queryPlanCacheMaxSize;
+
+    @Value("${database.replica.url:}")
+    private String replicaUrl;
+    @Value("${database.replica.username:${database.username}}")
+    private String replicaUsername;
+    @Value("${database.replica.password:${database.password}}")
+    private String replicaPassword;
+    @Value("${database.replica.lag.query:SHOW REPLICA STATUS}")
+    private String replicaLagQuery;
+    @Value("${database.replica.max.lag:5}")
+    private long replicaMaxLag;
+    @Value("${database.replica.check.interval:5000}")
+    private long replicaCheckInterval;
+
+    @Bean
+    public PoolMetrics poolMetrics() {
+        return new PoolMetrics();
+    }
+
     @Bean
+    public HikariDataSource primaryDataSource() {
+        return new HikariDataSource(poolConfig("primary", dbUrl, dbUsername, dbPassword));
+    }
+
+    @Bean
+    @Lazy
+    public ReadWriteRoutingDataSource routingDataSource() {
+        HikariDataSource replica = new HikariDataSource(poolConfig("replica", replicaUrl, replicaUsername, replicaPassword));
+        return new ReadWriteRoutingDataSource(primaryDataSource(), replica, replicaLagQuery, replicaMaxLag, replicaCheckInterval);
+    }
+
+    @Bean
+    @Primary
     public DataSource dataSource() {
-        DriverManagerDataSource ds = new DriverManagerDataSource();
-        ds.setDriverClassName(dbDriverClassname);
-        ds.setUrl(dbUrl);
-        ds.setUsername(dbUsername);
-        ds.setPassword(dbPassword);
-        return ds;
+        if (replicaUrl.isBlank()) {
+            return primaryDataSource();
+        }
+        return new LazyConnectionDataSourceProxy(routingDataSource());
+    }
+
+    HikariConfig poolConfig(String poolName, String url, String username, String password) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(poolName);
+        config.setDriverClassName(dbDriverClassname);
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setMinimumIdle(poolMinIdle);
+        config.setMaximumPoolSize(poolMaxSize);
+        config.setConnectionTimeout(poolConnectionTimeout);
+        config.setIdleTimeout(poolIdleTimeout);
+        config.setMaxLifetime(poolMaxLifetime);
+        config.setLeakDetectionThreshold(poolLeakDetectionThreshold);
+        config.setValidationTimeout(poolValidationTimeout);
+        if (!poolTestQuery.isBlank()) {
+            config.setConnectionTestQuery(poolTestQuery);
+        }
+        if (url.startsWith("jdbc:mysql:")) {
+            // lets Connector/J send a JDBC batch as one multi-row statement
+            config.addDataSourceProperty("rewriteBatchedStatements", "true");
+            // read-only transactions call setReadOnly/setAutoCommit on every connection; skip the round trip when the state is unchanged
+            config.addDataSourceProperty("useLocalSessionState", "true");
+            // parse each statement once per connection instead of sending the full SQL text on every call
+            config.addDataSourceProperty("useServerPrepStmts", String.valueOf(mysqlServerPrepStmts));
+            config.addDataSourceProperty("cachePrepStmts", "true");
+            config.addDataSourceProperty("prepStmtCacheSize", String.valueOf(mysqlPrepStmtCacheSize));
+            config.addDataSourceProperty("prepStmtCacheSqlLimit", String.valueOf(mysqlPrepStmtCacheSqlLimit));
+        }
+        config.setMetricsTrackerFactory(poolMetrics());
+        return config;
+    }
+
+    @Bean
+    public JdbcTemplate jdbcTemplate() {
+        return new JdbcTemplate(dataSource());
     }
 
     @Bean
     public SpringLiquibase liquibase() {
         SpringLiquibase liquibase = new SpringLiquibase();
-        liquibase.setDataSource(dataSource());
+        liquibase.setDataSource(primaryDataSource());
         liquibase.setChangeLog("classpath:/db/changelog/db.changelog-master.xml");
         liquibase.setShouldRun(true);
         liquibase.setDropFirst(false);
@@ -71,12 +185,32 @@ public class DBConfig {
         return transactionManager;
     }
 
-    private Properties hibernateProperties() {
+    Properties hibernateProperties() {
         Properties properties = new Properties();
         properties.setProperty("hibernate.hbm2ddl.auto", "validate");
         properties.setProperty("hibernate.dialect", "org.hibernate.dialect.MySQLDialect");
-        properties.setProperty("hibernate.show_sql", "true");
-        properties.setProperty("hibernate.format_sql", "true");
+        // card balances changed by a batch transfer are flushed as JDBC batches
+        properties.setProperty("hibernate.jdbc.batch_size", String.valueOf(jdbcBatchSize));
+        properties.setProperty("hibernate.order_updates", "true");
+        properties.setProperty("hibernate.order_inserts", "true");
+        if (jdbcFetchSize > 0) {
+            properties.setProperty("hibernate.jdbc.fetch_size", String.valueOf(jdbcFetchSize));
+        }
+        properties.setProperty("hibernate.query.plan_cache_max_size", String.valueOf(queryPlanCacheMaxSize));
+        // IN lists are padded to a power of two, so bulk checks reuse a few cached plans and prepared statements
+        properties.setProperty("hibernate.query.in_clause_parameter_padding", "true");
+        // users and the natural-id lookups of users and cards; regions and their limits are in EntityCacheConfig
+        properties.setProperty("hibernate.cache.use_second_level_cache", "true");
+        properties.setProperty("hibernate.cache.region.factory_class", "jcache");
+        properties.put("hibernate.javax.cache.cache_manager", entityCacheManager);
+        properties.setProperty("hibernate.javax.cache.missing_cache_strategy", "fail");
+        properties.setProperty("hibernate.cache.default_cache_concurrency_strategy", "read-write");
+        // statements are logged by the org.hibernate.SQL logger at DEBUG; show_sql would bypass logback and print to stdout
+        boolean sqlDebug = environment.matchesProfiles(SQL_DEBUG_PROFILE);
+        properties.setProperty("hibernate.show_sql", String.valueOf(sqlDebug));
+        properties.setProperty("hibernate.format_sql", String.valueOf(sqlDebug));
+        properties.setProperty("hibernate.use_sql_comments", String.valueOf(sqlDebug));
+        properties.setProperty("hibernate.generate_statistics", String.valueOf(sqlDebug));
         return properties;
     }
 }
@@ -0,0 +1,62 @@
+package com.app.config;
+
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.app.model.Card;
+import com.app.model.User;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+/**
+ * Regions of the Hibernate second-level cache, kept in a local Caffeine JCache manager.
+ * Hibernate is told to fail on a region missing here instead of creating an unbounded one.
+ */
+@Configuration
+public class EntityCacheConfig {
+    @Value("${hibernate.cache.users.size:10000}")
+    private long usersSize;
+    @Value("${hibernate.cache.users.ttl:600}")
+    private long usersTtl;
+    @Value("${hibernate.cache.usernames.size:10000}")
+    private long usernamesSize;
+    @Value("${hibernate.cache.usernames.ttl:600}")
+    private long usernamesTtl;
+    @Value("${hibernate.cache.card.numbers.size:100000}")
+    private long cardNumbersSize;
+    @Value("${hibernate.cache.card.numbers.ttl:600}")
+    private long cardNumbersTtl;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager() {
+        // managers are shared per URI, so each application context gets its own and never sees regions of another
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+            .getCacheManager(URI.create("entity-cache:" + UUID.randomUUID()), getClass().getClassLoader());
+        cacheManager.createCache(User.CACHE_REGION, region(usersSize, usersTtl));
+        cacheManager.createCache(User.NATURAL_ID_CACHE_REGION, region(usernamesSize, usernamesTtl));
+        cacheManager.createCache(Card.NATURAL_ID_CACHE_REGION, region(cardNumbersSize, cardNumbersTtl));
+        return cacheManager;
+    }
+
+    @Bean
+    public EntityCacheMetrics entityCacheMetrics() {
+        return new EntityCacheMetrics(entityCacheManager());
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maximumSize, long ttlSeconds) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+        configuration.setNativeStatisticsEnabled(true);
+        return configuration;
+    }
+}
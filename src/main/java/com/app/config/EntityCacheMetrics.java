@@ -0,0 +1,27 @@
+package com.app.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.cache.CacheManager;
+
+import com.app.dto.CacheStatsDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+
+public class EntityCacheMetrics {
+    private final CacheManager cacheManager;
+
+    public EntityCacheMetrics(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @SuppressWarnings("unchecked")
+    public Map<String, CacheStatsDTO> getStats() {
+        Map<String, CacheStatsDTO> stats = new LinkedHashMap<>();
+        for (String region : cacheManager.getCacheNames()) {
+            Cache<Object, Object> cache = cacheManager.getCache(region).unwrap(Cache.class);
+            stats.put(region, new CacheStatsDTO(cache.estimatedSize(), cache.stats()));
+        }
+        return stats;
+    }
+}
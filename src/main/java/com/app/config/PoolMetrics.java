@@ -0,0 +1,70 @@
+package com.app.config;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.app.dto.PoolStatsDTO;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+public class PoolMetrics implements MetricsTrackerFactory {
+    private final Map<String, Tracker> trackers = new ConcurrentHashMap<>();
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        Tracker tracker = new Tracker(poolName, poolStats);
+        trackers.put(poolName, tracker);
+        return tracker;
+    }
+
+    public List<PoolStatsDTO> getStats() {
+        return trackers.values().stream().map(Tracker::toDTO).toList();
+    }
+
+    private static class Tracker implements IMetricsTracker {
+        private final String poolName;
+        private final PoolStats poolStats;
+        private final LongAdder acquireCount = new LongAdder();
+        private final LongAdder acquireNanos = new LongAdder();
+        private final LongAccumulator maxAcquireNanos = new LongAccumulator(Long::max, 0);
+        private final LongAdder timeoutCount = new LongAdder();
+
+        Tracker(String poolName, PoolStats poolStats) {
+            this.poolName = poolName;
+            this.poolStats = poolStats;
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            acquireCount.increment();
+            acquireNanos.add(elapsedAcquiredNanos);
+            maxAcquireNanos.accumulate(elapsedAcquiredNanos);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            timeoutCount.increment();
+        }
+
+        PoolStatsDTO toDTO() {
+            PoolStatsDTO dto = new PoolStatsDTO();
+            dto.setPoolName(poolName);
+            dto.setActiveConnections(poolStats.getActiveConnections());
+            dto.setIdleConnections(poolStats.getIdleConnections());
+            dto.setTotalConnections(poolStats.getTotalConnections());
+            dto.setPendingThreads(poolStats.getPendingThreads());
+            dto.setMaxConnections(poolStats.getMaxConnections());
+            long count = acquireCount.sum();
+            dto.setAcquireCount(count);
+            dto.setAverageWaitMillis(count == 0 ? 0 : (double) acquireNanos.sum() / count / TimeUnit.MILLISECONDS.toNanos(1));
+            dto.setMaxWaitMillis((double) maxAcquireNanos.get() / TimeUnit.MILLISECONDS.toNanos(1));
+            dto.setTimeoutCount(timeoutCount.sum());
+            return dto;
+        }
+    }
+}
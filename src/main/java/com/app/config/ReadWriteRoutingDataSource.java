@@ -0,0 +1,150 @@
+package com.app.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends read-only transactions to the replica while it is reachable and within
+ * {@code maxLagSeconds} of the primary; everything else goes to the primary.
+ * Must be wrapped in a {@code LazyConnectionDataSourceProxy} so the connection is
+ * fetched after the transaction's read-only flag has been set.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+    public enum Route { PRIMARY, REPLICA }
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+    private static final String MYSQL_LAG_COLUMN = "Seconds_Behind_Source";
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final String lagQuery;
+    private final long maxLagSeconds;
+    private final long checkIntervalMillis;
+
+    private volatile boolean replicaAvailable = true;
+    private ScheduledExecutorService healthChecker;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, String lagQuery,
+                                      long maxLagSeconds, long checkIntervalMillis) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+        this.checkIntervalMillis = checkIntervalMillis;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        if (checkIntervalMillis > 0) {
+            healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "replica-health-check");
+                thread.setDaemon(true);
+                return thread;
+            });
+            healthChecker.scheduleWithFixedDelay(this::checkReplica, 0, checkIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    protected Route determineCurrentLookupKey() {
+        if (replicaAvailable && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return Route.REPLICA;
+        }
+        return Route.PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (determineCurrentLookupKey() == Route.REPLICA) {
+            try {
+                return replica.getConnection();
+            } catch (SQLException e) {
+                markReplicaUnavailable(e.getMessage());
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (determineCurrentLookupKey() == Route.REPLICA) {
+            try {
+                return replica.getConnection(username, password);
+            } catch (SQLException e) {
+                markReplicaUnavailable(e.getMessage());
+            }
+        }
+        return primary.getConnection(username, password);
+    }
+
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+
+    public void checkReplica() {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            Long lag = resultSet.next() ? readLag(resultSet) : 0L;
+            if (lag == null) {
+                markReplicaUnavailable("replication is not running");
+            } else if (lag > maxLagSeconds) {
+                markReplicaUnavailable("replica is " + lag + "s behind");
+            } else if (!replicaAvailable) {
+                replicaAvailable = true;
+                logger.info("Replica is back, lag {}s", lag);
+            }
+        } catch (SQLException e) {
+            markReplicaUnavailable(e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+        }
+        if (replica instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                logger.warn("Failed to close replica pool: {}", e.getMessage());
+            }
+        }
+    }
+
+    private Long readLag(ResultSet resultSet) throws SQLException {
+        int column = 1;
+        try {
+            column = resultSet.findColumn(MYSQL_LAG_COLUMN);
+        } catch (SQLException e) {
+            // not SHOW REPLICA STATUS output, the lag query returns seconds in the first column
+        }
+        long lag = resultSet.getLong(column);
+        return resultSet.wasNull() ? null : lag;
+    }
+
+    private void markReplicaUnavailable(String reason) {
+        if (replicaAvailable) {
+            replicaAvailable = false;
+            logger.warn("Routing reads to primary: {}", reason);
+        }
+    }
+}
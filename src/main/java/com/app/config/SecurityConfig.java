@@ -37,8 +37,8 @@ public class SecurityConfig {
             .csrf(AbstractHttpConfigurer::disable)
             .authorizeHttpRequests(auth -> auth
                                     .requestMatchers("/register", "/auth/**", "/").permitAll()
-                                    .requestMatchers("/card/add", "/user/delete", "/card/all",
-                                    "/card/block", "/card/activate", "/card/delete").hasRole("ADMIN")
+                                    .requestMatchers("/card/add", "/card/add/bulk", "/user/delete", "/card/all", "/card/export", "/user/export",
+                                    "/card/block", "/card/activate", "/card/delete", "/metrics/**").hasRole("ADMIN")
                                     .anyRequest().authenticated())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .addFilterBefore(exceptionFilter, LogoutFilter.class)
@@ -1,31 +1,48 @@
 package com.app.controller;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
 import javax.naming.AuthenticationException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.app.annotation.ValidateBindingResult;
+import com.app.dto.BatchNewCardsDTO;
+import com.app.dto.BatchTransferDTO;
+import com.app.dto.BatchTransferResultDTO;
 import com.app.dto.CardDTO;
+import com.app.dto.CardHistoryDTO;
+import com.app.dto.CardHistoryRequestDTO;
 import com.app.dto.CardNumberDTO;
 import com.app.dto.FilterPageCardDTO;
 import com.app.dto.NewCardDTO;
 import com.app.dto.PaginatedResponse;
 import com.app.dto.TransferBetweenCardsDTO;
 import com.app.service.CardService;
+import com.app.service.ExportFormat;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 @RestController
 @RequestMapping("/card")
 public class CardController {
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     @Autowired
     private CardService cardService;
 
@@ -36,6 +53,15 @@ public class CardController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/export")
+    public void exportCards(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"cards." + exportFormat.getFileExtension() + "\"");
+        cardService.exportCards(exportFormat, response.getOutputStream());
+    }
+
     @PostMapping("/add")
     @ValidateBindingResult
     public ResponseEntity<?> addNewCard(@RequestBody @Valid NewCardDTO newCardDTO, BindingResult result) {
@@ -43,6 +69,13 @@ public class CardController {
         return ResponseEntity.ok("Card added");
     }
 
+    @PostMapping("/add/bulk")
+    @ValidateBindingResult
+    public ResponseEntity<?> addNewCards(@RequestBody @Valid BatchNewCardsDTO batch, BindingResult result) {
+        int added = cardService.addNewCards(batch);
+        return ResponseEntity.ok("Cards added: " + added);
+    }
+
     @PostMapping("/block")
     @ValidateBindingResult
     public ResponseEntity<?> blockCard(@RequestBody @Valid CardNumberDTO cardNumber, BindingResult result) {
@@ -73,15 +106,35 @@ public class CardController {
 
     @PostMapping("/show-full-number")
     @ValidateBindingResult
-    public ResponseEntity<?> showFullNumberCards(Authentication authentication, @RequestBody @Valid FilterPageCardDTO filters) throws AuthenticationException {
+    public ResponseEntity<?> showFullNumberCards(Authentication authentication, @RequestBody @Valid FilterPageCardDTO filters, BindingResult result) throws AuthenticationException {
         PaginatedResponse<CardDTO> response = cardService.getPaginatedAllUserCardsAsDto(filters, authentication.getName(), false);
         return ResponseEntity.ok().body(response);
     }
 
     @PostMapping("/transfer")
     @ValidateBindingResult
-    public ResponseEntity<?> transferCards(Authentication authentication, @RequestBody @Valid TransferBetweenCardsDTO transferBetweenCardsDTO, BindingResult result) {
-        cardService.transferBetweenCards(authentication, transferBetweenCardsDTO);
-        return ResponseEntity.ok("Transfer between cards completed successfully");
+    public ResponseEntity<?> transferCards(Authentication authentication, @RequestBody @Valid TransferBetweenCardsDTO transferBetweenCardsDTO, BindingResult result,
+                                           @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        boolean executed = cardService.transferBetweenCards(authentication, transferBetweenCardsDTO, idempotencyKey);
+        return ResponseEntity.ok()
+            .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(!executed))
+            .body("Transfer between cards completed successfully");
+    }
+
+    @PostMapping("/transfer/batch")
+    @ValidateBindingResult
+    public ResponseEntity<?> transferBatch(Authentication authentication, @RequestBody @Valid BatchTransferDTO batch, BindingResult result) {
+        BatchTransferResultDTO response = cardService.transferBatch(authentication, batch);
+        HttpStatus status = response.getFailed() > 0 && batch.getMode() == BatchTransferDTO.Mode.ALL_OR_NOTHING
+            ? HttpStatus.BAD_REQUEST
+            : HttpStatus.OK;
+        return ResponseEntity.status(status).body(response);
+    }
+
+    @PostMapping("/history")
+    @ValidateBindingResult
+    public ResponseEntity<?> cardHistory(Authentication authentication, @RequestBody @Valid CardHistoryRequestDTO historyRequest, BindingResult result) {
+        CardHistoryDTO response = cardService.getCardHistory(authentication, historyRequest);
+        return ResponseEntity.ok(response);
     }
 }
@@ -0,0 +1,64 @@
+package com.app.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.app.config.EntityCacheMetrics;
+import com.app.config.PoolMetrics;
+import com.app.security.CustomUserServiceImpl;
+import com.app.service.CardCountCache;
+import com.app.service.ExistenceFilters;
+
+@RestController
+@RequestMapping("/metrics")
+public class MetricsController {
+    @Autowired
+    private CustomUserServiceImpl customUserService;
+
+    @Autowired
+    private PoolMetrics poolMetrics;
+
+    @Autowired
+    private CardCountCache cardCountCache;
+
+    @Autowired
+    private ExistenceFilters existenceFilters;
+
+    @Autowired
+    private EntityCacheMetrics entityCacheMetrics;
+
+    @GetMapping("/principal-cache")
+    public ResponseEntity<?> getPrincipalCacheStats() {
+        return ResponseEntity.ok(customUserService.getCacheStats());
+    }
+
+    @GetMapping("/db-pool")
+    public ResponseEntity<?> getDbPoolStats() {
+        return ResponseEntity.ok(poolMetrics.getStats());
+    }
+
+    @GetMapping("/card-count-cache")
+    public ResponseEntity<?> getCardCountCacheStats() {
+        return ResponseEntity.ok(cardCountCache.getCacheStats());
+    }
+
+    @GetMapping("/entity-cache")
+    public ResponseEntity<?> getEntityCacheStats() {
+        return ResponseEntity.ok(entityCacheMetrics.getStats());
+    }
+
+    @GetMapping("/existence-filters")
+    public ResponseEntity<?> getExistenceFilterStats() {
+        return ResponseEntity.ok(existenceFilters.getStats());
+    }
+
+    @PostMapping("/existence-filters/rebuild")
+    public ResponseEntity<?> rebuildExistenceFilters() {
+        existenceFilters.rebuild();
+        return ResponseEntity.ok(existenceFilters.getStats());
+    }
+}
@@ -1,21 +1,28 @@
 package com.app.controller;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.app.annotation.ValidateBindingResult;
 import com.app.dto.UserDTO;
 import com.app.dto.UsernameDTO;
+import com.app.service.ExportFormat;
 import com.app.service.UserService;
 
+import jakarta.servlet.http.HttpServletResponse;
+
 
 @RestController
 @RequestMapping("/user")
@@ -29,6 +36,15 @@ public class UserController {
         return userService.getAllUsersAsDTO();
     }
 
+    @GetMapping("/export")
+    public void exportUsers(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users." + exportFormat.getFileExtension() + "\"");
+        userService.exportUsers(exportFormat, response.getOutputStream());
+    }
+
     @PostMapping("/delete")
     @ValidateBindingResult
     public ResponseEntity<?> deleteUser(@RequestBody UsernameDTO username, BindingResult result) {
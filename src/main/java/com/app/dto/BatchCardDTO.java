@@ -0,0 +1,49 @@
+package com.app.dto;
+
+import java.time.LocalDate;
+
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+
+// NewCardDTO without the per-row database checks: the batch checks numbers and owners with one query each
+public class BatchCardDTO {
+
+    @NotBlank(message="Cardnumber is required")
+    @Pattern(regexp="^[0-9]{16}$", message="Card number must be exactly 16 digits")
+    private String cardNumber;
+
+    @NotNull(message="Owner id is required")
+    @Positive
+    private Integer ownerId;
+
+    @NotNull(message="Validity period is required")
+    @Future
+    private LocalDate validityPeriod;
+
+    public String getCardNumber() {
+        return cardNumber;
+    }
+
+    public void setCardNumber(String cardNumber) {
+        this.cardNumber = cardNumber;
+    }
+
+    public Integer getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(Integer ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public LocalDate getValidityPeriod() {
+        return validityPeriod;
+    }
+
+    public void setValidityPeriod(LocalDate validityPeriod) {
+        this.validityPeriod = validityPeriod;
+    }
+}
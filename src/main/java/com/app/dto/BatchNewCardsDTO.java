@@ -0,0 +1,24 @@
+package com.app.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+public class BatchNewCardsDTO {
+    public static final int MAX_CARDS = 10000;
+
+    @NotEmpty(message="Cards are required")
+    @Size(max=MAX_CARDS, message="At most " + MAX_CARDS + " cards per batch")
+    private List<@Valid @NotNull BatchCardDTO> cards;
+
+    public List<BatchCardDTO> getCards() {
+        return cards;
+    }
+
+    public void setCards(List<BatchCardDTO> cards) {
+        this.cards = cards;
+    }
+}
@@ -0,0 +1,42 @@
+package com.app.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+public class BatchTransferDTO {
+    public static final int MAX_TRANSFERS = 1000;
+
+    public enum Mode {
+        /** Nothing is applied if any transfer fails */
+        ALL_OR_NOTHING,
+        /** Failed transfers are skipped, the rest are applied */
+        BEST_EFFORT
+    }
+
+    @NotEmpty(message="Transfers are required")
+    @Size(max=MAX_TRANSFERS, message="At most " + MAX_TRANSFERS + " transfers per batch")
+    private List<@Valid @NotNull TransferBetweenCardsDTO> transfers;
+
+    @NotNull(message="Mode is required")
+    private Mode mode = Mode.ALL_OR_NOTHING;
+
+    public List<TransferBetweenCardsDTO> getTransfers() {
+        return transfers;
+    }
+
+    public void setTransfers(List<TransferBetweenCardsDTO> transfers) {
+        this.transfers = transfers;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+}
@@ -0,0 +1,36 @@
+package com.app.dto;
+
+import java.util.List;
+
+public class BatchTransferResultDTO {
+    private BatchTransferDTO.Mode mode;
+    private boolean applied;
+    private int succeeded;
+    private int failed;
+    private List<TransferResultDTO> results;
+
+    public BatchTransferResultDTO() {}
+
+    public BatchTransferResultDTO(BatchTransferDTO.Mode mode, List<TransferResultDTO> results) {
+        this.mode = mode;
+        this.results = results;
+        this.succeeded = (int) results.stream().filter(TransferResultDTO::isSuccess).count();
+        this.failed = results.size() - succeeded;
+        this.applied = succeeded > 0;
+    }
+
+    public BatchTransferDTO.Mode getMode() { return mode; }
+    public void setMode(BatchTransferDTO.Mode mode) { this.mode = mode; }
+
+    public boolean isApplied() { return applied; }
+    public void setApplied(boolean applied) { this.applied = applied; }
+
+    public int getSucceeded() { return succeeded; }
+    public void setSucceeded(int succeeded) { this.succeeded = succeeded; }
+
+    public int getFailed() { return failed; }
+    public void setFailed(int failed) { this.failed = failed; }
+
+    public List<TransferResultDTO> getResults() { return results; }
+    public void setResults(List<TransferResultDTO> results) { this.results = results; }
+}
@@ -0,0 +1,36 @@
+package com.app.dto;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+public class CacheStatsDTO {
+    private long size;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private double hitRate;
+
+    public CacheStatsDTO() {}
+
+    public CacheStatsDTO(long size, CacheStats stats) {
+        this.size = size;
+        this.hitCount = stats.hitCount();
+        this.missCount = stats.missCount();
+        this.evictionCount = stats.evictionCount();
+        this.hitRate = stats.hitRate();
+    }
+
+    public long getSize() { return size; }
+    public void setSize(long size) { this.size = size; }
+
+    public long getHitCount() { return hitCount; }
+    public void setHitCount(long hitCount) { this.hitCount = hitCount; }
+
+    public long getMissCount() { return missCount; }
+    public void setMissCount(long missCount) { this.missCount = missCount; }
+
+    public long getEvictionCount() { return evictionCount; }
+    public void setEvictionCount(long evictionCount) { this.evictionCount = evictionCount; }
+
+    public double getHitRate() { return hitRate; }
+    public void setHitRate(double hitRate) { this.hitRate = hitRate; }
+}
@@ -3,6 +3,7 @@ package com.app.dto;
 import java.time.LocalDate;
 
 import com.app.model.Card;
+import com.app.model.Money;
 import com.app.model.STATUS;
 import com.fasterxml.jackson.annotation.JsonFormat;
 
@@ -14,7 +15,7 @@ public class CardDTO {
     @JsonFormat(pattern = "yyyy-MM-dd")
     private LocalDate validityPeriod;
     private STATUS status;
-    private double balance;
+    private Money balance;
     
     public Integer getId() {
         return id;
@@ -56,11 +57,11 @@ public class CardDTO {
         this.status = status;
     }
 
-    public double getBalance() {
+    public Money getBalance() {
         return  balance;
     }
 
-    public void setBalance(double balance) {
+    public void setBalance(Money balance) {
         this.balance = balance;
     }
     
@@ -75,6 +76,21 @@ public class CardDTO {
 
     public CardDTO() {};
 
+    // target of the listing projection, which selects these columns without loading the Card entity
+    public CardDTO(Integer id, String cardNumber, Integer ownerId, LocalDate validityPeriod, STATUS status, Money balance) {
+        this.id = id;
+        this.cardNumber = cardNumber;
+        this.ownerId = ownerId;
+        this.validityPeriod = validityPeriod;
+        this.status = status;
+        this.balance = balance;
+    }
+
+    public CardDTO maskCardNumber() {
+        this.cardNumber = setCardNumber(cardNumber, true);
+        return this;
+    }
+
     static public CardDTO newCardDTOWithMaksedNumber(Card card) {
         return new CardDTO(card, true);
     }
@@ -85,8 +101,12 @@ public class CardDTO {
 
     static private String setCardNumber(String cardNumber, boolean maskedCardNumber) {
         if (maskedCardNumber) {
-            return "*".repeat(cardNumber.length() - 4) + cardNumber.substring(cardNumber.length() - 4);
+            return mask(cardNumber);
         }
         return cardNumber;
     }
+
+    static String mask(String cardNumber) {
+        return "*".repeat(cardNumber.length() - 4) + cardNumber.substring(cardNumber.length() - 4);
+    }
 }
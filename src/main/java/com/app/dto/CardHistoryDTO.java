@@ -0,0 +1,35 @@
+package com.app.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public class CardHistoryDTO {
+    private List<CardTransactionDTO> content;
+    private boolean hasNext;
+    private Instant nextBeforeCreatedAt;
+    private Long nextBeforeId;
+
+    public CardHistoryDTO() {}
+
+    public CardHistoryDTO(List<CardTransactionDTO> content, boolean hasNext) {
+        this.content = content;
+        this.hasNext = hasNext;
+        if (hasNext) {
+            CardTransactionDTO last = content.get(content.size() - 1);
+            this.nextBeforeCreatedAt = last.getCreatedAt();
+            this.nextBeforeId = last.getId();
+        }
+    }
+
+    public List<CardTransactionDTO> getContent() { return content; }
+    public void setContent(List<CardTransactionDTO> content) { this.content = content; }
+
+    public boolean isHasNext() { return hasNext; }
+    public void setHasNext(boolean hasNext) { this.hasNext = hasNext; }
+
+    public Instant getNextBeforeCreatedAt() { return nextBeforeCreatedAt; }
+    public void setNextBeforeCreatedAt(Instant nextBeforeCreatedAt) { this.nextBeforeCreatedAt = nextBeforeCreatedAt; }
+
+    public Long getNextBeforeId() { return nextBeforeId; }
+    public void setNextBeforeId(Long nextBeforeId) { this.nextBeforeId = nextBeforeId; }
+}
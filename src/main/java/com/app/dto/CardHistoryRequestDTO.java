@@ -0,0 +1,59 @@
+package com.app.dto;
+
+import java.time.Instant;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+
+public class CardHistoryRequestDTO {
+    @NotBlank(message="Cardnumber is required")
+    @Pattern(regexp="^[0-9]{16}$", message="Card number must be exactly 16 digits")
+    private String cardNumber;
+
+    @Min(value=1, message="Size must be at least 1")
+    @Max(value=100, message="Size must be at most 100")
+    private int size = 20;
+
+    private Instant beforeCreatedAt = null;
+    private Long beforeId = null;
+
+    public String getCardNumber() {
+        return cardNumber;
+    }
+
+    public void setCardNumber(String cardNumber) {
+        this.cardNumber = cardNumber;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public Instant getBeforeCreatedAt() {
+        return beforeCreatedAt;
+    }
+
+    public void setBeforeCreatedAt(Instant beforeCreatedAt) {
+        this.beforeCreatedAt = beforeCreatedAt;
+    }
+
+    public Long getBeforeId() {
+        return beforeId;
+    }
+
+    public void setBeforeId(Long beforeId) {
+        this.beforeId = beforeId;
+    }
+
+    @AssertTrue(message="beforeCreatedAt and beforeId must be set together")
+    public boolean isCursorComplete() {
+        return (beforeCreatedAt == null) == (beforeId == null);
+    }
+}
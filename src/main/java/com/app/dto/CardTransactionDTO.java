@@ -0,0 +1,63 @@
+package com.app.dto;
+
+import java.time.Instant;
+
+import com.app.model.Money;
+
+public class CardTransactionDTO {
+    private Long id;
+    private String counterpartyCardNumber;
+    private Money amount;
+    private Money balanceAfter;
+    private Instant createdAt;
+
+    public CardTransactionDTO() {}
+
+    public CardTransactionDTO(Long id, String counterpartyCardNumber, Money amount, Money balanceAfter, Instant createdAt) {
+        this.id = id;
+        this.counterpartyCardNumber = counterpartyCardNumber == null ? null : CardDTO.mask(counterpartyCardNumber);
+        this.amount = amount;
+        this.balanceAfter = balanceAfter;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getCounterpartyCardNumber() {
+        return counterpartyCardNumber;
+    }
+
+    public void setCounterpartyCardNumber(String counterpartyCardNumber) {
+        this.counterpartyCardNumber = counterpartyCardNumber;
+    }
+
+    public Money getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Money amount) {
+        this.amount = amount;
+    }
+
+    public Money getBalanceAfter() {
+        return balanceAfter;
+    }
+
+    public void setBalanceAfter(Money balanceAfter) {
+        this.balanceAfter = balanceAfter;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
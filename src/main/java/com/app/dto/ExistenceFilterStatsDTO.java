@@ -0,0 +1,58 @@
+package com.app.dto;
+
+public class ExistenceFilterStatsDTO {
+    private String name;
+    private long insertions;
+    // insertions the filter was sized for, and how many it took beyond that
+    private long capacity;
+    private long overflow;
+    private long overflowRebuilds;
+    private long removedSinceRebuild;
+    private long bitCount;
+    private int hashCount;
+    private double expectedFalsePositiveRate;
+    private long skippedQueries;
+    private long falsePositives;
+    private long confirmedExisting;
+    // share of absent keys that the filter did not rule out
+    private double observedFalsePositiveRate;
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public long getInsertions() { return insertions; }
+    public void setInsertions(long insertions) { this.insertions = insertions; }
+
+    public long getCapacity() { return capacity; }
+    public void setCapacity(long capacity) { this.capacity = capacity; }
+
+    public long getOverflow() { return overflow; }
+    public void setOverflow(long overflow) { this.overflow = overflow; }
+
+    public long getOverflowRebuilds() { return overflowRebuilds; }
+    public void setOverflowRebuilds(long overflowRebuilds) { this.overflowRebuilds = overflowRebuilds; }
+
+    public long getRemovedSinceRebuild() { return removedSinceRebuild; }
+    public void setRemovedSinceRebuild(long removedSinceRebuild) { this.removedSinceRebuild = removedSinceRebuild; }
+
+    public long getBitCount() { return bitCount; }
+    public void setBitCount(long bitCount) { this.bitCount = bitCount; }
+
+    public int getHashCount() { return hashCount; }
+    public void setHashCount(int hashCount) { this.hashCount = hashCount; }
+
+    public double getExpectedFalsePositiveRate() { return expectedFalsePositiveRate; }
+    public void setExpectedFalsePositiveRate(double expectedFalsePositiveRate) { this.expectedFalsePositiveRate = expectedFalsePositiveRate; }
+
+    public long getSkippedQueries() { return skippedQueries; }
+    public void setSkippedQueries(long skippedQueries) { this.skippedQueries = skippedQueries; }
+
+    public long getFalsePositives() { return falsePositives; }
+    public void setFalsePositives(long falsePositives) { this.falsePositives = falsePositives; }
+
+    public long getConfirmedExisting() { return confirmedExisting; }
+    public void setConfirmedExisting(long confirmedExisting) { this.confirmedExisting = confirmedExisting; }
+
+    public double getObservedFalsePositiveRate() { return observedFalsePositiveRate; }
+    public void setObservedFalsePositiveRate(double observedFalsePositiveRate) { this.observedFalsePositiveRate = observedFalsePositiveRate; }
+}
@@ -2,14 +2,21 @@ package com.app.dto;
 
 import java.time.LocalDate;
 
+import com.app.model.Money;
 import com.app.model.STATUS;
 import com.app.validator.FilterPageCardValid;
 
 @FilterPageCardValid
 public class FilterPageCardDTO {
-    
-    public static final Double DEFAULT_MIN_BALANCE = -1.7976931348623157E+308;
-    public static final Double DEFAULT_MAX_BALANCE = 1.7976931348623157E308;
+
+    public enum CountMode {
+        /** totalItems and totalPages from a COUNT query on every request */
+        EXACT,
+        /** no COUNT query, totals are -1 */
+        NONE,
+        /** COUNT result reused for the same filter for a short TTL */
+        CACHED
+    }
 
     private String username = null;
     private String directionSort = "asc";
@@ -20,8 +27,12 @@ public class FilterPageCardDTO {
     private LocalDate minEndDate = null;
     private LocalDate maxEndDate = null;
     private STATUS status = null;
-    private Double minBalance = DEFAULT_MIN_BALANCE;
-    private Double maxBalance = DEFAULT_MAX_BALANCE;
+    private Money minBalance = null;
+    private Money maxBalance = null;
+    // keyset pagination: page is ignored, the next page is requested with the returned nextCursor
+    private boolean keyset = false;
+    private String cursor = null;
+    private CountMode countMode = CountMode.EXACT;
 
     public String getUsername() {
         return username;
@@ -91,17 +102,38 @@ public class FilterPageCardDTO {
         this.status = status;
     }
 
-    public double getMinBalance() {
+    public Money getMinBalance() {
         return minBalance;
     }
-    public void setMinBalance(double minBalance)  {
+    public void setMinBalance(Money minBalance)  {
         this.minBalance = minBalance;
     }
 
-    public double getMaxBalance() {
+    public Money getMaxBalance() {
         return maxBalance;
     }
-    public void setMaxBalance(double maxBalance)  {
+    public void setMaxBalance(Money maxBalance)  {
         this.maxBalance = maxBalance;
     }
+
+    public boolean isKeyset() {
+        return keyset;
+    }
+    public void setKeyset(boolean keyset)  {
+        this.keyset = keyset;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+    public void setCursor(String cursor)  {
+        this.cursor = cursor;
+    }
+
+    public CountMode getCountMode() {
+        return countMode;
+    }
+    public void setCountMode(CountMode countMode)  {
+        this.countMode = countMode;
+    }
 }
@@ -10,6 +10,7 @@ public class PaginatedResponse<T> {
     private int pageSize;
     private boolean hasNext;
     private boolean hasPrevious;
+    private String nextCursor;
 
     public PaginatedResponse() {}
 
@@ -25,6 +26,12 @@ public class PaginatedResponse<T> {
         this.hasPrevious = hasPrevious;
     }
 
+    // keyset page: position and totals are unknown without a COUNT query, so they are reported as -1
+    public PaginatedResponse(List<T> content, int pageSize, boolean hasNext, boolean hasPrevious, String nextCursor) {
+        this(content, -1, -1, -1, pageSize, hasNext, hasPrevious);
+        this.nextCursor = nextCursor;
+    }
+
     public List<T> getContent() { return content; }
     public void setContent(List<T> content) { this.content = content; }
     
@@ -45,4 +52,7 @@ public class PaginatedResponse<T> {
     
     public boolean isHasPrevious() { return hasPrevious; }
     public void setHasPrevious(boolean hasPrevious) { this.hasPrevious = hasPrevious; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
 }
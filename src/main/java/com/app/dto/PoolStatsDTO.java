@@ -0,0 +1,44 @@
+package com.app.dto;
+
+public class PoolStatsDTO {
+    private String poolName;
+    private int activeConnections;
+    private int idleConnections;
+    private int totalConnections;
+    private int pendingThreads;
+    private int maxConnections;
+    private long acquireCount;
+    private double averageWaitMillis;
+    private double maxWaitMillis;
+    private long timeoutCount;
+
+    public String getPoolName() { return poolName; }
+    public void setPoolName(String poolName) { this.poolName = poolName; }
+
+    public int getActiveConnections() { return activeConnections; }
+    public void setActiveConnections(int activeConnections) { this.activeConnections = activeConnections; }
+
+    public int getIdleConnections() { return idleConnections; }
+    public void setIdleConnections(int idleConnections) { this.idleConnections = idleConnections; }
+
+    public int getTotalConnections() { return totalConnections; }
+    public void setTotalConnections(int totalConnections) { this.totalConnections = totalConnections; }
+
+    public int getPendingThreads() { return pendingThreads; }
+    public void setPendingThreads(int pendingThreads) { this.pendingThreads = pendingThreads; }
+
+    public int getMaxConnections() { return maxConnections; }
+    public void setMaxConnections(int maxConnections) { this.maxConnections = maxConnections; }
+
+    public long getAcquireCount() { return acquireCount; }
+    public void setAcquireCount(long acquireCount) { this.acquireCount = acquireCount; }
+
+    public double getAverageWaitMillis() { return averageWaitMillis; }
+    public void setAverageWaitMillis(double averageWaitMillis) { this.averageWaitMillis = averageWaitMillis; }
+
+    public double getMaxWaitMillis() { return maxWaitMillis; }
+    public void setMaxWaitMillis(double maxWaitMillis) { this.maxWaitMillis = maxWaitMillis; }
+
+    public long getTimeoutCount() { return timeoutCount; }
+    public void setTimeoutCount(long timeoutCount) { this.timeoutCount = timeoutCount; }
+}
@@ -1,8 +1,11 @@
 package com.app.dto;
 
+import com.app.model.Money;
+import com.app.validator.PositiveMoney;
+
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
-import jakarta.validation.constraints.Positive;
 
 public class TransferBetweenCardsDTO {
     @NotBlank(message="Cardnumber is required")
@@ -12,8 +15,9 @@ public class TransferBetweenCardsDTO {
     @Pattern(regexp="^[0-9]{16}$", message="Card number must be exactly 16 digits")
     private String secondCardNumber;
 
-    @Positive
-    private double amountTransferBetweenCards;
+    @NotNull(message="Amount is required")
+    @PositiveMoney
+    private Money amountTransferBetweenCards;
 
     public String getFirstCardNumber() {
         return firstCardNumber;
@@ -23,7 +27,7 @@ public class TransferBetweenCardsDTO {
         return secondCardNumber;
     }
 
-    public double getAmountTransferBetweenCards() {
+    public Money getAmountTransferBetweenCards() {
         return amountTransferBetweenCards;
     }
 
@@ -35,7 +39,7 @@ public class TransferBetweenCardsDTO {
         this.secondCardNumber = secondCardNumber;
     }
 
-    public void setAmountTransferBetweenCards(double amountTransferBetweenCards) {
+    public void setAmountTransferBetweenCards(Money amountTransferBetweenCards) {
         this.amountTransferBetweenCards = amountTransferBetweenCards;
     }
 }
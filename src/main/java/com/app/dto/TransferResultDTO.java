@@ -0,0 +1,24 @@
+package com.app.dto;
+
+public class TransferResultDTO {
+    private int index;
+    private boolean success;
+    private String error;
+
+    public TransferResultDTO() {}
+
+    public TransferResultDTO(int index, boolean success, String error) {
+        this.index = index;
+        this.success = success;
+        this.error = error;
+    }
+
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+
+    public boolean isSuccess() { return success; }
+    public void setSuccess(boolean success) { this.success = success; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -0,0 +1,7 @@
+package com.app.exception;
+
+public class IdempotencyKeyReusedException extends AppException {
+    public IdempotencyKeyReusedException(String key) {
+        super("Idempotency key " + key + " was already used for a different request");
+    }
+}
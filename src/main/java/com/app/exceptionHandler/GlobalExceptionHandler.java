@@ -15,6 +15,7 @@ import com.app.exception.AppException;
 import com.app.exception.AuthenticationFailedException;
 import com.app.exception.BlockedAlreadyException;
 import com.app.exception.CardNotFoundException;
+import com.app.exception.IdempotencyKeyReusedException;
 import com.app.exception.InvalidRefreshTokenException;
 import com.app.exception.NotEnoughBalanceException;
 import com.app.exception.NotYourCardException;
@@ -66,6 +67,11 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(getErrorBody(ex));
     }
 
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<?> handleIdempotencyKeyReusedException(IdempotencyKeyReusedException ex) {
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(getErrorBody(ex));
+    }
+
     @ExceptionHandler(ValidationValueException.class)
     public ResponseEntity<?> handleValidationException(ValidationValueException ex) {
         
@@ -2,6 +2,9 @@ package com.app.model;
 
 import java.time.LocalDate;
 
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
 import com.fasterxml.jackson.annotation.JsonFormat;
 
 import jakarta.persistence.Column;
@@ -15,15 +18,21 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
 @Table(name="cards")
+// only number -> id is cached: balances change with every transfer and are always read from the database
+@NaturalIdCache(region = Card.NATURAL_ID_CACHE_REGION)
 public class Card {
+    public static final String NATURAL_ID_CACHE_REGION = "cardNumbers";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(nullable=false)
     private Integer id;
 
+    @NaturalId
     @Column(name="card_number", nullable=false, unique=true)
     private String cardNumber;
 
@@ -43,8 +52,11 @@ public class Card {
     private STATUS status;
 
     @Column(nullable=false)
-    private double balance;
+    private Money balance;
 
+    @Version
+    @Column(nullable=false)
+    private Long version;
 
     public Integer getId() {
         return id;
@@ -94,11 +106,19 @@ public class Card {
         this.status = status;
     }
 
-    public double getBalance() {
+    public Money getBalance() {
         return  balance;
     }
 
-    public void setBalance(double balance) {
+    public void setBalance(Money balance) {
         this.balance = balance;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
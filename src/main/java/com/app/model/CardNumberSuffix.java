@@ -0,0 +1,50 @@
+package com.app.model;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+// one row per suffix of a card number: "LIKE '%x%'" on cards becomes "suffix LIKE 'x%'", a range of the primary key
+@Entity
+@Immutable
+@IdClass(CardNumberSuffix.Key.class)
+@Table(name="card_number_suffixes")
+public class CardNumberSuffix {
+    @Id
+    @Column(nullable=false)
+    private String suffix;
+
+    @Id
+    @Column(name="card_id", nullable=false)
+    private Integer cardId;
+
+    public String getSuffix() {
+        return suffix;
+    }
+
+    public Integer getCardId() {
+        return cardId;
+    }
+
+    public static class Key implements Serializable {
+        private String suffix;
+        private Integer cardId;
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && Objects.equals(suffix, key.suffix) && Objects.equals(cardId, key.cardId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(suffix, cardId);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.app.model;
+
+import java.time.Instant;
+
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+@Entity
+@Immutable
+@Table(name="card_transactions", indexes = @Index(name="idx_card_transactions_card_created", columnList="card_id, created_at, id"))
+public class CardTransaction {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(nullable=false)
+    private Long id;
+
+    @Column(name="card_id", nullable=false)
+    private Integer cardId;
+
+    @Column(name="counterparty_card_id", nullable=false)
+    private Integer counterpartyCardId;
+
+    // negative for the debited card, positive for the credited one
+    @Column(nullable=false)
+    private Money amount;
+
+    @Column(name="balance_after", nullable=false)
+    private Money balanceAfter;
+
+    @ColumnDefault("CURRENT_TIMESTAMP(6)")
+    @Column(name="created_at", nullable=false, insertable=false, updatable=false)
+    private Instant createdAt;
+
+    public CardTransaction() {}
+
+    public CardTransaction(Integer cardId, Integer counterpartyCardId, Money amount, Money balanceAfter) {
+        this.cardId = cardId;
+        this.counterpartyCardId = counterpartyCardId;
+        this.amount = amount;
+        this.balanceAfter = balanceAfter;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Integer getCardId() {
+        return cardId;
+    }
+
+    public Integer getCounterpartyCardId() {
+        return counterpartyCardId;
+    }
+
+    public Money getAmount() {
+        return amount;
+    }
+
+    public Money getBalanceAfter() {
+        return balanceAfter;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,67 @@
+package com.app.model;
+
+import java.math.BigDecimal;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Amount of money in minor units (cents). Arithmetic stays on the primitive long and fails
+ * on overflow instead of losing precision; BigDecimal is only used at the JSON boundary.
+ */
+public record Money(long minorUnits) implements Comparable<Money> {
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    public static Money ofMinor(long minorUnits) {
+        return new Money(minorUnits);
+    }
+
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static Money of(BigDecimal amount) {
+        try {
+            return new Money(amount.setScale(SCALE).unscaledValue().longValueExact());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount must have at most " + SCALE + " decimal places and fit the balance range: " + amount, e);
+        }
+    }
+
+    public static Money of(String amount) {
+        return of(new BigDecimal(amount));
+    }
+
+    public Money plus(Money other) {
+        return new Money(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money minus(Money other) {
+        return new Money(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    public Money negate() {
+        return new Money(Math.negateExact(minorUnits));
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    public boolean isLessThan(Money other) {
+        return minorUnits < other.minorUnits;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @JsonValue
+    public BigDecimal toDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public String toString() {
+        return toDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,50 @@
+package com.app.model;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+// one row per suffix of a username, see CardNumberSuffix
+@Entity
+@Immutable
+@IdClass(UsernameSuffix.Key.class)
+@Table(name="username_suffixes")
+public class UsernameSuffix {
+    @Id
+    @Column(nullable=false)
+    private String suffix;
+
+    @Id
+    @Column(name="user_id", nullable=false)
+    private Integer userId;
+
+    public String getSuffix() {
+        return suffix;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public static class Key implements Serializable {
+        private String suffix;
+        private Integer userId;
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && Objects.equals(suffix, key.suffix) && Objects.equals(userId, key.userId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(suffix, userId);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.app.repository;
+
+import java.util.List;
+
+import com.app.model.Card;
+
+public interface CardBulkInsert {
+    // inserts the cards as JDBC batches and sets the generated ids on them
+    void insertAll(List<Card> cards);
+}
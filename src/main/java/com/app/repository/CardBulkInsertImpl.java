@@ -0,0 +1,49 @@
+package com.app.repository;
+
+import java.sql.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.app.model.Card;
+
+// IDENTITY ids make Hibernate insert row by row; a JDBC batch is sent as multi-row INSERTs (rewriteBatchedStatements)
+public class CardBulkInsertImpl implements CardBulkInsert {
+    static final int CHUNK_SIZE = 1000;
+
+    private static final String INSERT_SQL =
+        "INSERT INTO cards (card_number, owner_id, validity_period, status, balance, version) VALUES (?, ?, ?, ?, ?, 0)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(List<Card> cards) {
+        for (int from = 0; from < cards.size(); from += CHUNK_SIZE) {
+            List<Card> chunk = cards.subList(from, Math.min(from + CHUNK_SIZE, cards.size()));
+            jdbcTemplate.batchUpdate(INSERT_SQL, chunk, chunk.size(), (statement, card) -> {
+                statement.setString(1, card.getCardNumber());
+                statement.setInt(2, card.getOwnerId());
+                statement.setDate(3, Date.valueOf(card.getValidityPeriod()));
+                statement.setString(4, card.getStatus().name());
+                statement.setLong(5, card.getBalance().minorUnits());
+            });
+            readIds(chunk);
+        }
+    }
+
+    // generated keys are not returned for a batch, so the ids are read back by the unique card number
+    private void readIds(List<Card> chunk) {
+        Map<String, Card> byNumber = new HashMap<>();
+        for (Card card : chunk) {
+            byNumber.put(card.getCardNumber(), card);
+        }
+        String sql = "SELECT id, card_number FROM cards WHERE card_number IN (" + "?,".repeat(byNumber.size() - 1) + "?)";
+        jdbcTemplate.query(sql, resultSet -> {
+            byNumber.get(resultSet.getString("card_number")).setId(resultSet.getInt("id"));
+        }, byNumber.keySet().toArray());
+    }
+}
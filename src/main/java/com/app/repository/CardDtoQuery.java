@@ -0,0 +1,26 @@
+package com.app.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.app.dto.CardDTO;
+import com.app.model.Card;
+
+/**
+ * Card listings that select the CardDTO columns straight into DTOs. Nothing is loaded into the
+ * persistence context, so these reads leave no entities to snapshot and check at flush.
+ */
+public interface CardDtoQuery {
+    Page<CardDTO> findCardDtos(Specification<Card> spec, Pageable pageable);
+
+    // reads size + 1 rows to find out whether a next page exists, without a COUNT query
+    Slice<CardDTO> findCardDtoSlice(Specification<Card> spec, Pageable pageable);
+
+    List<CardDTO> findCardDtos(Specification<Card> spec, Sort sort, Limit limit);
+}
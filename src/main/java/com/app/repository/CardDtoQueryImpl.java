@@ -0,0 +1,86 @@
+package com.app.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import com.app.dto.CardDTO;
+import com.app.model.Card;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+public class CardDtoQueryImpl implements CardDtoQuery {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<CardDTO> findCardDtos(Specification<Card> spec, Pageable pageable) {
+        List<CardDTO> content = createQuery(spec, pageable.getSort())
+            .setFirstResult((int) pageable.getOffset())
+            .setMaxResults(pageable.getPageSize())
+            .getResultList();
+        // the COUNT query is skipped when the page itself shows the total, e.g. a short first page
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(spec));
+    }
+
+    @Override
+    public Slice<CardDTO> findCardDtoSlice(Specification<Card> spec, Pageable pageable) {
+        List<CardDTO> content = createQuery(spec, pageable.getSort())
+            .setFirstResult((int) pageable.getOffset())
+            .setMaxResults(pageable.getPageSize() + 1)
+            .getResultList();
+        boolean hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    @Override
+    public List<CardDTO> findCardDtos(Specification<Card> spec, Sort sort, Limit limit) {
+        return createQuery(spec, sort).setMaxResults(limit.max()).getResultList();
+    }
+
+    private TypedQuery<CardDTO> createQuery(Specification<Card> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CardDTO> query = cb.createQuery(CardDTO.class);
+        Root<Card> card = query.from(Card.class);
+        query.select(cb.construct(CardDTO.class,
+            card.get("id"),
+            card.get("cardNumber"),
+            card.get("ownerId"),
+            card.get("validityPeriod"),
+            card.get("status"),
+            card.get("balance")));
+        Predicate predicate = spec.toPredicate(card, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, card, cb));
+        return entityManager.createQuery(query);
+    }
+
+    private long count(Specification<Card> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Card> card = query.from(Card.class);
+        query.select(cb.count(card));
+        Predicate predicate = spec.toPredicate(card, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
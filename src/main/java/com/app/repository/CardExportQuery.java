@@ -0,0 +1,13 @@
+package com.app.repository;
+
+import java.util.function.Consumer;
+
+import com.app.dto.CardDTO;
+
+public interface CardExportQuery {
+    // streams every card in id order; each DTO is handed over as soon as its row is read
+    void forEachCardDto(Consumer<CardDTO> action);
+
+    // streams the keys in no particular order, which lets the database read them from the unique index alone
+    void forEachCardNumber(Consumer<String> action);
+}
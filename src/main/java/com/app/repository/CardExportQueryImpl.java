@@ -0,0 +1,39 @@
+package com.app.repository;
+
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.app.dto.CardDTO;
+import com.app.model.Money;
+import com.app.model.STATUS;
+
+public class CardExportQueryImpl implements CardExportQuery {
+    private static final String SELECT_SQL =
+        "SELECT id, card_number, owner_id, validity_period, status, balance FROM cards ORDER BY id";
+    private static final String CARD_NUMBERS_SQL = "SELECT card_number FROM cards";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void forEachCardDto(Consumer<CardDTO> action) {
+        jdbcTemplate.query(ForwardOnlyStatements.streaming(SELECT_SQL), resultSet -> {
+            action.accept(new CardDTO(
+                resultSet.getInt("id"),
+                resultSet.getString("card_number"),
+                resultSet.getInt("owner_id"),
+                resultSet.getDate("validity_period").toLocalDate(),
+                STATUS.valueOf(resultSet.getString("status")),
+                Money.ofMinor(resultSet.getLong("balance"))));
+        });
+    }
+
+    @Override
+    public void forEachCardNumber(Consumer<String> action) {
+        jdbcTemplate.query(ForwardOnlyStatements.streaming(CARD_NUMBERS_SQL), resultSet -> {
+            action.accept(resultSet.getString("card_number"));
+        });
+    }
+}
@@ -0,0 +1,14 @@
+package com.app.repository;
+
+import java.util.Collection;
+import java.util.Optional;
+
+import com.app.model.Card;
+
+public interface CardNaturalIdQuery {
+    // resolves the number through the natural-id cache, then loads the card by primary key
+    Optional<Card> findByCardNumber(String cardNumber);
+
+    // for cards the database deleted behind Hibernate's back, e.g. by ON DELETE CASCADE
+    void evictCachedCardNumbers(Collection<String> cardNumbers);
+}
@@ -0,0 +1,40 @@
+package com.app.repository;
+
+import java.util.Collection;
+import java.util.Optional;
+
+import org.hibernate.Session;
+import org.hibernate.cache.spi.access.NaturalIdDataAccess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.app.model.Card;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+public class CardNaturalIdQueryImpl implements CardNaturalIdQuery {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Card> findByCardNumber(String cardNumber) {
+        // card numbers never change, so there are no pending natural-id updates to flush before the lookup
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Card.class)
+            .setSynchronizationEnabled(false)
+            .loadOptional(cardNumber);
+    }
+
+    @Override
+    public void evictCachedCardNumbers(Collection<String> cardNumbers) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(Card.class);
+        NaturalIdDataAccess cardNumberCache = persister.getNaturalIdCacheAccessStrategy();
+        for (String cardNumber : cardNumbers) {
+            cardNumberCache.evict(cardNumberCache.generateCacheKey(cardNumber, persister, session));
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.app.repository;
+
+import java.util.List;
+
+import com.app.model.Card;
+
+public interface CardNumberSearchIndex {
+    void indexCardNumber(Integer cardId, String cardNumber);
+    // cards must have their ids set
+    void indexCardNumbers(List<Card> cards);
+}
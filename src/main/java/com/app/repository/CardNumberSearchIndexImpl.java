@@ -0,0 +1,40 @@
+package com.app.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.app.model.Card;
+
+// rows go away with the card through the ON DELETE CASCADE foreign key
+public class CardNumberSearchIndexImpl implements CardNumberSearchIndex {
+    private static final String INSERT_SQL = "INSERT INTO card_number_suffixes (suffix, card_id) VALUES (?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void indexCardNumber(Integer cardId, String cardNumber) {
+        List<String> suffixes = SearchSuffixes.of(cardNumber);
+        jdbcTemplate.batchUpdate(INSERT_SQL, suffixes, suffixes.size(), (statement, suffix) -> {
+            statement.setString(1, suffix);
+            statement.setInt(2, cardId);
+        });
+    }
+
+    @Override
+    public void indexCardNumbers(List<Card> cards) {
+        List<Object[]> rows = new ArrayList<>(cards.size() * 16);
+        for (Card card : cards) {
+            for (String suffix : SearchSuffixes.of(card.getCardNumber())) {
+                rows.add(new Object[] {suffix, card.getId()});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, CardBulkInsertImpl.CHUNK_SIZE, (statement, row) -> {
+            statement.setString(1, (String) row[0]);
+            statement.setInt(2, (Integer) row[1]);
+        });
+    }
+}
@@ -1,38 +1,42 @@
 package com.app.repository;
 
-import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import com.app.model.Card;
-import com.app.model.STATUS;
 
-public interface CardRepository extends JpaRepository<Card, Integer>{
-       public Optional<Card> findByCardNumber(String cardNumber);
+import jakarta.persistence.LockModeType;
+
+public interface CardRepository extends JpaRepository<Card, Integer>, JpaSpecificationExecutor<Card>, CardDtoQuery, CardExportQuery, CardNaturalIdQuery, CardBulkInsert, CardNumberSearchIndex {
        public void deleteByCardNumber(String cardNumber);
        public boolean existsByCardNumber(String cardNumber);
-    
-       @Query("SELECT c FROM Card c JOIN FETCH c.owner u WHERE " +
-              "((:isAdminSearch = false AND u.username = :username) OR " +
-              "(:isAdminSearch = true AND (:username IS NULL OR u.username LIKE %:username%))) " +
-              "AND (:cardNumber IS NULL OR c.cardNumber LIKE %:cardNumber%) " +
-              "AND (:status IS NULL OR c.status = :status) " +
-              "AND (:minBalance IS NULL OR c.balance >= :minBalance) " +
-              "AND (:maxBalance IS NULL OR c.balance <= :maxBalance) " +
-              "AND (:minEndDate IS NULL OR c.validityPeriod >= :minEndDate) " +
-              "AND (:maxEndDate IS NULL OR c.validityPeriod <= :maxEndDate)")
-       public Page<Card> findByCriteria(@Param("username") String username,
-                                   @Param("cardNumber") String cardNumber,
-                                   @Param("status") STATUS status,
-                                   @Param("minBalance") Double minBalance,
-                                   @Param("maxBalance") Double maxBalance,
-                                   @Param("minEndDate") LocalDate minEndDate,
-                                   @Param("maxEndDate") LocalDate maxEndDate,
-                                   @Param("isAdminSearch") Boolean isAdminSearch,
-                                   Pageable pageable);
+
+       @Lock(LockModeType.PESSIMISTIC_WRITE)
+       @Query("SELECT c FROM Card c WHERE c.cardNumber = :cardNumber")
+       public Optional<Card> findByCardNumberForUpdate(@Param("cardNumber") String cardNumber);
+
+       @Query("SELECT c.ownerId FROM Card c WHERE c.cardNumber = :cardNumber")
+       public Optional<Integer> findOwnerIdByCardNumber(@Param("cardNumber") String cardNumber);
+
+       @Query("SELECT c.cardNumber FROM Card c WHERE c.cardNumber IN :cardNumbers AND c.ownerId <> :ownerId")
+       public List<String> findCardNumbersOwnedByOthers(@Param("cardNumbers") Collection<String> cardNumbers, @Param("ownerId") Integer ownerId);
+
+       @Query("SELECT c.cardNumber FROM Card c WHERE c.cardNumber IN :cardNumbers")
+       public List<String> findExistingCardNumbers(@Param("cardNumbers") Collection<String> cardNumbers);
+
+       @Query("SELECT c.cardNumber FROM Card c, User u WHERE c.ownerId = u.id AND u.username = :username")
+       public List<String> findCardNumbersByOwnerUsername(@Param("username") String username);
+
+       public List<Card> findByCardNumberInOrderByCardNumber(Collection<String> cardNumbers);
+
+       @Lock(LockModeType.PESSIMISTIC_WRITE)
+       @Query("SELECT c FROM Card c WHERE c.cardNumber IN :cardNumbers ORDER BY c.cardNumber")
+       public List<Card> findByCardNumberInForUpdate(@Param("cardNumbers") Collection<String> cardNumbers);
 }
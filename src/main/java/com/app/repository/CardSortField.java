@@ -0,0 +1,74 @@
+package com.app.repository;
+
+import java.time.LocalDate;
+import java.util.function.Function;
+
+import com.app.dto.CardDTO;
+import com.app.model.Money;
+
+/**
+ * Columns a card list may be sorted by, as accepted in FilterPageCardDTO.sortBy, with the entity
+ * property behind each one and how its value is written into a keyset cursor.
+ */
+public enum CardSortField {
+    ID("id", "id", CardDTO::getId, Integer::valueOf),
+    CARD_NUMBER("card_number", "cardNumber", CardDTO::getCardNumber, value -> value),
+    OWNER_ID("owner_id", "ownerId", CardDTO::getOwnerId, Integer::valueOf),
+    VALIDITY_PERIOD("validity_period", "validityPeriod", CardDTO::getValidityPeriod, LocalDate::parse),
+    STATUS("status", "status", CardDTO::getStatus, com.app.model.STATUS::valueOf),
+    BALANCE("balance", "balance", card -> card.getBalance().minorUnits(), value -> Money.ofMinor(Long.parseLong(value)));
+
+    // values() copies the array on every call
+    private static final CardSortField[] FIELDS = values();
+
+    private final String columnName;
+    private final String property;
+    private final Function<CardDTO, Object> extractor;
+    private final Function<String, Object> parser;
+
+    CardSortField(String columnName, String property, Function<CardDTO, Object> extractor, Function<String, Object> parser) {
+        this.columnName = columnName;
+        this.property = property;
+        this.extractor = extractor;
+        this.parser = parser;
+    }
+
+    public static CardSortField fromColumnName(String columnName) {
+        CardSortField field = find(columnName);
+        if (field == null) {
+            throw new IllegalArgumentException("Unknown sort column: " + columnName);
+        }
+        return field;
+    }
+
+    public static boolean isColumnName(String columnName) {
+        return find(columnName) != null;
+    }
+
+    private static CardSortField find(String columnName) {
+        for (CardSortField field : FIELDS) {
+            if (field.columnName.equalsIgnoreCase(columnName)) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    public String getColumnName() {
+        return columnName;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    /** Value of this column in the form stored in a cursor */
+    public String format(CardDTO card) {
+        return String.valueOf(extractor.apply(card));
+    }
+
+    /** Query parameter for a value previously written by {@link #format(CardDTO)} */
+    public Object parse(String value) {
+        return parser.apply(value);
+    }
+}
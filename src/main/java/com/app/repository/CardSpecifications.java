@@ -0,0 +1,102 @@
+package com.app.repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.app.model.Card;
+import com.app.model.CardNumberSuffix;
+import com.app.model.Money;
+import com.app.model.STATUS;
+import com.app.model.UsernameSuffix;
+
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
+/**
+ * Filters of the card listings. Only the filters that are set become predicates, so each combination
+ * of filters is its own short statement that the database can plan with the matching index, instead of
+ * one "(:x IS NULL OR ...)" statement for all of them.
+ */
+public final class CardSpecifications {
+    private CardSpecifications() {}
+
+    /**
+     * @param isAdminSearch if true, username matches any part of the owner's name and may be null;
+     *                      otherwise only the cards of exactly this user are returned
+     */
+    public static Specification<Card> matching(String username, String cardNumber, STATUS status, Money minBalance, Money maxBalance,
+                                               LocalDate minEndDate, LocalDate maxEndDate, boolean isAdminSearch) {
+        List<Specification<Card>> specs = new ArrayList<>();
+        if (!isAdminSearch) {
+            specs.add(ownedBy(username));
+        } else if (username != null) {
+            specs.add(ownerNameContains(username));
+        }
+        if (cardNumber != null) {
+            specs.add(cardNumberContains(cardNumber));
+        }
+        if (status != null) {
+            specs.add((root, query, cb) -> cb.equal(root.get("status"), status));
+        }
+        if (minBalance != null) {
+            specs.add((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("balance"), minBalance));
+        }
+        if (maxBalance != null) {
+            specs.add((root, query, cb) -> cb.lessThanOrEqualTo(root.get("balance"), maxBalance));
+        }
+        if (minEndDate != null) {
+            specs.add((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("validityPeriod"), minEndDate));
+        }
+        if (maxEndDate != null) {
+            specs.add((root, query, cb) -> cb.lessThanOrEqualTo(root.get("validityPeriod"), maxEndDate));
+        }
+        return Specification.allOf(specs);
+    }
+
+    /**
+     * Cards that follow (afterValue, afterId) in (sortField, id) order, written as
+     * "column > :value OR (column = :value AND id > :id)" so that the index on (column, id) can seek into it.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Specification<Card> after(CardSortField sortField, Sort.Direction direction, Object afterValue, Integer afterId) {
+        return (root, query, cb) -> {
+            Expression<Integer> id = root.get("id");
+            if (sortField == CardSortField.ID) {
+                return direction.isDescending() ? cb.lessThan(id, afterId) : cb.greaterThan(id, afterId);
+            }
+            Expression<Comparable> column = root.get(sortField.getProperty());
+            Comparable value = (Comparable) afterValue;
+            return direction.isDescending()
+                ? cb.or(cb.lessThan(column, value), cb.and(cb.equal(column, value), cb.lessThan(id, afterId)))
+                : cb.or(cb.greaterThan(column, value), cb.and(cb.equal(column, value), cb.greaterThan(id, afterId)));
+        };
+    }
+
+    private static Specification<Card> ownedBy(String username) {
+        return (root, query, cb) -> cb.equal(root.join("owner").get("username"), username);
+    }
+
+    // substring filters go through the suffix tables: "LIKE '%x%'" cannot use a B-tree index, "suffix LIKE 'x%'" can
+    private static Specification<Card> ownerNameContains(String username) {
+        return (root, query, cb) -> {
+            Subquery<Integer> owners = query.subquery(Integer.class);
+            Root<UsernameSuffix> suffix = owners.from(UsernameSuffix.class);
+            owners.select(suffix.get("userId")).where(cb.like(suffix.get("suffix"), username + "%"));
+            return root.get("ownerId").in(owners);
+        };
+    }
+
+    private static Specification<Card> cardNumberContains(String cardNumber) {
+        return (root, query, cb) -> {
+            Subquery<Integer> cards = query.subquery(Integer.class);
+            Root<CardNumberSuffix> suffix = cards.from(CardNumberSuffix.class);
+            cards.select(suffix.get("cardId")).where(cb.like(suffix.get("suffix"), cardNumber + "%"));
+            return root.get("id").in(cards);
+        };
+    }
+}
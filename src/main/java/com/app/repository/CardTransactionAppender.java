@@ -0,0 +1,9 @@
+package com.app.repository;
+
+import java.util.List;
+
+import com.app.model.CardTransaction;
+
+public interface CardTransactionAppender {
+    void append(List<CardTransaction> transactions);
+}
@@ -0,0 +1,27 @@
+package com.app.repository;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.app.model.CardTransaction;
+
+// IDENTITY ids make Hibernate insert row by row, so ledger rows go out as a single JDBC batch instead
+public class CardTransactionAppenderImpl implements CardTransactionAppender {
+    private static final String INSERT_SQL =
+        "INSERT INTO card_transactions (card_id, counterparty_card_id, amount, balance_after) VALUES (?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void append(List<CardTransaction> transactions) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, transactions, transactions.size(), (statement, transaction) -> {
+            statement.setInt(1, transaction.getCardId());
+            statement.setInt(2, transaction.getCounterpartyCardId());
+            statement.setLong(3, transaction.getAmount().minorUnits());
+            statement.setLong(4, transaction.getBalanceAfter().minorUnits());
+        });
+    }
+}
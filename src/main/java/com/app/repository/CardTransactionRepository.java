@@ -0,0 +1,30 @@
+package com.app.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.app.dto.CardTransactionDTO;
+import com.app.model.CardTransaction;
+
+public interface CardTransactionRepository extends JpaRepository<CardTransaction, Long>, CardTransactionAppender {
+
+       // no foreign key on counterparty_card_id, so a deleted counterparty card leaves the number null
+       String HISTORY_SELECT = "SELECT new com.app.dto.CardTransactionDTO(t.id, c.cardNumber, t.amount, t.balanceAfter, t.createdAt) " +
+              "FROM CardTransaction t LEFT JOIN Card c ON c.id = t.counterpartyCardId ";
+
+       @Query(HISTORY_SELECT + "WHERE t.cardId = :cardId ORDER BY t.createdAt DESC, t.id DESC")
+       public List<CardTransactionDTO> findLatestByCardId(@Param("cardId") Integer cardId, Limit limit);
+
+       @Query(HISTORY_SELECT + "WHERE t.cardId = :cardId " +
+              "AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) " +
+              "ORDER BY t.createdAt DESC, t.id DESC")
+       public List<CardTransactionDTO> findByCardIdBefore(@Param("cardId") Integer cardId,
+                                                          @Param("createdAt") Instant createdAt,
+                                                          @Param("id") Long id,
+                                                          Limit limit);
+}
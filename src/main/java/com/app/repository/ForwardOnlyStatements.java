@@ -0,0 +1,26 @@
+package com.app.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import org.springframework.jdbc.core.PreparedStatementCreator;
+
+/**
+ * Statements for reading a whole table row by row. Connector/J buffers the entire result set in memory
+ * unless a forward-only, read-only statement asks for a fetch size of Integer.MIN_VALUE, in which case
+ * it streams the rows from the socket one at a time.
+ */
+final class ForwardOnlyStatements {
+    private static final int DEFAULT_FETCH_SIZE = 1000;
+
+    private ForwardOnlyStatements() {}
+
+    static PreparedStatementCreator streaming(String sql) {
+        return connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            boolean mySql = "MySQL".equals(connection.getMetaData().getDatabaseProductName());
+            statement.setFetchSize(mySql ? Integer.MIN_VALUE : DEFAULT_FETCH_SIZE);
+            return statement;
+        };
+    }
+}
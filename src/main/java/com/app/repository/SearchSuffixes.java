@@ -0,0 +1,17 @@
+package com.app.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class SearchSuffixes {
+    private SearchSuffixes() {}
+
+    // "abc" -> ["abc", "bc", "c"]: a value contains x exactly when one of its suffixes starts with x
+    static List<String> of(String value) {
+        List<String> suffixes = new ArrayList<>(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            suffixes.add(value.substring(i));
+        }
+        return suffixes;
+    }
+}
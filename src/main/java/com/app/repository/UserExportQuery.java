@@ -0,0 +1,13 @@
+package com.app.repository;
+
+import java.util.function.Consumer;
+
+import com.app.dto.UserDTO;
+
+public interface UserExportQuery {
+    // streams every user in id order; each DTO is handed over as soon as its row is read
+    void forEachUserDto(Consumer<UserDTO> action);
+
+    // streams the keys in no particular order, which lets the database read them from the unique index alone
+    void forEachUsername(Consumer<String> action);
+}
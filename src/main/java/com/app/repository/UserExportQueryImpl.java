@@ -0,0 +1,34 @@
+package com.app.repository;
+
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.app.dto.UserDTO;
+
+public class UserExportQueryImpl implements UserExportQuery {
+    private static final String SELECT_SQL = "SELECT id, username, role FROM users ORDER BY id";
+    private static final String USERNAMES_SQL = "SELECT username FROM users";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void forEachUserDto(Consumer<UserDTO> action) {
+        jdbcTemplate.query(ForwardOnlyStatements.streaming(SELECT_SQL), resultSet -> {
+            UserDTO user = new UserDTO();
+            user.setId(resultSet.getInt("id"));
+            user.setUsername(resultSet.getString("username"));
+            user.setRole(resultSet.getString("role"));
+            action.accept(user);
+        });
+    }
+
+    @Override
+    public void forEachUsername(Consumer<String> action) {
+        jdbcTemplate.query(ForwardOnlyStatements.streaming(USERNAMES_SQL), resultSet -> {
+            action.accept(resultSet.getString("username"));
+        });
+    }
+}
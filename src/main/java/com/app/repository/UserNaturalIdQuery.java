@@ -0,0 +1,10 @@
+package com.app.repository;
+
+import java.util.Optional;
+
+import com.app.model.User;
+
+public interface UserNaturalIdQuery {
+    // resolves the username through the natural-id cache, then takes the user from the entity cache
+    Optional<User> findByUsername(String username);
+}
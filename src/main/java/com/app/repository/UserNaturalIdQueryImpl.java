@@ -0,0 +1,26 @@
+package com.app.repository;
+
+import java.util.Optional;
+
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.app.model.User;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+public class UserNaturalIdQueryImpl implements UserNaturalIdQuery {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // a read-only transaction also makes the loaded user read-only, so Hibernate keeps no snapshot for dirty checking
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findByUsername(String username) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(User.class)
+            .setSynchronizationEnabled(false)
+            .loadOptional(username);
+    }
+}
@@ -1,5 +1,7 @@
 package com.app.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,11 +10,13 @@ import org.springframework.data.repository.query.Param;
 
 import com.app.model.User;
 
-public interface UserRepository extends JpaRepository<User, Integer> {
+public interface UserRepository extends JpaRepository<User, Integer>, UserExportQuery, UserNaturalIdQuery, UsernameSearchIndex {
     boolean existsByUsername(String username);
-    Optional<User> findByUsername(String username);
     void deleteByUsername(String username);
 
     @Query("SELECT u.id FROM User u WHERE username = :username")
     public Optional<Integer> findUserIdByUsername(@Param("username") String username);
+
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    public List<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
 }
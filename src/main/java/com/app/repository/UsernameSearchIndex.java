@@ -0,0 +1,5 @@
+package com.app.repository;
+
+public interface UsernameSearchIndex {
+    void indexUsername(Integer userId, String username);
+}
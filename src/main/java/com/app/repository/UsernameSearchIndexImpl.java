@@ -0,0 +1,23 @@
+package com.app.repository;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// rows go away with the user through the ON DELETE CASCADE foreign key
+public class UsernameSearchIndexImpl implements UsernameSearchIndex {
+    private static final String INSERT_SQL = "INSERT INTO username_suffixes (suffix, user_id) VALUES (?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void indexUsername(Integer userId, String username) {
+        List<String> suffixes = SearchSuffixes.of(username);
+        jdbcTemplate.batchUpdate(INSERT_SQL, suffixes, suffixes.size(), (statement, suffix) -> {
+            statement.setString(1, suffix);
+            statement.setInt(2, userId);
+        });
+    }
+}
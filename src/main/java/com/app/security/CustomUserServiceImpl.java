@@ -1,23 +1,61 @@
 package com.app.security;
 
+import java.time.Duration;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import com.app.dto.CacheStatsDTO;
 import com.app.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
 
 @Service
 public class CustomUserServiceImpl implements UserDetailsService {
     @Autowired
     private UserRepository userRepo;
 
+    @Value("${principal.cache.size:10000}")
+    private long principalCacheSize;
+
+    @Value("${principal.cache.ttl:60}")
+    private long principalCacheTtl;
+
+    private Cache<String, CustomUserDetails> principalCache;
+
+    @PostConstruct
+    public void init() {
+        principalCache = Caffeine.newBuilder()
+            .maximumSize(principalCacheSize)
+            .expireAfterWrite(Duration.ofSeconds(principalCacheTtl))
+            .recordStats()
+            .build();
+    }
+
     @Override
     public CustomUserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return userRepo.findByUsername(username).map(CustomUserDetails::new).orElseThrow(
-            () -> new UsernameNotFoundException(username)
-        );
+        CustomUserDetails userDetails = principalCache.get(username,
+            key -> userRepo.findByUsername(key).map(CustomUserDetails::new).orElse(null));
+        if (userDetails == null) {
+            throw new UsernameNotFoundException(username);
+        }
+        return userDetails;
+    }
+
+    public void evict(String username) {
+        principalCache.invalidate(username);
     }
 
-    
+    public void evictAll() {
+        principalCache.invalidateAll();
+    }
+
+    public CacheStatsDTO getCacheStats() {
+        return new CacheStatsDTO(principalCache.estimatedSize(), principalCache.stats());
+    }
 }
@@ -3,12 +3,15 @@ package com.app.security;
 import java.io.IOException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.app.service.JwtService;
+import com.app.service.JwtVerificationResult;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -23,24 +26,32 @@ public class JwtFilter extends OncePerRequestFilter {
     @Autowired
     private CustomUserServiceImpl userServiceImpl;
 
+    @Value("${jwt.stateless.principal:true}")
+    private boolean statelessPrincipal;
+
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         String token = jwtService.getTokenFromRequest(request);
         
-        if (token != null && jwtService.validateJwtToken(token)) {
-            setCustomUserDetailsToSecurityContextHolder(token);
+        if (token != null) {
+            JwtVerificationResult verification = jwtService.verifyToken(token);
+            if (verification.isValid()) {
+                setUserDetailsToSecurityContextHolder(verification);
+            }
         }
         filterChain.doFilter(request, response);
     }
 
 
-    private void setCustomUserDetailsToSecurityContextHolder(String token) {
-        String username = jwtService.getUsernameFromToken(token);
-        CustomUserDetails customUserDetails = userServiceImpl.loadUserByUsername(username);
-        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(customUserDetails, 
-                                                        null, customUserDetails.getAuthorities());
+    private void setUserDetailsToSecurityContextHolder(JwtVerificationResult verification) {
+        UserDetails userDetails = statelessPrincipal ? JwtUserPrincipal.fromClaims(verification.claims()) : null;
+        if (userDetails == null) {
+            userDetails = userServiceImpl.loadUserByUsername(verification.getSubject());
+        }
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(userDetails, 
+                                                        null, userDetails.getAuthorities());
         SecurityContextHolder.getContext().setAuthentication(authentication);
     }
 }
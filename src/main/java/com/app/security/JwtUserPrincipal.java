@@ -0,0 +1,39 @@
+package com.app.security;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.app.service.JwtService;
+
+import io.jsonwebtoken.Claims;
+
+public record JwtUserPrincipal(Integer id, String username, String role) implements UserDetails {
+
+    public static JwtUserPrincipal fromClaims(Claims claims) {
+        Integer id = claims.get(JwtService.CLAIM_USER_ID, Integer.class);
+        String role = claims.get(JwtService.CLAIM_ROLE, String.class);
+        if (id == null || role == null || claims.getSubject() == null) {
+            return null;
+        }
+        return new JwtUserPrincipal(id, claims.getSubject(), role);
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority(role));
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+}
@@ -0,0 +1,51 @@
+package com.app.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.app.dto.CacheStatsDTO;
+import com.app.model.Money;
+import com.app.model.STATUS;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Short-lived totals of card listings, keyed by the filter. The count may lag behind inserts and deletes
+ * by up to the TTL, which is acceptable for "N results" style displays.
+ */
+@Component
+public class CardCountCache {
+    @Value("${card.count.cache.size:1000}")
+    private long cacheSize;
+
+    @Value("${card.count.cache.ttl:30}")
+    private long cacheTtl;
+
+    private Cache<Key, Long> counts;
+
+    record Key(String username, String cardNumber, STATUS status, Money minBalance, Money maxBalance,
+               LocalDate minEndDate, LocalDate maxEndDate, boolean isAdminSearch) {}
+
+    @PostConstruct
+    public void init() {
+        counts = Caffeine.newBuilder()
+            .maximumSize(cacheSize)
+            .expireAfterWrite(Duration.ofSeconds(cacheTtl))
+            .recordStats()
+            .build();
+    }
+
+    public long get(Key key, Supplier<Long> counter) {
+        return counts.get(key, ignored -> counter.get());
+    }
+
+    public CacheStatsDTO getCacheStats() {
+        return new CacheStatsDTO(counts.estimatedSize(), counts.stats());
+    }
+}
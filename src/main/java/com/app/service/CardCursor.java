@@ -0,0 +1,62 @@
+package com.app.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.util.Base64;
+import java.util.Map;
+
+import org.springframework.data.domain.Sort;
+
+import com.app.dto.CardDTO;
+import com.app.exception.ValidationValueException;
+import com.app.repository.CardSortField;
+
+/**
+ * Continuation token of keyset pagination: the sort key and id of the last card returned.
+ * Sort column and direction are part of the token, so it cannot be replayed with a different sort.
+ * The token is only encoded, so a card number is sealed by {@link CardCursorCipher} before it is written
+ * (see {@link #sealsValue}); the position therefore survives the deletion of that card.
+ */
+record CardCursor(CardSortField sortField, Sort.Direction direction, Integer id, String value) {
+
+    static CardCursor after(CardDTO card, CardSortField sortField, Sort.Direction direction) {
+        return new CardCursor(sortField, direction, card.getId(), sortField.format(card));
+    }
+
+    static boolean sealsValue(CardSortField sortField) {
+        return sortField == CardSortField.CARD_NUMBER;
+    }
+
+    static CardCursor decode(String token, CardSortField sortField, Sort.Direction direction, CardCursorCipher cipher) {
+        CardCursor cursor;
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":", 4);
+            CardSortField tokenField = CardSortField.valueOf(parts[0]);
+            Sort.Direction tokenDirection = Sort.Direction.valueOf(parts[1]);
+            Integer id = Integer.valueOf(parts[2]);
+            String value = sealsValue(tokenField) ? cipher.open(parts[3], position(tokenField, tokenDirection, id)) : parts[3];
+            cursor = new CardCursor(tokenField, tokenDirection, id, value);
+            cursor.sortValue();
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException | DateTimeException e) {
+            throw new ValidationValueException(Map.of("cursor", "Invalid cursor"));
+        }
+        if (cursor.sortField != sortField || cursor.direction != direction) {
+            throw new ValidationValueException(Map.of("cursor", "Cursor was issued for a different sort"));
+        }
+        return cursor;
+    }
+
+    Object sortValue() {
+        return sortField.parse(value);
+    }
+
+    String encode(CardCursorCipher cipher) {
+        String position = position(sortField, direction, id);
+        String raw = position + ":" + (sealsValue(sortField) ? cipher.seal(value, position) : value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String position(CardSortField sortField, Sort.Direction direction, Integer id) {
+        return sortField.name() + ":" + direction.name() + ":" + id;
+    }
+}
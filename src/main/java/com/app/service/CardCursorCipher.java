@@ -0,0 +1,101 @@
+package com.app.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Seals sort values that clients must not read, such as the card number a keyset cursor continues after.
+ * AES-GCM with the rest of the cursor as associated data, so a sealed value can neither be read nor moved
+ * into another cursor. Without card.cursor.secret each instance picks a random key, and its sealed
+ * cursors are accepted only by that instance until it restarts.
+ */
+@Component
+public class CardCursorCipher {
+    private static final Logger logger = LoggerFactory.getLogger(CardCursorCipher.class);
+
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_BITS = 128;
+
+    @Value("${card.cursor.secret:}")
+    private String secret;
+
+    private final SecureRandom random = new SecureRandom();
+
+    private SecretKey key;
+
+    public CardCursorCipher() {}
+
+    public CardCursorCipher(String secret) {
+        this.secret = secret;
+        init();
+    }
+
+    @PostConstruct
+    public void init() {
+        byte[] keyBytes;
+        if (secret == null || secret.isEmpty()) {
+            keyBytes = new byte[32];
+            random.nextBytes(keyBytes);
+            logger.info("card.cursor.secret is not set, card number cursors are valid on this instance only");
+        } else {
+            keyBytes = sha256(Base64.getDecoder().decode(secret));
+        }
+        key = new SecretKeySpec(keyBytes, "AES");
+    }
+
+    String seal(String value, String associatedData) {
+        byte[] iv = new byte[IV_LENGTH];
+        random.nextBytes(iv);
+        try {
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+            cipher.updateAAD(associatedData.getBytes(StandardCharsets.UTF_8));
+            byte[] sealed = cipher.doFinal(value.getBytes(StandardCharsets.UTF_8));
+            byte[] token = ByteBuffer.allocate(IV_LENGTH + sealed.length).put(iv).put(sealed).array();
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot seal cursor value", e);
+        }
+    }
+
+    /** @throws IllegalArgumentException if the value was not sealed by this key together with the same associated data */
+    String open(String sealed, String associatedData) {
+        byte[] token = Base64.getUrlDecoder().decode(sealed);
+        if (token.length <= IV_LENGTH) {
+            throw new IllegalArgumentException("Sealed value is too short");
+        }
+        try {
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, token, 0, IV_LENGTH));
+            cipher.updateAAD(associatedData.getBytes(StandardCharsets.UTF_8));
+            return new String(cipher.doFinal(token, IV_LENGTH, token.length - IV_LENGTH), StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Sealed value cannot be opened", e);
+        }
+    }
+
+    private static byte[] sha256(byte[] secret) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(secret);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,38 +1,71 @@
 package com.app.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.app.dto.BatchCardDTO;
+import com.app.dto.BatchNewCardsDTO;
+import com.app.dto.BatchTransferDTO;
+import com.app.dto.BatchTransferResultDTO;
 import com.app.dto.CardDTO;
+import com.app.dto.CardHistoryDTO;
+import com.app.dto.CardHistoryRequestDTO;
 import com.app.dto.CardNumberDTO;
+import com.app.dto.CardTransactionDTO;
 import com.app.dto.FilterPageCardDTO;
 import com.app.dto.NewCardDTO;
 import com.app.dto.PaginatedResponse;
 import com.app.dto.TransferBetweenCardsDTO;
+import com.app.dto.TransferResultDTO;
 import com.app.exception.ActivatedAlreadyException;
+import com.app.exception.AppException;
 import com.app.exception.BlockedAlreadyException;
 import com.app.exception.CardNotFoundException;
 import com.app.exception.NotEnoughBalanceException;
 import com.app.exception.NotYourCardException;
 import com.app.exception.UserNotFoundException;
+import com.app.exception.ValidationValueException;
 import com.app.model.Card;
+import com.app.model.CardTransaction;
+import com.app.model.Money;
 import com.app.model.STATUS;
 import com.app.repository.CardRepository;
+import com.app.repository.CardSortField;
+import com.app.repository.CardSpecifications;
+import com.app.repository.CardTransactionRepository;
 import com.app.repository.UserRepository;
-
-import jakarta.transaction.Transactional;
+import com.app.security.JwtUserPrincipal;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 
 @Service
@@ -44,46 +77,242 @@ public class CardService {
     @Autowired
     private UserRepository userRepo;
 
+    @Autowired
+    private CardTransactionRepository cardTransactionRepo;
+
+    @Autowired
+    private TransactionRetrier transactionRetrier;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private CardCountCache cardCountCache;
+
+    @Autowired
+    private CardCursorCipher cursorCipher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ExistenceFilters existenceFilters;
+
+    @Value("${card.locking.mode:PESSIMISTIC}")
+    private LockingMode lockingMode;
+
+    public enum LockingMode { PESSIMISTIC, OPTIMISTIC }
+
     private static final Logger logger = LoggerFactory.getLogger(CardService.class);
 
+    private static final int IN_CHUNK_SIZE = 1000;
+
+    private static final List<ExportWriter.Column<CardDTO>> CARD_EXPORT_COLUMNS = List.of(
+        new ExportWriter.Column<>("id", CardDTO::getId),
+        new ExportWriter.Column<>("cardNumber", CardDTO::getCardNumber),
+        new ExportWriter.Column<>("ownerId", CardDTO::getOwnerId),
+        new ExportWriter.Column<>("validityPeriod", CardDTO::getValidityPeriod),
+        new ExportWriter.Column<>("status", CardDTO::getStatus),
+        new ExportWriter.Column<>("balance", card -> card.getBalance().toDecimal()));
+
+    @Transactional(propagation = Propagation.NEVER)
     public void transferBetweenCards(Authentication authentication, TransferBetweenCardsDTO transfer) {
-        String username = authentication.getName();
+        transferBetweenCards(authentication, transfer, null);
+    }
 
-        Optional<Integer> optionalId = userRepo.findUserIdByUsername(username);
-        if (optionalId.isEmpty()) {
-            throw new UserNotFoundException(username);
+    /**
+     * @return false if the idempotency key was already completed for this transfer and nothing was executed
+     */
+    @Transactional(propagation = Propagation.NEVER)
+    public boolean transferBetweenCards(Authentication authentication, TransferBetweenCardsDTO transfer, String idempotencyKey) {
+        Integer userId = getUserId(authentication);
+        if (idempotencyKey == null) {
+            transactionRetrier.execute(() -> applyTransfer(userId, transfer));
+            return true;
         }
-        Integer userId = optionalId.get();
 
-        Optional<Card> optionalFirstCard = cardRepo.findByCardNumber(transfer.getFirstCardNumber());
-        if (optionalFirstCard.isEmpty()) {
-            throw new CardNotFoundException(transfer.getFirstCardNumber());
+        idempotencyStore.validateKey(idempotencyKey);
+        String fingerprint = IdempotencyStore.fingerprint(transfer.getFirstCardNumber(), transfer.getSecondCardNumber(),
+            transfer.getAmountTransferBetweenCards().minorUnits());
+        if (idempotencyStore.isCompleted(userId, idempotencyKey, fingerprint)) {
+            return false;
         }
-        Card firstCard = optionalFirstCard.get();
+        try {
+            transactionRetrier.execute(() -> {
+                idempotencyStore.claim(userId, idempotencyKey, fingerprint);
+                applyTransfer(userId, transfer);
+            });
+        } catch (DuplicateKeyException e) {
+            // a concurrent request with the same key committed first
+            if (idempotencyStore.isCompleted(userId, idempotencyKey, fingerprint)) {
+                return false;
+            }
+            throw e;
+        }
+        idempotencyStore.remember(userId, idempotencyKey, fingerprint);
+        return true;
+    }
 
-        if (!Objects.equals(firstCard.getOwnerId(), userId)) {
-            throw new NotYourCardException();
+    private void applyTransfer(Integer userId, TransferBetweenCardsDTO transfer) {
+        String firstCardNumber = transfer.getFirstCardNumber();
+        String secondCardNumber = transfer.getSecondCardNumber();
+
+        Card firstCard;
+        Card secondCard;
+        if (lockingMode == LockingMode.OPTIMISTIC) {
+            // nothing is locked, so the cards are read and checked in request order
+            firstCard = ownCard(userId, cardRepo.findByCardNumber(firstCardNumber), firstCardNumber);
+            secondCard = ownCard(userId, cardRepo.findByCardNumber(secondCardNumber), secondCardNumber);
+        } else {
+            // a plain read first, so that a card of another user is never locked
+            checkOwnCard(userId, firstCardNumber);
+            checkOwnCard(userId, secondCardNumber);
+
+            // Rows are always read in card number order so that two opposite transfers cannot deadlock
+            if (firstCardNumber.compareTo(secondCardNumber) <= 0) {
+                firstCard = loadCardForUpdate(firstCardNumber);
+                secondCard = firstCardNumber.equals(secondCardNumber) ? firstCard : loadCardForUpdate(secondCardNumber);
+            } else {
+                secondCard = loadCardForUpdate(secondCardNumber);
+                firstCard = loadCardForUpdate(firstCardNumber);
+            }
+
+            // the number may have been deleted and issued to another user since the check
+            if (!Objects.equals(firstCard.getOwnerId(), userId) || !Objects.equals(secondCard.getOwnerId(), userId)) {
+                throw new NotYourCardException();
+            }
         }
 
-        if (firstCard.getBalance() < transfer.getAmountTransferBetweenCards()) {
+        Money amount = transfer.getAmountTransferBetweenCards();
+        if (firstCard.getBalance().isLessThan(amount)) {
             throw new NotEnoughBalanceException();
         }
 
-        Optional<Card> optionalSecondCard = cardRepo.findByCardNumber(transfer.getSecondCardNumber());
-        if (optionalSecondCard.isEmpty()) {
-            throw new CardNotFoundException(transfer.getSecondCardNumber());
+        firstCard.setBalance(firstCard.getBalance().minus(amount));
+        secondCard.setBalance(secondCard.getBalance().plus(amount));
+
+        cardRepo.save(firstCard);
+        cardRepo.save(secondCard);
+        cardTransactionRepo.append(List.of(
+            new CardTransaction(firstCard.getId(), secondCard.getId(), amount.negate(), firstCard.getBalance()),
+            new CardTransaction(secondCard.getId(), firstCard.getId(), amount, secondCard.getBalance())
+        ));
+    }
+
+    private Card loadCardForUpdate(String cardNumber) {
+        Optional<Card> card = lockingMode == LockingMode.OPTIMISTIC
+            ? cardRepo.findByCardNumber(cardNumber)
+            : cardRepo.findByCardNumberForUpdate(cardNumber);
+        return card.orElseThrow(() -> new CardNotFoundException(cardNumber));
+    }
+
+    private void checkOwnCard(Integer userId, String cardNumber) {
+        Integer ownerId = cardRepo.findOwnerIdByCardNumber(cardNumber).orElseThrow(() -> new CardNotFoundException(cardNumber));
+        if (!Objects.equals(ownerId, userId)) {
+            throw new NotYourCardException();
         }
-        Card secondCard = optionalSecondCard.get();
+    }
 
-        if (!Objects.equals(secondCard.getOwnerId(), userId)) {
+    private static Card ownCard(Integer userId, Optional<Card> card, String cardNumber) {
+        Card found = card.orElseThrow(() -> new CardNotFoundException(cardNumber));
+        if (!Objects.equals(found.getOwnerId(), userId)) {
             throw new NotYourCardException();
         }
+        return found;
+    }
 
-        firstCard.setBalance(firstCard.getBalance() - transfer.getAmountTransferBetweenCards());
-        secondCard.setBalance(secondCard.getBalance() + transfer.getAmountTransferBetweenCards());
+    @Transactional(propagation = Propagation.NEVER)
+    public BatchTransferResultDTO transferBatch(Authentication authentication, BatchTransferDTO batch) {
+        Integer userId = getUserId(authentication);
+        return transactionRetrier.execute(() -> applyBatch(userId, batch));
+    }
 
-        cardRepo.save(firstCard);
-        cardRepo.save(secondCard);
+    private BatchTransferResultDTO applyBatch(Integer userId, BatchTransferDTO batch) {
+        List<TransferBetweenCardsDTO> transfers = batch.getTransfers();
+        Set<String> cardNumbers = new TreeSet<>();
+        for (TransferBetweenCardsDTO transfer : transfers) {
+            cardNumbers.add(transfer.getFirstCardNumber());
+            cardNumbers.add(transfer.getSecondCardNumber());
+        }
+        Set<String> foreignNumbers = Set.of();
+        if (lockingMode == LockingMode.PESSIMISTIC) {
+            // cards of other users are found with a plain read and left unlocked
+            foreignNumbers = new HashSet<>(cardRepo.findCardNumbersOwnedByOthers(cardNumbers, userId));
+            cardNumbers.removeAll(foreignNumbers);
+        }
+        // one query for every card of the batch, locked in card number order like single transfers
+        List<Card> loaded;
+        if (cardNumbers.isEmpty()) {
+            loaded = List.of();
+        } else if (lockingMode == LockingMode.OPTIMISTIC) {
+            loaded = cardRepo.findByCardNumberInOrderByCardNumber(cardNumbers);
+        } else {
+            loaded = cardRepo.findByCardNumberInForUpdate(cardNumbers);
+        }
+        Map<String, Card> cards = loaded.stream().collect(Collectors.toMap(Card::getCardNumber, Function.identity()));
+
+        // deltas are applied to a copy of the balances so that a rejected batch leaves the entities untouched
+        Map<String, Money> balances = new HashMap<>();
+        cards.forEach((cardNumber, card) -> balances.put(cardNumber, card.getBalance()));
+        List<CardTransaction> entries = new ArrayList<>();
+        List<TransferResultDTO> results = new ArrayList<>(transfers.size());
+        boolean anyFailed = false;
+        for (int i = 0; i < transfers.size(); i++) {
+            try {
+                applyInMemory(userId, transfers.get(i), cards, foreignNumbers, balances, entries);
+                results.add(new TransferResultDTO(i, true, null));
+            } catch (AppException e) {
+                results.add(new TransferResultDTO(i, false, e.getMessage()));
+                anyFailed = true;
+            }
+        }
+
+        if (anyFailed && batch.getMode() == BatchTransferDTO.Mode.ALL_OR_NOTHING) {
+            for (TransferResultDTO result : results) {
+                if (result.isSuccess()) {
+                    result.setSuccess(false);
+                    result.setError("Not applied because another transfer in the batch failed");
+                }
+            }
+            return new BatchTransferResultDTO(batch.getMode(), results);
+        }
+
+        List<Card> changed = new ArrayList<>();
+        for (Card card : loaded) {
+            Money balance = balances.get(card.getCardNumber());
+            if (!balance.equals(card.getBalance())) {
+                card.setBalance(balance);
+                changed.add(card);
+            }
+        }
+        cardRepo.saveAll(changed);
+        cardTransactionRepo.append(entries);
+        return new BatchTransferResultDTO(batch.getMode(), results);
+    }
+
+    private void applyInMemory(Integer userId, TransferBetweenCardsDTO transfer, Map<String, Card> cards, Set<String> foreignNumbers,
+                               Map<String, Money> balances, List<CardTransaction> entries) {
+        String firstCardNumber = transfer.getFirstCardNumber();
+        String secondCardNumber = transfer.getSecondCardNumber();
+        Card firstCard = ownCard(userId, cards, foreignNumbers, firstCardNumber);
+        Card secondCard = ownCard(userId, cards, foreignNumbers, secondCardNumber);
+
+        Money amount = transfer.getAmountTransferBetweenCards();
+        if (balances.get(firstCardNumber).isLessThan(amount)) {
+            throw new NotEnoughBalanceException();
+        }
+        balances.put(firstCardNumber, balances.get(firstCardNumber).minus(amount));
+        balances.put(secondCardNumber, balances.get(secondCardNumber).plus(amount));
+
+        entries.add(new CardTransaction(firstCard.getId(), secondCard.getId(), amount.negate(), balances.get(firstCardNumber)));
+        entries.add(new CardTransaction(secondCard.getId(), firstCard.getId(), amount, balances.get(secondCardNumber)));
+    }
+
+    private static Card ownCard(Integer userId, Map<String, Card> cards, Set<String> foreignNumbers, String cardNumber) {
+        if (foreignNumbers.contains(cardNumber)) {
+            throw new NotYourCardException();
+        }
+        return ownCard(userId, Optional.ofNullable(cards.get(cardNumber)), cardNumber);
     }
 
     public void addNewCard(NewCardDTO newCard) {
@@ -91,109 +320,278 @@ public class CardService {
         card.setCardNumber(newCard.getCardNumber());
         card.setOwnerId(newCard.getOwnerId());
         card.setValidityPeriod(newCard.getValidityPeriod());
-        card.setBalance(0.0);
+        card.setBalance(Money.ZERO);
         card.setStatus(STATUS.ACTIVE);
-        cardRepo.save(card);
+        try {
+            cardRepo.save(card);
+        } catch (DataIntegrityViolationException e) {
+            // the number was taken after validation or the existence filter has not seen it yet
+            if (!UniqueKeys.isOn(e, "card_number")) {
+                throw e;
+            }
+            throw new ValidationValueException(Map.of("cardNumber", "Card with specified number exist already"));
+        }
+        cardRepo.indexCardNumber(card.getId(), card.getCardNumber());
+        existenceFilters.cardNumbers().add(card.getCardNumber());
+    }
+
+    /**
+     * Adds all cards or none. Card numbers and owners are checked for the whole batch at once, and the cards
+     * and their search suffixes are inserted as JDBC batches.
+     *
+     * @return number of cards added
+     * @throws ValidationValueException with an error per rejected row, keyed "cards[i].field"
+     */
+    public int addNewCards(BatchNewCardsDTO batch) {
+        List<BatchCardDTO> rows = batch.getCards();
+        Map<String, String> errors = new LinkedHashMap<>();
+
+        Set<String> cardNumbers = new HashSet<>();
+        Set<Integer> ownerIds = new HashSet<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (!cardNumbers.add(rows.get(i).getCardNumber())) {
+                errors.put("cards[" + i + "].cardNumber", "Card number is repeated in the batch");
+            }
+            ownerIds.add(rows.get(i).getOwnerId());
+        }
+        Set<String> existingNumbers = existenceFilters.cardNumbers().existing(cardNumbers,
+            candidates -> inChunks(candidates, cardRepo::findExistingCardNumbers));
+        Set<Integer> existingOwners = new HashSet<>(inChunks(new ArrayList<>(ownerIds), userRepo::findExistingIds));
+        for (int i = 0; i < rows.size(); i++) {
+            if (existingNumbers.contains(rows.get(i).getCardNumber())) {
+                errors.put("cards[" + i + "].cardNumber", "Card with specified number exist already");
+            }
+            if (!existingOwners.contains(rows.get(i).getOwnerId())) {
+                errors.put("cards[" + i + "].ownerId", "Specified id does not match any user");
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new ValidationValueException(errors);
+        }
+
+        List<Card> cards = new ArrayList<>(rows.size());
+        for (BatchCardDTO row : rows) {
+            Card card = new Card();
+            card.setCardNumber(row.getCardNumber());
+            card.setOwnerId(row.getOwnerId());
+            card.setValidityPeriod(row.getValidityPeriod());
+            card.setBalance(Money.ZERO);
+            card.setStatus(STATUS.ACTIVE);
+            cards.add(card);
+        }
+        try {
+            cardRepo.insertAll(cards);
+        } catch (DuplicateKeyException e) {
+            if (!UniqueKeys.isOn(e, "card_number")) {
+                throw e;
+            }
+            throw new ValidationValueException(takenNumberErrors(rows, e));
+        }
+        cardRepo.indexCardNumbers(cards);
+        cards.forEach(card -> existenceFilters.cardNumbers().add(card.getCardNumber()));
+        return cards.size();
+    }
+
+    // a number inserted by a concurrent request after the batch was checked
+    private static Map<String, String> takenNumberErrors(List<BatchCardDTO> rows, DuplicateKeyException e) {
+        Map<String, String> errors = new LinkedHashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (UniqueKeys.names(e, rows.get(i).getCardNumber())) {
+                errors.put("cards[" + i + "].cardNumber", "Card with specified number exist already");
+            }
+        }
+        if (errors.isEmpty()) {
+            errors.put("cards", "Card with specified number exist already");
+        }
+        return errors;
+    }
+
+    // keeps IN lists of a large batch at a size the database parses and plans quickly
+    private static <T, R> List<R> inChunks(List<T> values, Function<List<T>, List<R>> query) {
+        List<R> results = new ArrayList<>();
+        for (int from = 0; from < values.size(); from += IN_CHUNK_SIZE) {
+            results.addAll(query.apply(values.subList(from, Math.min(from + IN_CHUNK_SIZE, values.size()))));
+        }
+        return results;
     }
 
     public void deleteCard(CardNumberDTO cardNumber) {
         cardRepo.deleteByCardNumber(cardNumber.getCardNumber());
+        existenceFilters.cardNumbers().remove(cardNumber.getCardNumber());
     }
 
+    @Transactional(propagation = Propagation.NEVER)
     public void blockCard(CardNumberDTO cardNumber) {
-        Optional<Card> optionalCard = cardRepo.findByCardNumber(cardNumber.getCardNumber());
-        if (optionalCard.isEmpty()) {
-            throw new CardNotFoundException(cardNumber.getCardNumber());
-        }
-        Card card = optionalCard.get();
+        transactionRetrier.execute(() -> {
+            Card card = loadCardForUpdate(cardNumber.getCardNumber());
 
-        if (card.getStatus() == STATUS.BLOCKED) {
-            throw new BlockedAlreadyException(card.getCardNumber());
-        }
-        card.setStatus(STATUS.BLOCKED);
-        cardRepo.save(card);
+            if (card.getStatus() == STATUS.BLOCKED) {
+                throw new BlockedAlreadyException(card.getCardNumber());
+            }
+            card.setStatus(STATUS.BLOCKED);
+            cardRepo.save(card);
+        });
     }
 
+    @Transactional(propagation = Propagation.NEVER)
     public void activateCard(CardNumberDTO cardNumber) {
-        Optional<Card> optionalCard = cardRepo.findByCardNumber(cardNumber.getCardNumber());
-        if (optionalCard.isEmpty()) {
-            throw new CardNotFoundException(cardNumber.getCardNumber());
-        }
-        Card card = optionalCard.get();
+        transactionRetrier.execute(() -> {
+            Card card = loadCardForUpdate(cardNumber.getCardNumber());
 
-        if (card.getStatus() == STATUS.ACTIVE) {
-            throw new ActivatedAlreadyException(card.getCardNumber());
+            if (card.getStatus() == STATUS.ACTIVE) {
+                throw new ActivatedAlreadyException(card.getCardNumber());
+            }
+            card.setStatus(STATUS.ACTIVE);
+            cardRepo.save(card);
+        });
+    }
+
+    /**
+     * Writes every card with a masked number to out. Rows are streamed from the database into the output,
+     * so memory use does not grow with the number of cards; the transaction stays open until the last row is written.
+     */
+    @Transactional(readOnly = true)
+    public void exportCards(ExportFormat format, OutputStream out) throws IOException {
+        try (ExportWriter<CardDTO> writer = ExportWriter.open(format, out, objectMapper, CARD_EXPORT_COLUMNS)) {
+            cardRepo.forEachCardDto(card -> writer.write(card.maskCardNumber()));
         }
-        card.setStatus(STATUS.ACTIVE);
-        cardRepo.save(card);
     }
 
+    @Transactional(readOnly = true)
     public PaginatedResponse<CardDTO> getPaginatedAllCardsAsDto(FilterPageCardDTO filters) {
-        logger.info("FilterPageCardDTO: Username[ {} ] Direction sort[ {} ] Sort by:[ {} ] Page number:[ {} ] Page size:[ {} ] CardNumber:[ {} ] MinEndDate:[ {} ] MaxEndDate:[ {} ] Status: [ {} ] MinBalance:[ {} ] MaxBalance:[ {} ]",
+        logger.info("FilterPageCardDTO: Username[ {} ] Direction sort[ {} ] Sort by:[ {} ] Page number:[ {} ] Page size:[ {} ] CardNumber:[ {} ] MinEndDate:[ {} ] MaxEndDate:[ {} ] Status: [ {} ] MinBalance:[ {} ] MaxBalance:[ {} ] Keyset:[ {} ]",
         filters.getUsername(), filters.getDirectionSort(), filters.getSortBy(),
         filters.getPage(), filters.getSize(), filters.getCardNumber(), filters.getMinEndDate(), filters.getMaxEndDate(),
-        filters.getStatus(), filters.getMinBalance(), filters.getMaxBalance());
-        Page<Card> cardsPage = cardRepo.findByCriteria(
-            filters.getUsername(),
-            filters.getCardNumber(),
-            filters.getStatus(),
-            filters.getMinBalance(),
-            filters.getMaxBalance(),
-            filters.getMinEndDate(),
-            filters.getMaxEndDate(),
-            true,
-            getPageableForCard(filters.getPage(), filters.getSize(), getSortForCard(filters.getDirectionSort(), filters.getSortBy()))
-        );
-
-        PaginatedResponse<CardDTO> response = new PaginatedResponse<>(
-            fromPageToList(cardsPage, true),
-            cardsPage.getNumber(),
-            cardsPage.getTotalPages(),
-            cardsPage.getTotalElements(),
-            cardsPage.getSize(),
-            cardsPage.hasNext(),
-            cardsPage.hasPrevious()
-        );
-        return response;
+        filters.getStatus(), filters.getMinBalance(), filters.getMaxBalance(), filters.isKeyset() || filters.getCursor() != null);
+        return findCards(filters, filters.getUsername(), true, true);
     }
 
+    @Transactional(readOnly = true)
     public PaginatedResponse<CardDTO> getPaginatedAllUserCardsAsDto(FilterPageCardDTO filters, String username, boolean maskCardNumber) {
-        Page<Card> cardsPage = cardRepo.findByCriteria(
-            username,
-            filters.getCardNumber(),
-            filters.getStatus(),
-            filters.getMinBalance(),
-            filters.getMaxBalance(),
-            filters.getMinEndDate(),
-            filters.getMaxEndDate(),
-            false,
-            getPageableForCard(filters.getPage(), filters.getSize(), getSortForCard(filters.getDirectionSort(), filters.getSortBy()))
-        );
-        PaginatedResponse<CardDTO> response = new PaginatedResponse<>(
-            fromPageToList(cardsPage, maskCardNumber),
-            cardsPage.getNumber(),
-            cardsPage.getTotalPages(),
-            cardsPage.getTotalElements(),
-            cardsPage.getSize(),
-            cardsPage.hasNext(),
-            cardsPage.hasPrevious()
-        );
+        return findCards(filters, username, false, maskCardNumber);
+    }
+
+    private PaginatedResponse<CardDTO> findCards(FilterPageCardDTO filters, String username, boolean isAdminSearch, boolean maskCardNumber) {
+        CardSortField sortField = CardSortField.fromColumnName(filters.getSortBy());
+        Sort.Direction direction = filters.getDirectionSort().equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Specification<Card> spec = CardSpecifications.matching(username, filters.getCardNumber(), filters.getStatus(),
+            filters.getMinBalance(), filters.getMaxBalance(), filters.getMinEndDate(), filters.getMaxEndDate(), isAdminSearch);
+        if (filters.isKeyset() || filters.getCursor() != null) {
+            return findCardsAfterCursor(filters, spec, username, isAdminSearch, maskCardNumber, sortField, direction);
+        }
+
+        Pageable pageable = getPageableForCard(filters.getPage(), filters.getSize(), getSortForCard(direction, sortField));
+        PaginatedResponse<CardDTO> response;
+        Slice<CardDTO> cardsPage;
+        if (filters.getCountMode() == FilterPageCardDTO.CountMode.EXACT) {
+            Page<CardDTO> page = cardRepo.findCardDtos(spec, pageable);
+            cardsPage = page;
+            response = new PaginatedResponse<>(
+                page.getContent(),
+                page.getNumber(),
+                page.getTotalPages(),
+                page.getTotalElements(),
+                page.getSize(),
+                page.hasNext(),
+                page.hasPrevious()
+            );
+        } else {
+            cardsPage = cardRepo.findCardDtoSlice(spec, pageable);
+            long total = countIfRequested(filters, spec, username, isAdminSearch);
+            response = new PaginatedResponse<>(
+                cardsPage.getContent(),
+                cardsPage.getNumber(),
+                total < 0 ? -1 : (int) ((total + cardsPage.getSize() - 1) / cardsPage.getSize()),
+                total,
+                cardsPage.getSize(),
+                cardsPage.hasNext(),
+                cardsPage.hasPrevious()
+            );
+        }
+        // lets an offset client switch to keyset pagination from any page
+        if (cardsPage.hasNext() && cardsPage.hasContent()) {
+            List<CardDTO> cards = cardsPage.getContent();
+            response.setNextCursor(CardCursor.after(cards.get(cards.size() - 1), sortField, direction).encode(cursorCipher));
+        }
+        maskIfRequested(response.getContent(), maskCardNumber);
         return response;
     }
 
-    private Sort getSortForCard(String directionSort, String sortBy) {
-        Sort sort = directionSort.equalsIgnoreCase("desc") 
-            ? Sort.by(sortBy).descending() 
-            : Sort.by(sortBy).ascending();
-        return sort;
+    /**
+     * @return the total for CountMode.CACHED, -1 otherwise
+     */
+    private long countIfRequested(FilterPageCardDTO filters, Specification<Card> spec, String username, boolean isAdminSearch) {
+        if (filters.getCountMode() != FilterPageCardDTO.CountMode.CACHED) {
+            return -1;
+        }
+        CardCountCache.Key key = new CardCountCache.Key(username, filters.getCardNumber(), filters.getStatus(),
+            filters.getMinBalance(), filters.getMaxBalance(), filters.getMinEndDate(), filters.getMaxEndDate(), isAdminSearch);
+        return cardCountCache.get(key, () -> cardRepo.count(spec));
+    }
+
+    private PaginatedResponse<CardDTO> findCardsAfterCursor(FilterPageCardDTO filters, Specification<Card> spec, String username,
+                                                            boolean isAdminSearch, boolean maskCardNumber,
+                                                            CardSortField sortField, Sort.Direction direction) {
+        CardCursor cursor = filters.getCursor() == null ? null : CardCursor.decode(filters.getCursor(), sortField, direction, cursorCipher);
+        int size = filters.getSize();
+        Specification<Card> page = cursor == null ? spec : spec.and(CardSpecifications.after(sortField, direction, cursor.sortValue(), cursor.id()));
+        // one extra row tells whether another page exists without a COUNT query
+        List<CardDTO> cards = cardRepo.findCardDtos(page, getSortForCard(direction, sortField), Limit.of(size + 1));
+
+        boolean hasNext = cards.size() > size;
+        if (hasNext) {
+            cards = cards.subList(0, size);
+        }
+        String nextCursor = hasNext ? CardCursor.after(cards.get(size - 1), sortField, direction).encode(cursorCipher) : null;
+        maskIfRequested(cards, maskCardNumber);
+        PaginatedResponse<CardDTO> response = new PaginatedResponse<>(cards, size, hasNext, cursor != null, nextCursor);
+        long total = countIfRequested(filters, spec, username, isAdminSearch);
+        if (total >= 0) {
+            response.setTotalItems(total);
+            response.setTotalPages((int) ((total + size - 1) / size));
+        }
+        return response;
     }
 
-    private List<CardDTO> fromPageToList(Page<Card> cardsPage, boolean maskCardNumber) {
-        return cardsPage.getContent().stream()
-        .map(card -> {
-            return maskCardNumber ? CardDTO.newCardDTOWithMaksedNumber(card) : CardDTO.newCardDTOWithFullNumber(card);
-        })
-        .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CardHistoryDTO getCardHistory(Authentication authentication, CardHistoryRequestDTO request) {
+        Integer userId = getUserId(authentication);
+        Card card = cardRepo.findByCardNumber(request.getCardNumber())
+            .orElseThrow(() -> new CardNotFoundException(request.getCardNumber()));
+        if (!Objects.equals(card.getOwnerId(), userId)) {
+            throw new NotYourCardException();
+        }
+
+        // one extra row tells whether another page exists without a COUNT query
+        Limit limit = Limit.of(request.getSize() + 1);
+        List<CardTransactionDTO> transactions = request.getBeforeId() == null
+            ? cardTransactionRepo.findLatestByCardId(card.getId(), limit)
+            : cardTransactionRepo.findByCardIdBefore(card.getId(), request.getBeforeCreatedAt(), request.getBeforeId(), limit);
+
+        boolean hasNext = transactions.size() > request.getSize();
+        List<CardTransactionDTO> content = hasNext ? transactions.subList(0, request.getSize()) : transactions;
+        return new CardHistoryDTO(content, hasNext);
+    }
+
+    private Integer getUserId(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof JwtUserPrincipal principal) {
+            return principal.id();
+        }
+        String username = authentication.getName();
+        return userRepo.findUserIdByUsername(username).orElseThrow(() -> new UserNotFoundException(username));
+    }
+
+    private Sort getSortForCard(Sort.Direction direction, CardSortField sortField) {
+        Sort sort = Sort.by(direction, sortField.getProperty());
+        // id breaks ties so that rows with equal sort values keep a stable order between pages
+        return sortField == CardSortField.ID ? sort : sort.and(Sort.by(direction, CardSortField.ID.getProperty()));
+    }
+
+    // cursors are taken from the full numbers, so masking happens last
+    private void maskIfRequested(List<CardDTO> cards, boolean maskCardNumber) {
+        if (maskCardNumber) {
+            cards.forEach(CardDTO::maskCardNumber);
+        }
     }
 
     private Pageable getPageableForCard(int pageNumber, int pageSize, Sort sort) {
@@ -0,0 +1,184 @@
+package com.app.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+import com.app.dto.ExistenceFilterStatsDTO;
+
+/**
+ * Bloom filter in front of an "exists" query. A key the filter has never seen does not exist, so the query
+ * is skipped; otherwise the query decides. Keys must be added before their insert commits. Removed keys
+ * keep their bits until the next rebuild, which only costs a query for them in the meantime.
+ */
+public class ExistenceFilter {
+    static final long DEFAULT_ADD_WINDOW_MILLIS = 60_000;
+
+    private final String name;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final long addWindowNanos;
+
+    private volatile BloomFilter filter;
+    // keys added within the last addWindow, with the time they were added: their inserts may not have
+    // committed yet when a rebuild reads the table, so every rebuild puts them into the new filter as well
+    private final Map<String, Long> recentlyAdded = new ConcurrentHashMap<>();
+
+    private final LongAdder skippedQueries = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final LongAdder confirmedExisting = new LongAdder();
+    private final LongAdder removedSinceRebuild = new LongAdder();
+    private final LongAdder overflowRebuilds = new LongAdder();
+
+    public ExistenceFilter(String name, long expectedInsertions, double falsePositiveRate) {
+        this(name, expectedInsertions, falsePositiveRate, DEFAULT_ADD_WINDOW_MILLIS);
+    }
+
+    /**
+     * @param addWindowMillis longest time between {@link #add} and the commit of the insert, i.e. the
+     *                        longest transaction that adds keys
+     */
+    public ExistenceFilter(String name, long expectedInsertions, double falsePositiveRate, long addWindowMillis) {
+        this.name = name;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.addWindowNanos = TimeUnit.MILLISECONDS.toNanos(addWindowMillis);
+        this.filter = new BloomFilter(expectedInsertions, falsePositiveRate);
+    }
+
+    public boolean exists(String key, Predicate<String> query) {
+        if (!filter.mightContain(key)) {
+            skippedQueries.increment();
+            return false;
+        }
+        boolean exists = query.test(key);
+        if (exists) {
+            confirmedExisting.increment();
+        } else {
+            falsePositives.increment();
+        }
+        return exists;
+    }
+
+    /**
+     * Bulk form of {@link #exists}: only the keys the filter may contain are passed to the query,
+     * which returns those of them that exist.
+     */
+    public Set<String> existing(Collection<String> keys, Function<List<String>, Collection<String>> query) {
+        List<String> candidates = new ArrayList<>();
+        for (String key : keys) {
+            if (filter.mightContain(key)) {
+                candidates.add(key);
+            }
+        }
+        skippedQueries.add(keys.size() - candidates.size());
+        if (candidates.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> existing = new HashSet<>(query.apply(candidates));
+        confirmedExisting.add(existing.size());
+        falsePositives.add(candidates.size() - existing.size());
+        return existing;
+    }
+
+    public void add(String key) {
+        // recorded before the put, so a rebuild that swaps in its filter after this put still replays the key
+        recentlyAdded.put(key, System.nanoTime());
+        filter.put(key);
+    }
+
+    public void remove(String key) {
+        removedSinceRebuild.increment();
+    }
+
+    /** True once more keys were put than the filter was sized for */
+    public boolean isOverCapacity() {
+        BloomFilter current = filter;
+        return current.getInsertions() > current.getCapacity();
+    }
+
+    /**
+     * Refills the filter from keys, which must stream every existing key, and swaps it in.
+     *
+     * @param keyCount number of existing keys; the new filter is sized for twice as many, so the table
+     *                 can grow until the next rebuild without saturating it
+     */
+    public synchronized void rebuild(long keyCount, Consumer<Consumer<String>> keys) {
+        rebuildFilter(keyCount, keys);
+    }
+
+    /**
+     * {@link #rebuild} if the filter is over its capacity; counted in the stats as an overflow rebuild.
+     * The keys are only counted when a rebuild is due.
+     */
+    public synchronized boolean rebuildIfOverCapacity(LongSupplier keyCount, Consumer<Consumer<String>> keys) {
+        if (!isOverCapacity()) {
+            return false;
+        }
+        rebuildFilter(keyCount.getAsLong(), keys);
+        overflowRebuilds.increment();
+        return true;
+    }
+
+    private void rebuildFilter(long keyCount, Consumer<Consumer<String>> keys) {
+        forgetSettledAdds();
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedInsertions, 2 * keyCount), falsePositiveRate);
+        keys.accept(rebuilt::put);
+        replayRecentlyAdded(rebuilt);
+        filter = rebuilt;
+        // keys put into the old filter between the replay above and the swap
+        replayRecentlyAdded(rebuilt);
+        skippedQueries.reset();
+        falsePositives.reset();
+        confirmedExisting.reset();
+        removedSinceRebuild.reset();
+    }
+
+    // most of these keys were already read from the table; skipping them keeps the insertion count honest
+    private void replayRecentlyAdded(BloomFilter rebuilt) {
+        for (String key : recentlyAdded.keySet()) {
+            if (!rebuilt.mightContain(key)) {
+                rebuilt.put(key);
+            }
+        }
+    }
+
+    /** Drops recently added keys whose inserts have committed or rolled back by now */
+    public void forgetSettledAdds() {
+        long settledBefore = System.nanoTime() - addWindowNanos;
+        recentlyAdded.values().removeIf(added -> added - settledBefore < 0);
+    }
+
+    public ExistenceFilterStatsDTO getStats() {
+        BloomFilter current = filter;
+        long skipped = skippedQueries.sum();
+        long falsePositiveCount = falsePositives.sum();
+        long absent = skipped + falsePositiveCount;
+
+        ExistenceFilterStatsDTO stats = new ExistenceFilterStatsDTO();
+        stats.setName(name);
+        stats.setInsertions(current.getInsertions());
+        stats.setCapacity(current.getCapacity());
+        stats.setOverflow(Math.max(0, current.getInsertions() - current.getCapacity()));
+        stats.setOverflowRebuilds(overflowRebuilds.sum());
+        stats.setRemovedSinceRebuild(removedSinceRebuild.sum());
+        stats.setBitCount(current.getBitCount());
+        stats.setHashCount(current.getHashCount());
+        stats.setExpectedFalsePositiveRate(current.expectedFalsePositiveRate());
+        stats.setSkippedQueries(skipped);
+        stats.setFalsePositives(falsePositiveCount);
+        stats.setConfirmedExisting(confirmedExisting.sum());
+        stats.setObservedFalsePositiveRate(absent == 0 ? 0 : (double) falsePositiveCount / absent);
+        return stats;
+    }
+}
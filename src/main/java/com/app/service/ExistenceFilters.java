@@ -0,0 +1,91 @@
+package com.app.service;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.app.dto.ExistenceFilterStatsDTO;
+import com.app.repository.CardRepository;
+import com.app.repository.UserRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Filters of the card numbers and usernames in use, checked by the uniqueness validators before they query.
+ * They are filled at startup and kept up to date by this instance only; the periodic rebuild picks up
+ * rows written by other instances, and the unique constraints still reject anything that slips through.
+ */
+@Component
+public class ExistenceFilters {
+    @Value("${existence.filter.card.numbers.expected:1000000}")
+    private long expectedCardNumbers;
+
+    @Value("${existence.filter.usernames.expected:100000}")
+    private long expectedUsernames;
+
+    @Value("${existence.filter.false.positive.rate:0.01}")
+    private double falsePositiveRate;
+
+    // longest transaction that registers a user or issues cards
+    @Value("${existence.filter.add.window:60000}")
+    private long addWindow;
+
+    @Autowired
+    private CardRepository cardRepo;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    private ExistenceFilter cardNumbers;
+    private ExistenceFilter usernames;
+
+    private static final Logger logger = LoggerFactory.getLogger(ExistenceFilters.class);
+
+    @PostConstruct
+    public void init() {
+        cardNumbers = new ExistenceFilter("cardNumbers", expectedCardNumbers, falsePositiveRate, addWindow);
+        usernames = new ExistenceFilter("usernames", expectedUsernames, falsePositiveRate, addWindow);
+        rebuild();
+    }
+
+    public ExistenceFilter cardNumbers() {
+        return cardNumbers;
+    }
+
+    public ExistenceFilter usernames() {
+        return usernames;
+    }
+
+    @Scheduled(fixedDelayString = "${existence.filter.rebuild.interval:86400000}",
+               initialDelayString = "${existence.filter.rebuild.interval:86400000}")
+    public void rebuild() {
+        long started = System.nanoTime();
+        // counted before streaming, so rows inserted meanwhile only add to the headroom
+        cardNumbers.rebuild(cardRepo.count(), cardRepo::forEachCardNumber);
+        usernames.rebuild(userRepo.count(), userRepo::forEachUsername);
+        logger.info("Rebuilt existence filters in {} ms", (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /** Rebuilds a filter early once it holds more keys than it was sized for, e.g. after bulk issuance */
+    @Scheduled(fixedDelayString = "${existence.filter.capacity.check.interval:60000}",
+               initialDelayString = "${existence.filter.capacity.check.interval:60000}")
+    public void rebuildOverCapacity() {
+        if (cardNumbers.rebuildIfOverCapacity(cardRepo::count, cardRepo::forEachCardNumber)) {
+            logger.info("Rebuilt card number filter over capacity");
+        }
+        if (usernames.rebuildIfOverCapacity(userRepo::count, userRepo::forEachUsername)) {
+            logger.info("Rebuilt username filter over capacity");
+        }
+        cardNumbers.forgetSettledAdds();
+        usernames.forgetSettledAdds();
+    }
+
+    public List<ExistenceFilterStatsDTO> getStats() {
+        return List.of(cardNumbers.getStats(), usernames.getStats());
+    }
+}
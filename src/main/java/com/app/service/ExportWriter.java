@@ -0,0 +1,113 @@
+package com.app.service;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Writes export rows to the response one at a time, so that nothing but the current row is held in memory.
+ * NDJSON rows are the DTOs as the listings serialize them; CSV rows are the given columns.
+ * Closing flushes the output but leaves the stream itself open.
+ */
+abstract class ExportWriter<T> implements Closeable {
+
+    record Column<T>(String name, Function<T, Object> value) {}
+
+    abstract void write(T row);
+
+    static <T> ExportWriter<T> open(ExportFormat format, OutputStream out, ObjectMapper objectMapper, List<Column<T>> csvColumns) throws IOException {
+        return format == ExportFormat.CSV ? new Csv<>(out, csvColumns) : new Ndjson<>(out, objectMapper);
+    }
+
+    private static class Ndjson<T> extends ExportWriter<T> {
+        private final JsonGenerator generator;
+        private final ObjectWriter writer;
+
+        Ndjson(OutputStream out, ObjectMapper objectMapper) throws IOException {
+            generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .setRootValueSeparator(null);
+            writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        }
+
+        @Override
+        void write(T row) {
+            try {
+                writer.writeValue(generator, row);
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    private static class Csv<T> extends ExportWriter<T> {
+        private final Writer out;
+        private final List<Column<T>> columns;
+
+        Csv(OutputStream out, List<Column<T>> columns) throws IOException {
+            this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            this.columns = columns;
+            writeLine(columns.stream().map(Column::name).toList());
+        }
+
+        @Override
+        void write(T row) {
+            try {
+                writeLine(columns.stream().map(column -> column.value().apply(row)).toList());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void writeLine(List<?> values) throws IOException {
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                Object value = values.get(i);
+                if (value != null) {
+                    out.write(escape(value instanceof String text ? defuseFormula(text) : value.toString()));
+                }
+            }
+            out.write("\r\n");
+        }
+
+        // spreadsheets evaluate a cell starting with one of these as a formula; numbers and dates are left as they are
+        private static String defuseFormula(String value) {
+            if (!value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+                return '\'' + value;
+            }
+            return value;
+        }
+
+        private static String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.flush();
+        }
+    }
+}
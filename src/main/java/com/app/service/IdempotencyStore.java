@@ -0,0 +1,130 @@
+package com.app.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.app.exception.IdempotencyKeyReusedException;
+import com.app.exception.ValidationValueException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Remembers which Idempotency-Key values a user has already completed, together with a
+ * fingerprint of the request. Keys are claimed inside the business transaction, so a key is
+ * only stored when the operation commits; the cache in front only ever holds committed keys.
+ */
+@Component
+public class IdempotencyStore {
+    public static final int MAX_KEY_LENGTH = 100;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${idempotency.key.ttl:86400}")
+    private long keyTtl;
+
+    @Value("${idempotency.cache.size:100000}")
+    private long cacheSize;
+
+    private Cache<String, String> completedKeys;
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    @PostConstruct
+    public void init() {
+        completedKeys = Caffeine.newBuilder()
+            .maximumSize(cacheSize)
+            .expireAfterWrite(Duration.ofSeconds(keyTtl))
+            .build();
+    }
+
+    public static String fingerprint(Object... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Object part : parts) {
+                digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public void validateKey(String key) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new ValidationValueException(Map.of("Idempotency-Key", "must be 1 to " + MAX_KEY_LENGTH + " characters"));
+        }
+    }
+
+    /**
+     * @return true if the key was already completed with the same request
+     * @throws IdempotencyKeyReusedException if the key was completed with a different request
+     */
+    public boolean isCompleted(Integer userId, String key, String fingerprint) {
+        String cacheKey = cacheKey(userId, key);
+        String stored = completedKeys.getIfPresent(cacheKey);
+        if (stored == null) {
+            List<String> rows = jdbcTemplate.queryForList(
+                "SELECT request_hash FROM idempotency_keys WHERE user_id = ? AND idempotency_key = ? AND created_at >= ?",
+                String.class, userId, key, cutoff());
+            if (rows.isEmpty()) {
+                return false;
+            }
+            stored = rows.get(0);
+            completedKeys.put(cacheKey, stored);
+        }
+        if (!stored.equals(fingerprint)) {
+            throw new IdempotencyKeyReusedException(key);
+        }
+        return true;
+    }
+
+    /**
+     * Must run inside the transaction of the operation. A concurrent claim of the same key waits
+     * on the unique index and fails with DuplicateKeyException once the first one commits.
+     */
+    public void claim(Integer userId, String key, String fingerprint) {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE user_id = ? AND idempotency_key = ? AND created_at < ?",
+            userId, key, cutoff());
+        jdbcTemplate.update("INSERT INTO idempotency_keys (user_id, idempotency_key, request_hash, created_at) VALUES (?, ?, ?, ?)",
+            userId, key, fingerprint, Timestamp.from(Instant.now()));
+    }
+
+    public void remember(Integer userId, String key, String fingerprint) {
+        completedKeys.put(cacheKey(userId, key), fingerprint);
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.cleanup.interval:3600000}")
+    public void removeExpired() {
+        int removed = jdbcTemplate.update("DELETE FROM idempotency_keys WHERE created_at < ?", cutoff());
+        if (removed > 0) {
+            logger.info("Removed {} expired idempotency keys", removed);
+        }
+    }
+
+    private Timestamp cutoff() {
+        return Timestamp.from(Instant.now().minusSeconds(keyTtl));
+    }
+
+    private static String cacheKey(Integer userId, String key) {
+        return userId + ":" + key;
+    }
+}
@@ -0,0 +1,63 @@
+package com.app.service;
+
+import javax.crypto.SecretKey;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Derives the HMAC key once and shares a thread-safe parser bound to it.
+ * {@link #rotate(String)} swaps both at once, so a new secret needs no restart.
+ */
+@Component
+public class JwtKeyHolder {
+    @Value("${jwt.secret}")
+    private String jwtSecret;
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyHolder.class);
+
+    private volatile SigningMaterial material;
+
+    public JwtKeyHolder() {}
+
+    public JwtKeyHolder(String jwtSecret) {
+        this.jwtSecret = jwtSecret;
+        init();
+    }
+
+    @PostConstruct
+    public void init() {
+        material = SigningMaterial.of(jwtSecret);
+    }
+
+    public SecretKey getSigningKey() {
+        return material.key();
+    }
+
+    public JwtParser getParser() {
+        return material.parser();
+    }
+
+    public void rotate(String newSecret) {
+        SigningMaterial rotated = SigningMaterial.of(newSecret);
+        material = rotated;
+        jwtSecret = newSecret;
+        logger.info("JWT signing key rotated");
+    }
+
+    private record SigningMaterial(SecretKey key, JwtParser parser) {
+        static SigningMaterial of(String secret) {
+            byte[] keyBytes = Decoders.BASE64.decode(secret);
+            SecretKey key = Keys.hmacShaKeyFor(keyBytes);
+            return new SigningMaterial(key, Jwts.parser().verifyWith(key).build());
+        }
+    }
+}
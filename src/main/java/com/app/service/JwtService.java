@@ -4,29 +4,32 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Date;
 
-import javax.crypto.SecretKey;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
 
 import com.app.dto.JwtAuthenticationDTO;
+import com.app.model.User;
+import com.app.service.JwtVerificationResult.Failure;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
 import jakarta.servlet.http.HttpServletRequest;
 
 @Component
 public class JwtService {
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+
+    @Autowired
+    private JwtKeyHolder keyHolder;
 
     @Value("${jwt.token.expiration}")
     private long jwtTokenExpiration;
@@ -37,24 +40,22 @@ public class JwtService {
     private static final Logger logger = LoggerFactory.getLogger(JwtService.class);
 
 
-    public JwtAuthenticationDTO generateAuthToken(String username) {
+    public JwtAuthenticationDTO generateAuthToken(User user) {
         JwtAuthenticationDTO jwtDto = new JwtAuthenticationDTO();
-        jwtDto.setToken(generateJwtToken(username));
-        jwtDto.setRefreshToken(generateRefreshToken(username));
+        jwtDto.setToken(generateJwtToken(user));
+        jwtDto.setRefreshToken(generateRefreshToken(user.getUsername()));
         return jwtDto;
     }
 
-    public JwtAuthenticationDTO refreshBaseToken(String username, String refreshToken) {
+    public JwtAuthenticationDTO refreshBaseToken(User user, String refreshToken) {
         JwtAuthenticationDTO jwtDto = new JwtAuthenticationDTO();
-        jwtDto.setToken(generateJwtToken(username));
+        jwtDto.setToken(generateJwtToken(user));
         jwtDto.setRefreshToken(refreshToken);
         return jwtDto;
     }
 
     public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parser()
-                            .verifyWith(getSingInKey())
-                            .build()
+        Claims claims = keyHolder.getParser()
                             .parseSignedClaims(token)
                             .getPayload();
 
@@ -70,25 +71,31 @@ public class JwtService {
     }
 
     public boolean validateJwtToken(String token) {
+        return verifyToken(token).isValid();
+    }
+
+    public JwtVerificationResult verifyToken(String token) {
         try {
-            Jwts.parser()
-                .verifyWith(getSingInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-            return true;
+            Claims claims = keyHolder.getParser()
+                                .parseSignedClaims(token)
+                                .getPayload();
+            return JwtVerificationResult.verified(claims);
         } catch (ExpiredJwtException e) {
             logger.error(e.getMessage());
+            return JwtVerificationResult.failed(Failure.EXPIRED);
         } catch (UnsupportedJwtException e) {
             logger.error(e.getMessage());
+            return JwtVerificationResult.failed(Failure.UNSUPPORTED);
         } catch (MalformedJwtException e) {
             logger.error(e.getMessage());
+            return JwtVerificationResult.failed(Failure.MALFORMED);
         } catch (SecurityException e) {
             logger.error(e.getMessage());
+            return JwtVerificationResult.failed(Failure.BAD_SIGNATURE);
         } catch (Exception e) {
             logger.error(e.getMessage());
+            return JwtVerificationResult.failed(Failure.INVALID);
         }
-        return false;
     }
 
     public String getTokenFromRequest(HttpServletRequest request) {
@@ -99,13 +106,15 @@ public class JwtService {
         return null;
     }
 
-    private String generateJwtToken(String username) {
+    private String generateJwtToken(User user) {
         Date date = Date.from(LocalDateTime.now().plusSeconds(jwtTokenExpiration).atZone(ZoneId.systemDefault()).toInstant());
 
         return Jwts.builder()
-                .subject(username)
+                .subject(user.getUsername())
+                .claim(CLAIM_USER_ID, user.getId())
+                .claim(CLAIM_ROLE, user.getRole())
                 .expiration(date)
-                .signWith(getSingInKey())
+                .signWith(keyHolder.getSigningKey())
                 .compact();
     }
 
@@ -115,13 +124,8 @@ public class JwtService {
         return Jwts.builder()
                 .subject(username)
                 .expiration(date)
-                .signWith(getSingInKey())
+                .signWith(keyHolder.getSigningKey())
                 .compact();
     }
-
-    private SecretKey getSingInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
 }
 
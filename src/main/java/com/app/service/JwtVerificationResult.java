@@ -0,0 +1,30 @@
+package com.app.service;
+
+import io.jsonwebtoken.Claims;
+
+public record JwtVerificationResult(Claims claims, Failure failure) {
+
+    public enum Failure {
+        EXPIRED,
+        MALFORMED,
+        BAD_SIGNATURE,
+        UNSUPPORTED,
+        INVALID
+    }
+
+    public static JwtVerificationResult verified(Claims claims) {
+        return new JwtVerificationResult(claims, null);
+    }
+
+    public static JwtVerificationResult failed(Failure failure) {
+        return new JwtVerificationResult(null, failure);
+    }
+
+    public boolean isValid() {
+        return failure == null;
+    }
+
+    public String getSubject() {
+        return claims == null ? null : claims.getSubject();
+    }
+}
@@ -0,0 +1,64 @@
+package com.app.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Component
+public class TransactionRetrier {
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${transaction.retry.max.attempts:3}")
+    private int maxAttempts;
+
+    @Value("${transaction.retry.backoff:20}")
+    private long backoffMillis;
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionRetrier.class);
+
+    public void execute(Runnable action) {
+        execute(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public <T> T execute(Supplier<T> action) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                logger.warn("Transaction attempt {} of {} failed: {}", attempt, maxAttempts, e.getMessage());
+                sleep(jitteredBackoff(attempt));
+            }
+        }
+    }
+
+    // Half of the exponential delay is fixed and half random, so conflicting retries spread out instead of colliding again
+    private long jitteredBackoff(int attempt) {
+        long delay = backoffMillis << (attempt - 1);
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry transaction", e);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.app.service;
+
+import java.util.Locale;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+
+/**
+ * Tells which unique key an insert ran into. Inserts through the EntityManager fail with a
+ * DataIntegrityViolationException caused by Hibernate's ConstraintViolationException, JdbcTemplate
+ * inserts with a DuplicateKeyException. The constraint name or the driver message names the column
+ * or its index, e.g. MySQL "Duplicate entry '...' for key 'cards.card_number'" and H2 "... ON PUBLIC.CARDS(CARD_NUMBER ...)".
+ */
+final class UniqueKeys {
+    private UniqueKeys() {
+    }
+
+    static boolean isOn(DataIntegrityViolationException e, String column) {
+        ConstraintViolationException violation = hibernateViolation(e);
+        if (violation != null) {
+            if (violation.getKind() != ConstraintViolationException.ConstraintKind.UNIQUE) {
+                return false;
+            }
+            String constraintName = violation.getConstraintName();
+            if (constraintName != null && constraintName.toLowerCase(Locale.ROOT).contains(column)) {
+                return true;
+            }
+        } else if (!(e instanceof DuplicateKeyException)) {
+            return false;
+        }
+        return message(e).contains(column);
+    }
+
+    // both drivers quote the duplicated value in the message
+    static boolean names(DataIntegrityViolationException e, String value) {
+        return message(e).contains("'" + value.toLowerCase(Locale.ROOT) + "'");
+    }
+
+    private static ConstraintViolationException hibernateViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return violation;
+            }
+        }
+        return null;
+    }
+
+    private static String message(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message == null ? "" : message.toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,12 +1,19 @@
 package com.app.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.app.dto.JwtAuthenticationDTO;
 import com.app.dto.RefreshTokenDTO;
@@ -17,10 +24,12 @@ import com.app.dto.UsernameDTO;
 import com.app.exception.AuthenticationFailedException;
 import com.app.exception.InvalidRefreshTokenException;
 import com.app.exception.UserNotFoundException;
+import com.app.exception.ValidationValueException;
 import com.app.model.User;
+import com.app.repository.CardRepository;
 import com.app.repository.UserRepository;
-
-import jakarta.transaction.Transactional;
+import com.app.security.CustomUserServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 @Service
 @Transactional
@@ -34,16 +43,38 @@ public class UserService {
     @Autowired
     private JwtService jwtService;
 
+    @Autowired
+    private CustomUserServiceImpl customUserService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ExistenceFilters existenceFilters;
+
+    @Autowired
+    private CardRepository cardRepo;
+
+    private static final List<ExportWriter.Column<UserDTO>> USER_EXPORT_COLUMNS = List.of(
+        new ExportWriter.Column<>("id", UserDTO::getId),
+        new ExportWriter.Column<>("username", UserDTO::getUsername),
+        new ExportWriter.Column<>("role", UserDTO::getRole));
+
+    @Transactional(readOnly = true)
     public JwtAuthenticationDTO singIn(UserCredentialsDTO userCredentialsDTO) throws UserNotFoundException {
         User user = findByCredentials(userCredentialsDTO);
-        return jwtService.generateAuthToken(user.getUsername());
+        return jwtService.generateAuthToken(user);
     }
 
+    @Transactional(readOnly = true)
     public JwtAuthenticationDTO refreshToken(RefreshTokenDTO refreshTokenDTO) throws InvalidRefreshTokenException, UserNotFoundException {
         String refreshToken = refreshTokenDTO.getRefreshToken();
-        if (refreshToken != null && jwtService.validateJwtToken(refreshToken)) {
-            User user = findByUsername(jwtService.getUsernameFromToken(refreshToken));
-            return jwtService.refreshBaseToken(user.getUsername(), refreshToken);
+        if (refreshToken != null) {
+            JwtVerificationResult verification = jwtService.verifyToken(refreshToken);
+            if (verification.isValid()) {
+                User user = findByUsername(verification.getSubject());
+                return jwtService.refreshBaseToken(user, refreshToken);
+            }
         }
         throw new InvalidRefreshTokenException();
     }
@@ -54,12 +85,23 @@ public class UserService {
             user.setUsername(registerDTO.getUsername());
             user.setRole("ROLE_USER");
             user.setPassword(passwordEncoder.encode(registerDTO.getPassword()));
-            userRepo.save(user);
+            try {
+                userRepo.save(user);
+            } catch (DataIntegrityViolationException e) {
+                // registered concurrently after validation or not yet seen by the existence filter
+                if (!UniqueKeys.isOn(e, "username")) {
+                    throw e;
+                }
+                throw new ValidationValueException(Map.of("username", "Specified username is not unique"));
+            }
+            userRepo.indexUsername(user.getId(), user.getUsername());
+            existenceFilters.usernames().add(user.getUsername());
         } else {
             throw new AuthenticationFailedException("Password not confirm");
         }
     }
 
+    @Transactional(readOnly = true)
     public User findByCredentials(UserCredentialsDTO userCredentialsDTO) throws UserNotFoundException {
         Optional<User> optionalUser = userRepo.findByUsername(userCredentialsDTO.getUsername());
         if (optionalUser.isPresent()) {
@@ -75,15 +117,50 @@ public class UserService {
         if (!userRepo.existsByUsername(usernameDTO.getUsername())) {
             throw new UserNotFoundException(usernameDTO.getUsername());
         }
+        // the user's cards go with it through ON DELETE CASCADE, which Hibernate does not see
+        List<String> cardNumbers = cardRepo.findCardNumbersByOwnerUsername(usernameDTO.getUsername());
         userRepo.deleteByUsername(usernameDTO.getUsername());
+        existenceFilters.usernames().remove(usernameDTO.getUsername());
+        for (String cardNumber : cardNumbers) {
+            existenceFilters.cardNumbers().remove(cardNumber);
+        }
+        afterCommit(() -> {
+            customUserService.evict(usernameDTO.getUsername());
+            if (!cardNumbers.isEmpty()) {
+                cardRepo.evictCachedCardNumbers(cardNumbers);
+            }
+        });
+    }
+
+    // evicting before the commit lets a concurrent login cache the user again from the not yet deleted row
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 
+    @Transactional(readOnly = true)
     public List<UserDTO> getAllUsersAsDTO() {
         List<User> users = userRepo.findAll();
         List<UserDTO> userDTOs = users.stream().map(UserDTO::new).collect(Collectors.toList());
         return userDTOs;
     }
 
+    // streams the rows straight into out instead of collecting them like getAllUsersAsDTO
+    @Transactional(readOnly = true)
+    public void exportUsers(ExportFormat format, OutputStream out) throws IOException {
+        try (ExportWriter<UserDTO> writer = ExportWriter.open(format, out, objectMapper, USER_EXPORT_COLUMNS)) {
+            userRepo.forEachUserDto(writer::write);
+        }
+    }
+
     private User findByUsername(String username) throws UserNotFoundException {
         return userRepo.findByUsername(username).orElseThrow(() -> new UserNotFoundException(username));
     }
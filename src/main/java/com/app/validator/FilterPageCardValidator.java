@@ -1,92 +1,155 @@
 package com.app.validator;
 
+import java.time.Clock;
 import java.time.LocalDate;
-import java.util.regex.Pattern;
+import java.time.ZoneId;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import com.app.dto.FilterPageCardDTO;
+import com.app.model.Money;
+import com.app.repository.CardSortField;
 
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
 
 
+/**
+ * Runs on every card listing request, so the checks are plain comparisons: no regular expressions,
+ * no clock read per call and no logging unless DEBUG is enabled for this class.
+ */
 @Component
 public class FilterPageCardValidator implements ConstraintValidator<FilterPageCardValid, FilterPageCardDTO> {
     
     private static final Logger logger = LoggerFactory.getLogger(FilterPageCardValidator.class);
 
-    private static final String sortByRegex = "id|card_number|owner_id|validity_period|status|balance";
-    private static final String directionSortRegex = "asc|desc";
-    
+    private static final int MAX_CARD_NUMBER_LENGTH = 16;
+
+    static final int DEFAULT_MAX_PAGE_SIZE = 100;
+
+    // slice and keyset listings read size + 1 rows, so the page has to stay small and far from Integer.MAX_VALUE
+    @Value("${card.page.size.max:100}")
+    private int maxPageSize = DEFAULT_MAX_PAGE_SIZE;
+
+    private final Clock clock;
+
+    // today's date and the moment it ends, replaced together on the first call after midnight
+    private record Today(LocalDate date, long endMillis) {}
+
+    private volatile Today today;
+
+    public FilterPageCardValidator() {
+        this(Clock.systemDefaultZone());
+    }
+
+    FilterPageCardValidator(Clock clock) {
+        this.clock = clock;
+    }
 
     @Override
     public boolean isValid(FilterPageCardDTO object, ConstraintValidatorContext constraintValidatorContext ) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("FilterPageCardValidator Username: {} Direction sort: {} Sort by: {} Page: {} Size: {} Cardnumber: {} Min end date: {} Max end date: {} Min balance: {} Max balance: {}",
+                object.getUsername(), object.getDirectionSort(), object.getSortBy(), object.getPage(), object.getSize(),
+                object.getCardNumber(), object.getMinEndDate(), object.getMaxEndDate(), object.getMinBalance(), object.getMaxBalance());
+        }
+
         String username = object.getUsername();
-        logger.info("FilterPageCardValidator Username: {}", username);
         if (username != null) {
             if (username.length() > 50) {
                 return false;
             }
         }
 
-        logger.info("FilterPageCardValidator Direction sort: {}", object.getDirectionSort());
-        if (!Pattern.compile(directionSortRegex, Pattern.CASE_INSENSITIVE).matcher(object.getDirectionSort()).matches()) {
+        String directionSort = object.getDirectionSort();
+        if (!"asc".equalsIgnoreCase(directionSort) && !"desc".equalsIgnoreCase(directionSort)) {
             return false;
         }
 
-        logger.info("FilterPageCardValidator sort by: {}", object.getSortBy());
-        if (!Pattern.compile(sortByRegex, Pattern.CASE_INSENSITIVE).matcher(object.getSortBy()).matches()) {
+        if (!CardSortField.isColumnName(object.getSortBy())) {
             return false;
         }
 
-        logger.info("FilterPageCardValidator page: {}", object.getPage());
         if (object.getPage() < 0) {
             return false;
         }
 
-        logger.info("FilterPageCardValidator size: {}", object.getSize());
-        if (object.getSize() <= 0) {
+        if (object.getSize() <= 0 || object.getSize() > maxPageSize) {
+            if (constraintValidatorContext != null) {
+                constraintValidatorContext.disableDefaultConstraintViolation();
+                constraintValidatorContext.buildConstraintViolationWithTemplate("Size must be between 1 and " + maxPageSize)
+                    .addPropertyNode("size")
+                    .addConstraintViolation();
+            }
             return false;
         }
 
+        if (object.getCountMode() == null) {
+            return false;
+        }
 
-        String cardNumber = object.getCardNumber();
-        logger.info("FilterPageCardValidator cardnumber: {}", cardNumber);
-        if (cardNumber != null) {
-            if (!Pattern.compile("^[0-9]{0,16}$").matcher(object.getCardNumber()).matches()) {
-                return false;
-            }
+        String cursor = object.getCursor();
+        if (cursor != null && (cursor.isEmpty() || cursor.length() > 512)) {
+            return false;
         }
 
-        LocalDate minEndDate = object.getMinEndDate();
-        logger.info("FilterPageCardValidator min end date: {}", minEndDate);
-        if (minEndDate != null) {
-            if (LocalDate.now().isAfter(minEndDate)) {
-                return false;
-            }
+        String cardNumber = object.getCardNumber();
+        if (cardNumber != null && !isCardNumberPart(cardNumber)) {
+            return false;
         }
 
+        LocalDate minEndDate = object.getMinEndDate();
         LocalDate maxEndDate = object.getMaxEndDate();
-        logger.info("FilterPageCardValidator max end date: {}", maxEndDate);
-        if (maxEndDate != null) {
-            if (LocalDate.now().isAfter(maxEndDate)) {
-                logger.info("FilterPageCardValidator max end date: 1");
+        if (minEndDate != null || maxEndDate != null) {
+            LocalDate today = today();
+            if (minEndDate != null && today.isAfter(minEndDate)) {
                 return false;
             }
-            if (minEndDate != null && minEndDate.isAfter(maxEndDate)) {
-                logger.info("FilterPageCardValidator max end date: 2");
-                return false;
+            if (maxEndDate != null) {
+                if (today.isAfter(maxEndDate)) {
+                    return false;
+                }
+                if (minEndDate != null && minEndDate.isAfter(maxEndDate)) {
+                    return false;
+                }
             }
         }
 
-        logger.info("FilterPageCardValidator min and max balance compare (min >= max): {}", object.getMinBalance() >= object.getMaxBalance());
-        if (object.getMinBalance() > object.getMaxBalance()) {
+        Money minBalance = object.getMinBalance();
+        Money maxBalance = object.getMaxBalance();
+        if (minBalance != null && maxBalance != null && minBalance.compareTo(maxBalance) > 0) {
             return false;
         }
         
         return true;
     }
+
+    // up to 16 ASCII digits, as "^[0-9]{0,16}$" accepted
+    private static boolean isCardNumberPart(String cardNumber) {
+        if (cardNumber.length() > MAX_CARD_NUMBER_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < cardNumber.length(); i++) {
+            char c = cardNumber.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private LocalDate today() {
+        Today current = today;
+        long now = clock.millis();
+        if (current == null || now >= current.endMillis()) {
+            ZoneId zone = clock.getZone();
+            LocalDate date = LocalDate.ofInstant(clock.instant(), zone);
+            current = new Today(date, date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli());
+            today = current;
+        }
+        return current.date();
+    }
 }
@@ -4,6 +4,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import com.app.repository.CardRepository;
+import com.app.service.ExistenceFilters;
 
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
@@ -13,9 +14,12 @@ public class NoOneHasNumberValidator implements ConstraintValidator<NoOneHasNumb
     @Autowired
     private CardRepository cardRepo;
 
+    @Autowired
+    private ExistenceFilters existenceFilters;
+
     @Override
     public boolean isValid(String value, ConstraintValidatorContext context) {
-        return value == null || !cardRepo.existsByCardNumber(value);
+        return value == null || !existenceFilters.cardNumbers().exists(value, cardRepo::existsByCardNumber);
     }
     
 }
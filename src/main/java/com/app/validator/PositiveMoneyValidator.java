@@ -0,0 +1,14 @@
+package com.app.validator;
+
+import com.app.model.Money;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class PositiveMoneyValidator implements ConstraintValidator<PositiveMoney, Money> {
+
+    @Override
+    public boolean isValid(Money value, ConstraintValidatorContext context) {
+        return value == null || value.isPositive();
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import com.app.repository.UserRepository;
+import com.app.service.ExistenceFilters;
 
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
@@ -17,6 +18,9 @@ public class UniqueUsernameValidator implements ConstraintValidator<UniqueUserna
     @Autowired
     UserRepository userRepo;
 
+    @Autowired
+    ExistenceFilters existenceFilters;
+
     private static final Logger logger = LoggerFactory.getLogger(UniqueUsernameValidator.class);
     
     @Override
@@ -25,7 +29,7 @@ public class UniqueUsernameValidator implements ConstraintValidator<UniqueUserna
             return true;
         }
         logger.info("Current field: " + value);
-        boolean existsInDb = userRepo.existsByUsername(value);
+        boolean existsInDb = existenceFilters.usernames().exists(value, userRepo::existsByUsername);
         logger.info("Exist in db: " + existsInDb);
         return !existsInDb;
     }
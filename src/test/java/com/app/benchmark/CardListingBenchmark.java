@@ -0,0 +1,165 @@
+package com.app.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.dto.CardDTO;
+import com.app.model.Card;
+import com.app.model.Money;
+import com.app.model.STATUS;
+import com.app.model.User;
+import com.app.repository.CardRepository;
+import com.app.repository.UserRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * One page of a card listing read as managed entities in a read-write transaction (the old path),
+ * as entities in a read-only transaction, and as a CardDTO projection in a read-only transaction.
+ * Run main() to also get the allocation per call (gc.alloc.rate.norm) from the GC profiler.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CardListingBenchmark {
+
+    private static final int CARDS = 2000;
+    private static final Pageable PAGE = PageRequest.of(3, 50, Sort.by("id"));
+
+    private AnnotationConfigApplicationContext context;
+    private CardRepository cardRepo;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(Config.class);
+        cardRepo = context.getBean(CardRepository.class);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        User owner = new User();
+        owner.setUsername("owner");
+        owner.setPassword("password");
+        owner.setRole("ROLE_USER");
+        context.getBean(UserRepository.class).save(owner);
+        List<Card> cards = new ArrayList<>(CARDS);
+        for (int i = 0; i < CARDS; i++) {
+            Card card = new Card();
+            card.setCardNumber(String.format("4000%012d", i));
+            card.setOwnerId(owner.getId());
+            card.setValidityPeriod(LocalDate.now().plusYears(1 + i % 4));
+            card.setStatus(STATUS.ACTIVE);
+            card.setBalance(Money.ofMinor(i));
+            cards.add(card);
+        }
+        cardRepo.saveAll(cards);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<CardDTO> entitiesInReadWriteTransaction() {
+        return readWrite.execute(status -> toDtos(cardRepo.findAll(PAGE).getContent()));
+    }
+
+    @Benchmark
+    public List<CardDTO> entitiesInReadOnlyTransaction() {
+        return readOnly.execute(status -> toDtos(cardRepo.findAll(PAGE).getContent()));
+    }
+
+    @Benchmark
+    public List<CardDTO> projectionInReadOnlyTransaction() {
+        return readOnly.execute(status -> cardRepo.findCardDtos(Specification.unrestricted(), PAGE).getContent());
+    }
+
+    private List<CardDTO> toDtos(List<Card> cards) {
+        return cards.stream().map(CardDTO::newCardDTOWithMaksedNumber).toList();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CardListingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    @EnableJpaRepositories(basePackages = "com.app.repository")
+    static class Config {
+
+        @Bean
+        public DataSource dataSource() {
+            return new DriverManagerDataSource("jdbc:h2:mem:listing;DB_CLOSE_DELAY=-1");
+        }
+
+        @Bean
+        public LocalContainerEntityManagerFactoryBean entityManagerFactory() {
+            LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
+            em.setDataSource(dataSource());
+            em.setPackagesToScan("com.app.model");
+            em.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+            Properties properties = new Properties();
+            properties.setProperty("hibernate.hbm2ddl.auto", "create-drop");
+            properties.setProperty("jakarta.persistence.validation.mode", "none");
+            em.setJpaProperties(properties);
+            return em;
+        }
+
+        @Bean
+        public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+            return new JpaTransactionManager(entityManagerFactory);
+        }
+
+        @Bean
+        public JdbcTemplate jdbcTemplate() {
+            return new JdbcTemplate(dataSource());
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.app.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.cache.CacheManager;
+import javax.sql.DataSource;
+
+import org.hibernate.jpa.HibernateHints;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.config.EntityCacheConfig;
+import com.app.model.Card;
+import com.app.model.Money;
+import com.app.model.STATUS;
+import com.app.model.User;
+import com.app.repository.CardRepository;
+import com.app.repository.UserRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Lookups of users and cards with and without the second-level cache. userByUsernameQuery is the
+ * JPQL query findByUsername used to run before it went through the natural-id cache; with
+ * secondLevelCache=false it is the baseline. Each call runs in its own read-only transaction, like the
+ * sign-in and token refresh do. Run main() to also get the allocation per call from the GC profiler.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityCacheBenchmark {
+
+    private static final int USERS = 500;
+    private static final int CARDS = 2000;
+
+    @Param({"false", "true"})
+    public boolean secondLevelCache;
+
+    private AnnotationConfigApplicationContext context;
+    private UserRepository userRepo;
+    private CardRepository cardRepo;
+    private Lookups lookups;
+    private TransactionTemplate readOnly;
+    private List<String> usernames;
+    private List<Integer> userIds;
+    private List<String> cardNumbers;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext();
+        context.register(secondLevelCache ? CachedConfig.class : Config.class);
+        context.refresh();
+        userRepo = context.getBean(UserRepository.class);
+        cardRepo = context.getBean(CardRepository.class);
+        lookups = context.getBean(Lookups.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        usernames = new ArrayList<>(USERS);
+        userIds = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            User user = new User();
+            user.setUsername("user" + i);
+            user.setPassword("password");
+            user.setRole("ROLE_USER");
+            userRepo.save(user);
+            usernames.add(user.getUsername());
+            userIds.add(user.getId());
+        }
+        List<Card> cards = new ArrayList<>(CARDS);
+        cardNumbers = new ArrayList<>(CARDS);
+        for (int i = 0; i < CARDS; i++) {
+            Card card = new Card();
+            card.setCardNumber(String.format("4000%012d", i));
+            card.setOwnerId(userIds.get(i % USERS));
+            card.setValidityPeriod(LocalDate.now().plusYears(1));
+            card.setStatus(STATUS.ACTIVE);
+            card.setBalance(Money.ofMinor(i));
+            cards.add(card);
+            cardNumbers.add(card.getCardNumber());
+        }
+        cardRepo.saveAll(cards);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public User userByUsernameQuery() {
+        String username = usernames.get(ThreadLocalRandom.current().nextInt(USERS));
+        return readOnly.execute(status -> lookups.userByUsernameQuery(username));
+    }
+
+    @Benchmark
+    public User userByUsername() {
+        String username = usernames.get(ThreadLocalRandom.current().nextInt(USERS));
+        return readOnly.execute(status -> userRepo.findByUsername(username).get());
+    }
+
+    @Benchmark
+    public User userById() {
+        Integer id = userIds.get(ThreadLocalRandom.current().nextInt(USERS));
+        return readOnly.execute(status -> userRepo.findById(id).get());
+    }
+
+    @Benchmark
+    public Card cardByCardNumber() {
+        String cardNumber = cardNumbers.get(ThreadLocalRandom.current().nextInt(CARDS));
+        return readOnly.execute(status -> cardRepo.findByCardNumber(cardNumber).get());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EntityCacheBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    static class Lookups {
+        @PersistenceContext
+        private EntityManager entityManager;
+
+        User userByUsernameQuery(String username) {
+            return entityManager.createQuery("SELECT u FROM User u WHERE u.username = :username", User.class)
+                .setParameter("username", username)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getSingleResult();
+        }
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    @EnableJpaRepositories(basePackages = "com.app.repository")
+    static class Config {
+
+        @Bean
+        public DataSource dataSource() {
+            return new DriverManagerDataSource("jdbc:h2:mem:entitycache;DB_CLOSE_DELAY=-1");
+        }
+
+        @Bean
+        public LocalContainerEntityManagerFactoryBean entityManagerFactory() {
+            return entityManagerFactory(dataSource(), new Properties());
+        }
+
+        @Bean
+        public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+            return new JpaTransactionManager(entityManagerFactory);
+        }
+
+        @Bean
+        public JdbcTemplate jdbcTemplate() {
+            return new JdbcTemplate(dataSource());
+        }
+
+        @Bean
+        public Lookups lookups() {
+            return new Lookups();
+        }
+
+        static LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource, Properties properties) {
+            LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
+            em.setDataSource(dataSource);
+            em.setPackagesToScan("com.app.model");
+            em.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+            properties.setProperty("hibernate.hbm2ddl.auto", "create-drop");
+            properties.setProperty("jakarta.persistence.validation.mode", "none");
+            em.setJpaProperties(properties);
+            return em;
+        }
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    @EnableJpaRepositories(basePackages = "com.app.repository")
+    static class CachedConfig extends EntityCacheConfig {
+
+        @Bean
+        public DataSource dataSource() {
+            return new DriverManagerDataSource("jdbc:h2:mem:entitycache;DB_CLOSE_DELAY=-1");
+        }
+
+        @Bean
+        public LocalContainerEntityManagerFactoryBean entityManagerFactory(CacheManager entityCacheManager) {
+            Properties properties = new Properties();
+            properties.setProperty("hibernate.cache.use_second_level_cache", "true");
+            properties.setProperty("hibernate.cache.region.factory_class", "jcache");
+            properties.put("hibernate.javax.cache.cache_manager", entityCacheManager);
+            properties.setProperty("hibernate.javax.cache.missing_cache_strategy", "fail");
+            properties.setProperty("hibernate.cache.default_cache_concurrency_strategy", "read-write");
+            return Config.entityManagerFactory(dataSource(), properties);
+        }
+
+        @Bean
+        public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+            return new JpaTransactionManager(entityManagerFactory);
+        }
+
+        @Bean
+        public JdbcTemplate jdbcTemplate() {
+            return new JdbcTemplate(dataSource());
+        }
+
+        @Bean
+        public Lookups lookups() {
+            return new Lookups();
+        }
+    }
+}
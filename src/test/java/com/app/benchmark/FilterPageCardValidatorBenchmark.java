@@ -0,0 +1,93 @@
+package com.app.benchmark;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.app.dto.FilterPageCardDTO;
+import com.app.model.Money;
+import com.app.validator.FilterPageCardValidator;
+
+/**
+ * Validation of a typical admin listing filter. Run with the GC profiler (as main does) to compare
+ * allocations per call; the per-call variant is the former validator without its log statements.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterPageCardValidatorBenchmark {
+
+    private FilterPageCardValidator validator;
+    private FilterPageCardDTO filters;
+
+    @Setup
+    public void setUp() {
+        validator = new FilterPageCardValidator();
+        filters = new FilterPageCardDTO();
+        filters.setDirectionSort("desc");
+        filters.setSortBy("balance");
+        filters.setSize(50);
+        filters.setCardNumber("4444");
+        filters.setMinEndDate(LocalDate.now().plusDays(1));
+        filters.setMaxEndDate(LocalDate.now().plusYears(1));
+        filters.setMinBalance(Money.of("10.00"));
+        filters.setMaxBalance(Money.of("5000.00"));
+    }
+
+    @Benchmark
+    public boolean validateWithPatternsPerCall() {
+        FilterPageCardDTO object = filters;
+        if (object.getUsername() != null && object.getUsername().length() > 50) {
+            return false;
+        }
+        if (!Pattern.compile("asc|desc", Pattern.CASE_INSENSITIVE).matcher(object.getDirectionSort()).matches()) {
+            return false;
+        }
+        if (!Pattern.compile("id|card_number|owner_id|validity_period|status|balance", Pattern.CASE_INSENSITIVE).matcher(object.getSortBy()).matches()) {
+            return false;
+        }
+        if (object.getPage() < 0 || object.getSize() <= 0 || object.getCountMode() == null) {
+            return false;
+        }
+        if (object.getCardNumber() != null && !Pattern.compile("^[0-9]{0,16}$").matcher(object.getCardNumber()).matches()) {
+            return false;
+        }
+        if (object.getMinEndDate() != null && LocalDate.now().isAfter(object.getMinEndDate())) {
+            return false;
+        }
+        if (object.getMaxEndDate() != null && LocalDate.now().isAfter(object.getMaxEndDate())) {
+            return false;
+        }
+        return object.getMinBalance().compareTo(object.getMaxBalance()) <= 0;
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return validator.isValid(filters, null);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(FilterPageCardValidatorBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
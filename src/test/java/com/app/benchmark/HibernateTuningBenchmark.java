@@ -0,0 +1,186 @@
+package com.app.benchmark;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.model.Card;
+import com.app.model.Money;
+import com.app.model.STATUS;
+import com.app.model.User;
+import com.app.repository.CardRepository;
+import com.app.repository.UserRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Hibernate settings before this change (show_sql and format_sql on, no IN padding) against the ones
+ * DBConfig now uses, on two card workloads: a transaction that changes the balance of 100 cards, and
+ * uniqueness checks of card number lists of varying length. The printed SQL goes to a discarding stream,
+ * so the "before" numbers leave out the cost of the console itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HibernateTuningBenchmark {
+
+    private static final int CARDS = 2000;
+    private static final int UPDATED_CARDS = 100;
+
+    @Param({"before", "after"})
+    public String settings;
+
+    private AnnotationConfigApplicationContext context;
+    private CardRepository cardRepo;
+    private TransactionTemplate transaction;
+    private PrintStream stdout;
+    private List<String> cardNumbers;
+
+    @Setup
+    public void setUp() {
+        stdout = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        context = new AnnotationConfigApplicationContext();
+        context.registerBean("hibernateProperties", Properties.class, () -> properties("before".equals(settings)));
+        context.register(Config.class);
+        context.refresh();
+        cardRepo = context.getBean(CardRepository.class);
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        User owner = new User();
+        owner.setUsername("owner");
+        owner.setPassword("password");
+        owner.setRole("ROLE_USER");
+        context.getBean(UserRepository.class).save(owner);
+        List<Card> cards = new ArrayList<>(CARDS);
+        cardNumbers = new ArrayList<>(CARDS);
+        for (int i = 0; i < CARDS; i++) {
+            Card card = new Card();
+            card.setCardNumber(String.format("4000%012d", i));
+            card.setOwnerId(owner.getId());
+            card.setValidityPeriod(LocalDate.now().plusYears(1));
+            card.setStatus(STATUS.ACTIVE);
+            card.setBalance(Money.ofMinor(100_000));
+            cards.add(card);
+            cardNumbers.add(card.getCardNumber());
+        }
+        cardRepo.saveAll(cards);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        System.setOut(stdout);
+    }
+
+    @Benchmark
+    public int updateCardBalances() {
+        int from = ThreadLocalRandom.current().nextInt(CARDS - UPDATED_CARDS);
+        return transaction.execute(status -> {
+            List<Card> cards = cardRepo.findByCardNumberInOrderByCardNumber(cardNumbers.subList(from, from + UPDATED_CARDS));
+            cards.forEach(card -> card.setBalance(card.getBalance().plus(Money.ofMinor(1))));
+            return cards.size();
+        });
+    }
+
+    @Benchmark
+    public int checkExistingCardNumbers() {
+        int size = 1 + ThreadLocalRandom.current().nextInt(200);
+        int from = ThreadLocalRandom.current().nextInt(CARDS - size);
+        return cardRepo.findExistingCardNumbers(cardNumbers.subList(from, from + size)).size();
+    }
+
+    static Properties properties(boolean before) {
+        Properties properties = new Properties();
+        properties.setProperty("hibernate.hbm2ddl.auto", "create-drop");
+        properties.setProperty("jakarta.persistence.validation.mode", "none");
+        properties.setProperty("hibernate.jdbc.batch_size", "50");
+        properties.setProperty("hibernate.order_updates", "true");
+        if (before) {
+            properties.setProperty("hibernate.show_sql", "true");
+            properties.setProperty("hibernate.format_sql", "true");
+        } else {
+            properties.setProperty("hibernate.order_inserts", "true");
+            properties.setProperty("hibernate.query.plan_cache_max_size", "2048");
+            properties.setProperty("hibernate.query.in_clause_parameter_padding", "true");
+        }
+        return properties;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(HibernateTuningBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    @EnableJpaRepositories(basePackages = "com.app.repository")
+    static class Config {
+
+        @Bean
+        public DataSource dataSource() {
+            return new DriverManagerDataSource("jdbc:h2:mem:tuning;DB_CLOSE_DELAY=-1");
+        }
+
+        @Bean
+        public LocalContainerEntityManagerFactoryBean entityManagerFactory(Properties hibernateProperties) {
+            LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
+            em.setDataSource(dataSource());
+            em.setPackagesToScan("com.app.model");
+            em.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+            em.setJpaProperties(hibernateProperties);
+            return em;
+        }
+
+        @Bean
+        public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+            return new JpaTransactionManager(entityManagerFactory);
+        }
+
+        @Bean
+        public JdbcTemplate jdbcTemplate() {
+            return new JdbcTemplate(dataSource());
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.app.benchmark;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.app.service.JwtKeyHolder;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private final String jwtSecret = "veryLongAndSecureSecretKeyThatIsAtLeast256BitsLongForHS512Algorithm";
+
+    private JwtKeyHolder keyHolder;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        keyHolder = new JwtKeyHolder(jwtSecret);
+        token = Jwts.builder()
+                .subject("testuser")
+                .expiration(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)))
+                .signWith(keyHolder.getSigningKey())
+                .compact();
+    }
+
+    @Benchmark
+    public Claims verifyWithKeyDerivedPerCall() {
+        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(keyBytes))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    @Benchmark
+    public Claims verifyWithSharedParser() {
+        return keyHolder.getParser()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,104 @@
+package com.app.config;
+
+import java.util.Properties;
+
+import javax.cache.CacheManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.mock;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.zaxxer.hikari.HikariConfig;
+
+class DBConfigTest {
+
+    private DBConfig dbConfig;
+    private MockEnvironment environment;
+    private CacheManager entityCacheManager = mock(CacheManager.class);
+
+    @BeforeEach
+    void setUp() {
+        dbConfig = new DBConfig();
+        environment = new MockEnvironment();
+        ReflectionTestUtils.setField(dbConfig, "environment", environment);
+        ReflectionTestUtils.setField(dbConfig, "entityCacheManager", entityCacheManager);
+        ReflectionTestUtils.setField(dbConfig, "dbDriverClassname", "org.h2.Driver");
+        ReflectionTestUtils.setField(dbConfig, "poolMinIdle", 1);
+        ReflectionTestUtils.setField(dbConfig, "poolMaxSize", 2);
+        ReflectionTestUtils.setField(dbConfig, "poolConnectionTimeout", 30000L);
+        ReflectionTestUtils.setField(dbConfig, "poolIdleTimeout", 600000L);
+        ReflectionTestUtils.setField(dbConfig, "poolMaxLifetime", 1800000L);
+        ReflectionTestUtils.setField(dbConfig, "poolValidationTimeout", 5000L);
+        ReflectionTestUtils.setField(dbConfig, "poolTestQuery", "");
+        ReflectionTestUtils.setField(dbConfig, "mysqlServerPrepStmts", true);
+        ReflectionTestUtils.setField(dbConfig, "mysqlPrepStmtCacheSize", 250);
+        ReflectionTestUtils.setField(dbConfig, "mysqlPrepStmtCacheSqlLimit", 2048);
+        ReflectionTestUtils.setField(dbConfig, "jdbcBatchSize", 50);
+        ReflectionTestUtils.setField(dbConfig, "queryPlanCacheMaxSize", 2048);
+    }
+
+    @Test
+    void hibernateProperties_ByDefault_BatchesAndKeepsSqlOffStdout() {
+        Properties properties = dbConfig.hibernateProperties();
+
+        assertEquals("50", properties.getProperty("hibernate.jdbc.batch_size"));
+        assertEquals("true", properties.getProperty("hibernate.order_inserts"));
+        assertEquals("true", properties.getProperty("hibernate.order_updates"));
+        assertEquals("2048", properties.getProperty("hibernate.query.plan_cache_max_size"));
+        assertEquals("true", properties.getProperty("hibernate.query.in_clause_parameter_padding"));
+        assertFalse(properties.containsKey("hibernate.jdbc.fetch_size"));
+        assertEquals("false", properties.getProperty("hibernate.show_sql"));
+        assertEquals("false", properties.getProperty("hibernate.format_sql"));
+        assertEquals("false", properties.getProperty("hibernate.generate_statistics"));
+    }
+
+    @Test
+    void hibernateProperties_UsesEntityCacheManagerAndFailsOnUnknownRegions() {
+        Properties properties = dbConfig.hibernateProperties();
+
+        assertEquals("true", properties.getProperty("hibernate.cache.use_second_level_cache"));
+        assertEquals("jcache", properties.getProperty("hibernate.cache.region.factory_class"));
+        assertSame(entityCacheManager, properties.get("hibernate.javax.cache.cache_manager"));
+        assertEquals("fail", properties.getProperty("hibernate.javax.cache.missing_cache_strategy"));
+        assertEquals("read-write", properties.getProperty("hibernate.cache.default_cache_concurrency_strategy"));
+    }
+
+    @Test
+    void hibernateProperties_WithSqlDebugProfile_PrintsFormattedSqlAndStatistics() {
+        environment.setActiveProfiles(DBConfig.SQL_DEBUG_PROFILE);
+        ReflectionTestUtils.setField(dbConfig, "jdbcFetchSize", 100);
+
+        Properties properties = dbConfig.hibernateProperties();
+
+        assertEquals("true", properties.getProperty("hibernate.show_sql"));
+        assertEquals("true", properties.getProperty("hibernate.format_sql"));
+        assertEquals("true", properties.getProperty("hibernate.use_sql_comments"));
+        assertEquals("true", properties.getProperty("hibernate.generate_statistics"));
+        assertEquals("100", properties.getProperty("hibernate.jdbc.fetch_size"));
+        assertEquals("50", properties.getProperty("hibernate.jdbc.batch_size"));
+    }
+
+    @Test
+    void poolConfig_ForMySql_CachesServerPreparedStatementsAndRewritesBatches() {
+        Properties driver = dbConfig.poolConfig("primary", "jdbc:mysql://localhost:3306/cards", "user", "password").getDataSourceProperties();
+
+        assertEquals("true", driver.getProperty("rewriteBatchedStatements"));
+        assertEquals("true", driver.getProperty("useServerPrepStmts"));
+        assertEquals("true", driver.getProperty("cachePrepStmts"));
+        assertEquals("250", driver.getProperty("prepStmtCacheSize"));
+        assertEquals("2048", driver.getProperty("prepStmtCacheSqlLimit"));
+    }
+
+    @Test
+    void poolConfig_ForOtherDrivers_AddsNoMySqlOptions() {
+        HikariConfig config = dbConfig.poolConfig("primary", "jdbc:h2:mem:cards", "user", "password");
+
+        assertTrue(config.getDataSourceProperties().isEmpty());
+    }
+}
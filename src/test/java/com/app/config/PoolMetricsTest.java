@@ -0,0 +1,58 @@
+package com.app.config;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.app.dto.PoolStatsDTO;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+class PoolMetricsTest {
+
+    private static PoolStats fixedStats(int active, int idle, int pending) {
+        return new PoolStats(0) {
+            @Override
+            protected void update() {
+                activeConnections = active;
+                idleConnections = idle;
+                totalConnections = active + idle;
+                pendingThreads = pending;
+                maxConnections = 20;
+            }
+        };
+    }
+
+    @Test
+    void getStats_WithoutPools_ReturnsEmptyList() {
+        assertTrue(new PoolMetrics().getStats().isEmpty());
+    }
+
+    @Test
+    void getStats_ReportsConnectionCountsAndWaitTimes() {
+        PoolMetrics poolMetrics = new PoolMetrics();
+        IMetricsTracker tracker = poolMetrics.create("primary", fixedStats(3, 2, 1));
+
+        tracker.recordConnectionAcquiredNanos(TimeUnit.MILLISECONDS.toNanos(2));
+        tracker.recordConnectionAcquiredNanos(TimeUnit.MILLISECONDS.toNanos(6));
+        tracker.recordConnectionTimeout();
+
+        List<PoolStatsDTO> stats = poolMetrics.getStats();
+
+        assertEquals(1, stats.size());
+        PoolStatsDTO primary = stats.get(0);
+        assertEquals("primary", primary.getPoolName());
+        assertEquals(3, primary.getActiveConnections());
+        assertEquals(2, primary.getIdleConnections());
+        assertEquals(5, primary.getTotalConnections());
+        assertEquals(1, primary.getPendingThreads());
+        assertEquals(20, primary.getMaxConnections());
+        assertEquals(2, primary.getAcquireCount());
+        assertEquals(4.0, primary.getAverageWaitMillis(), 0.001);
+        assertEquals(6.0, primary.getMaxWaitMillis(), 0.001);
+        assertEquals(1, primary.getTimeoutCount());
+    }
+}
@@ -0,0 +1,134 @@
+package com.app.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replica;
+
+    private static DataSource h2Node(String name) throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+            statement.execute("DELETE FROM node");
+            statement.execute("INSERT INTO node VALUES ('" + name + "')");
+        }
+        return dataSource;
+    }
+
+    private static String nodeName(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT name FROM node")) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+
+    private ReadWriteRoutingDataSource routing(DataSource replica, String lagQuery) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replica, lagQuery, 5, 0);
+        routing.afterPropertiesSet();
+        return routing;
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = h2Node("primary");
+        replica = h2Node("replica");
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void getConnection_OutsideReadOnlyTransaction_UsesPrimary() throws SQLException {
+        assertEquals("primary", nodeName(routing(replica, "SELECT 0")));
+    }
+
+    @Test
+    void getConnection_InReadOnlyTransaction_UsesReplica() throws SQLException {
+        ReadWriteRoutingDataSource routing = routing(replica, "SELECT 0");
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals("replica", nodeName(routing));
+    }
+
+    @Test
+    void checkReplica_WhenLagExceedsLimit_RoutesReadsToPrimary() throws SQLException {
+        ReadWriteRoutingDataSource routing = routing(replica, "SELECT 60");
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        routing.checkReplica();
+
+        assertFalse(routing.isReplicaAvailable());
+        assertEquals("primary", nodeName(routing));
+    }
+
+    @Test
+    void checkReplica_WhenLagRecovers_RoutesReadsBackToReplica() throws SQLException {
+        JdbcTemplate replicaTemplate = new JdbcTemplate(replica);
+        replicaTemplate.execute("CREATE TABLE IF NOT EXISTS lag (seconds INT)");
+        replicaTemplate.execute("DELETE FROM lag");
+        replicaTemplate.execute("INSERT INTO lag VALUES (60)");
+        ReadWriteRoutingDataSource routing = routing(replica, "SELECT seconds FROM lag");
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        routing.checkReplica();
+        assertFalse(routing.isReplicaAvailable());
+
+        replicaTemplate.execute("UPDATE lag SET seconds = 1");
+        routing.checkReplica();
+
+        assertTrue(routing.isReplicaAvailable());
+        assertEquals("replica", nodeName(routing));
+    }
+
+    @Test
+    void getConnection_WhenReplicaIsDown_FallsBackToPrimary() throws SQLException {
+        JdbcDataSource downReplica = new JdbcDataSource();
+        downReplica.setURL("jdbc:h2:mem:missing;IFEXISTS=TRUE");
+        ReadWriteRoutingDataSource routing = routing(downReplica, "SELECT 0");
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals("primary", nodeName(routing));
+        assertFalse(routing.isReplicaAvailable());
+    }
+
+    @Test
+    void lazyProxy_RoutesSpringReadOnlyTransactionsToReplica() {
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing(replica, "SELECT 0"));
+        TransactionTemplate readOnly = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        readOnly.setReadOnly(true);
+        TransactionTemplate readWrite = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        String readOnlyNode = readOnly.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+        String readWriteNode = readWrite.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+
+        assertEquals("replica", readOnlyNode);
+        assertEquals("primary", readWriteNode);
+    }
+}
@@ -23,8 +23,10 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.core.Authentication;
 import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.BindingResult;
@@ -32,14 +34,23 @@ import org.springframework.validation.FieldError;
 
 import com.app.annotation.ValidateBindingResult;
 import com.app.aspect.ValidationAspect;
+import com.app.dto.BatchCardDTO;
+import com.app.dto.BatchNewCardsDTO;
+import com.app.dto.BatchTransferDTO;
+import com.app.dto.BatchTransferResultDTO;
 import com.app.dto.CardDTO;
+import com.app.dto.CardHistoryDTO;
+import com.app.dto.CardHistoryRequestDTO;
 import com.app.dto.CardNumberDTO;
 import com.app.dto.FilterPageCardDTO;
 import com.app.dto.NewCardDTO;
 import com.app.dto.PaginatedResponse;
 import com.app.dto.TransferBetweenCardsDTO;
+import com.app.dto.TransferResultDTO;
 import com.app.exception.ValidationValueException;
+import com.app.model.Money;
 import com.app.service.CardService;
+import com.app.service.ExportFormat;
 
 @ExtendWith(MockitoExtension.class)
 class CardControllerTest {
@@ -98,6 +109,26 @@ class CardControllerTest {
         verify(cardService, never()).getPaginatedAllCardsAsDto(any());
     }
 
+    @Test
+    void exportCards_ShouldStreamRequestedFormatAsAttachment() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        cardController.exportCards("csv", response);
+
+        assertEquals("text/csv;charset=UTF-8", response.getContentType());
+        assertEquals("attachment; filename=\"cards.csv\"", response.getHeader(HttpHeaders.CONTENT_DISPOSITION));
+        verify(cardService, times(1)).exportCards(ExportFormat.CSV, response.getOutputStream());
+    }
+
+    @Test
+    void exportCards_WithUnknownFormat_ShouldThrowValidationValueException() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThrows(ValidationValueException.class, () -> cardController.exportCards("xml", response));
+
+        verify(cardService, never()).exportCards(any(), any());
+    }
+
     @Test
     void addNewCard_WithValidData_ShouldReturnOkResponse() {
         NewCardDTO newCardDTO = createValidNewCardDTO();
@@ -112,6 +143,34 @@ class CardControllerTest {
         verify(cardService, times(1)).addNewCard(newCardDTO);
     }
 
+    @Test
+    void addNewCards_WithValidData_ShouldReturnAddedCount() {
+        BatchCardDTO card = new BatchCardDTO();
+        card.setCardNumber("1234567812345678");
+        card.setOwnerId(1);
+        card.setValidityPeriod(LocalDate.now().plusYears(1));
+        BatchNewCardsDTO batch = new BatchNewCardsDTO();
+        batch.setCards(List.of(card));
+        BindingResult bindingResult = new BeanPropertyBindingResult(batch, "batch");
+        when(cardService.addNewCards(batch)).thenReturn(1);
+
+        ResponseEntity<?> response = proxiedController.addNewCards(batch, bindingResult);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("Cards added: 1", response.getBody());
+    }
+
+    @Test
+    void addNewCards_WithBindingErrors_ShouldNotCallService() {
+        BatchNewCardsDTO batch = new BatchNewCardsDTO();
+        BindingResult bindingResult = new BeanPropertyBindingResult(batch, "batch");
+        bindingResult.addError(new FieldError("batch", "cards", "must not be empty"));
+
+        assertThrows(ValidationValueException.class, () -> proxiedController.addNewCards(batch, bindingResult));
+
+        verify(cardService, never()).addNewCards(any());
+    }
+
     @Test
     void blockCard_WithValidCardNumber_ShouldReturnOkResponse() {
         CardNumberDTO cardNumberDTO = createValidCardNumberDTO();
@@ -186,7 +245,7 @@ class CardControllerTest {
 
         when(authentication.getName()).thenReturn("testuser");
 
-        ResponseEntity<?> response = proxiedController.showFullNumberCards(authentication, filters);
+        ResponseEntity<?> response = proxiedController.showFullNumberCards(authentication, filters, new BeanPropertyBindingResult(filters, "filters"));
 
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -205,21 +264,35 @@ class CardControllerTest {
         Mockito.doAnswer(invocation -> {
             Authentication auth = invocation.getArgument(0);
             auth.getName();
-            return null;
-        }).when(cardService).transferBetweenCards(any(), any());
+            return true;
+        }).when(cardService).transferBetweenCards(any(), any(), any());
 
         when(authentication.getName()).thenReturn("testuser");
 
-        ResponseEntity<?> response = proxiedController.transferCards(authentication, transferDTO, bindingResult);
+        ResponseEntity<?> response = proxiedController.transferCards(authentication, transferDTO, bindingResult, null);
 
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("Transfer between cards completed successfully", response.getBody());
+        assertEquals("false", response.getHeaders().getFirst(CardController.IDEMPOTENT_REPLAYED_HEADER));
         
-        verify(cardService, times(1)).transferBetweenCards(authentication, transferDTO);
+        verify(cardService, times(1)).transferBetweenCards(authentication, transferDTO, null);
         verify(authentication, times(1)).getName();
     }
 
+    @Test
+    void transferCards_WithCompletedIdempotencyKey_ShouldReturnReplayedResponse() {
+        TransferBetweenCardsDTO transferDTO = createValidTransferDTO();
+        BindingResult bindingResult = new BeanPropertyBindingResult(transferDTO, "transfer");
+        when(cardService.transferBetweenCards(authentication, transferDTO, "retry-1")).thenReturn(false);
+
+        ResponseEntity<?> response = proxiedController.transferCards(authentication, transferDTO, bindingResult, "retry-1");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("Transfer between cards completed successfully", response.getBody());
+        assertEquals("true", response.getHeaders().getFirst(CardController.IDEMPOTENT_REPLAYED_HEADER));
+    }
+
     @Test
     void transferCards_WithValidationErrors_ShouldThrowValidationValueException() {
         TransferBetweenCardsDTO transferDTO = new TransferBetweenCardsDTO();
@@ -228,13 +301,92 @@ class CardControllerTest {
 
         ValidationValueException exception = assertThrows(
             ValidationValueException.class,
-            () -> proxiedController.transferCards(authentication, transferDTO, bindingResult)
+            () -> proxiedController.transferCards(authentication, transferDTO, bindingResult, null)
         );
 
         assertNotNull(exception.getValidationErrors());
         assertTrue(exception.getValidationErrors().containsKey("firstCardNumber"));
         
-        verify(cardService, never()).transferBetweenCards(any(), any());
+        verify(cardService, never()).transferBetweenCards(any(), any(), any());
+    }
+
+    @Test
+    void transferBatch_AllApplied_ShouldReturnOk() {
+        BatchTransferDTO batch = new BatchTransferDTO();
+        batch.setTransfers(List.of(createValidTransferDTO()));
+        BindingResult bindingResult = new BeanPropertyBindingResult(batch, "batch");
+        BatchTransferResultDTO result = new BatchTransferResultDTO(BatchTransferDTO.Mode.ALL_OR_NOTHING,
+            List.of(new TransferResultDTO(0, true, null)));
+        when(cardService.transferBatch(authentication, batch)).thenReturn(result);
+
+        ResponseEntity<?> response = proxiedController.transferBatch(authentication, batch, bindingResult);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(result, response.getBody());
+    }
+
+    @Test
+    void transferBatch_AllOrNothingWithFailure_ShouldReturnBadRequest() {
+        BatchTransferDTO batch = new BatchTransferDTO();
+        batch.setTransfers(List.of(createValidTransferDTO()));
+        BindingResult bindingResult = new BeanPropertyBindingResult(batch, "batch");
+        when(cardService.transferBatch(authentication, batch)).thenReturn(new BatchTransferResultDTO(
+            BatchTransferDTO.Mode.ALL_OR_NOTHING, List.of(new TransferResultDTO(0, false, "Not enough balance on the card"))));
+
+        ResponseEntity<?> response = proxiedController.transferBatch(authentication, batch, bindingResult);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void transferBatch_BestEffortWithFailure_ShouldReturnOk() {
+        BatchTransferDTO batch = new BatchTransferDTO();
+        batch.setMode(BatchTransferDTO.Mode.BEST_EFFORT);
+        batch.setTransfers(List.of(createValidTransferDTO(), createValidTransferDTO()));
+        BindingResult bindingResult = new BeanPropertyBindingResult(batch, "batch");
+        when(cardService.transferBatch(authentication, batch)).thenReturn(new BatchTransferResultDTO(
+            BatchTransferDTO.Mode.BEST_EFFORT, List.of(new TransferResultDTO(0, true, null), new TransferResultDTO(1, false, "Not enough balance on the card"))));
+
+        ResponseEntity<?> response = proxiedController.transferBatch(authentication, batch, bindingResult);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+    }
+
+    @Test
+    void transferBatch_WithValidationErrors_ShouldThrowValidationValueException() {
+        BatchTransferDTO batch = new BatchTransferDTO();
+        BindingResult bindingResult = new BeanPropertyBindingResult(batch, "batch");
+        bindingResult.addError(new FieldError("batch", "transfers", "Transfers are required"));
+
+        assertThrows(ValidationValueException.class, () -> proxiedController.transferBatch(authentication, batch, bindingResult));
+        verify(cardService, never()).transferBatch(any(), any());
+    }
+
+    @Test
+    void cardHistory_WithValidRequest_ShouldReturnHistory() {
+        CardHistoryRequestDTO historyRequest = new CardHistoryRequestDTO();
+        historyRequest.setCardNumber("1234567890123456");
+        BindingResult bindingResult = new BeanPropertyBindingResult(historyRequest, "historyRequest");
+
+        CardHistoryDTO expectedResponse = new CardHistoryDTO(List.of(), false);
+        when(cardService.getCardHistory(authentication, historyRequest)).thenReturn(expectedResponse);
+
+        ResponseEntity<?> response = proxiedController.cardHistory(authentication, historyRequest, bindingResult);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(expectedResponse, response.getBody());
+    }
+
+    @Test
+    void cardHistory_WithValidationErrors_ShouldThrowValidationValueException() {
+        CardHistoryRequestDTO historyRequest = new CardHistoryRequestDTO();
+        BindingResult bindingResult = new BeanPropertyBindingResult(historyRequest, "historyRequest");
+        bindingResult.addError(new FieldError("historyRequest", "size", "Size must be at most 100"));
+
+        assertThrows(ValidationValueException.class,
+            () -> proxiedController.cardHistory(authentication, historyRequest, bindingResult));
+
+        verify(cardService, never()).getCardHistory(any(), any());
     }
 
     @Test
@@ -257,7 +409,13 @@ class CardControllerTest {
         assertTrue(CardController.class.getMethod("showCards", Authentication.class, FilterPageCardDTO.class, BindingResult.class)
             .isAnnotationPresent(ValidateBindingResult.class));
         
-        assertTrue(CardController.class.getMethod("transferCards", Authentication.class, TransferBetweenCardsDTO.class, BindingResult.class)
+        assertTrue(CardController.class.getMethod("transferCards", Authentication.class, TransferBetweenCardsDTO.class, BindingResult.class, String.class)
+            .isAnnotationPresent(ValidateBindingResult.class));
+        
+        assertTrue(CardController.class.getMethod("transferBatch", Authentication.class, BatchTransferDTO.class, BindingResult.class)
+            .isAnnotationPresent(ValidateBindingResult.class));
+
+        assertTrue(CardController.class.getMethod("cardHistory", Authentication.class, CardHistoryRequestDTO.class, BindingResult.class)
             .isAnnotationPresent(ValidateBindingResult.class));
     }
 
@@ -271,8 +429,8 @@ class CardControllerTest {
         filters.setCardNumber("1234567890123456");
         filters.setMinEndDate(LocalDate.now().plusYears(1));
         filters.setMaxEndDate(LocalDate.now().plusYears(5));
-        filters.setMinBalance(0.0);
-        filters.setMaxBalance(10000.0);
+        filters.setMinBalance(Money.of("0.0"));
+        filters.setMaxBalance(Money.of("10000.0"));
         return filters;
     }
 
@@ -294,14 +452,14 @@ class CardControllerTest {
         TransferBetweenCardsDTO transferDTO = new TransferBetweenCardsDTO();
         transferDTO.setFirstCardNumber("1234567890123456");
         transferDTO.setSecondCardNumber("9876543210987654");
-        transferDTO.setAmountTransferBetweenCards(100.0);
+        transferDTO.setAmountTransferBetweenCards(Money.of("100.0"));
         return transferDTO;
     }
 
     private PaginatedResponse<CardDTO> createPaginatedResponse() {
         List<CardDTO> content = Arrays.asList(
-            createCardDTO(1, "************3456", 1, LocalDate.now().plusYears(2), 1000.0),
-            createCardDTO(2, "************7890", 1, LocalDate.now().plusYears(3), 2000.0)
+            createCardDTO(1, "************3456", 1, LocalDate.now().plusYears(2), Money.of("1000.0")),
+            createCardDTO(2, "************7890", 1, LocalDate.now().plusYears(3), Money.of("2000.0"))
         );
         
         return new PaginatedResponse<>(
@@ -310,7 +468,7 @@ class CardControllerTest {
     }
 
     private CardDTO createCardDTO(Integer id, String cardNumber, Integer ownerId, 
-                                 LocalDate validityPeriod, double balance) {
+                                 LocalDate validityPeriod, Money balance) {
         CardDTO cardDTO = new CardDTO();
         cardDTO.setId(id);
         cardDTO.setCardNumber(cardNumber);
@@ -0,0 +1,117 @@
+package com.app.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.app.config.EntityCacheMetrics;
+import com.app.config.PoolMetrics;
+import com.app.dto.CacheStatsDTO;
+import com.app.dto.ExistenceFilterStatsDTO;
+import com.app.dto.PoolStatsDTO;
+import com.app.security.CustomUserServiceImpl;
+import com.app.service.CardCountCache;
+import com.app.service.ExistenceFilters;
+
+@ExtendWith(MockitoExtension.class)
+class MetricsControllerTest {
+
+    @Mock
+    private CustomUserServiceImpl customUserService;
+
+    @Mock
+    private PoolMetrics poolMetrics;
+
+    @Mock
+    private CardCountCache cardCountCache;
+
+    @Mock
+    private ExistenceFilters existenceFilters;
+
+    @Mock
+    private EntityCacheMetrics entityCacheMetrics;
+
+    @InjectMocks
+    private MetricsController metricsController;
+
+    @Test
+    void getPrincipalCacheStats_ReturnsStatsFromService() {
+        CacheStatsDTO stats = new CacheStatsDTO();
+        stats.setHitCount(10);
+        when(customUserService.getCacheStats()).thenReturn(stats);
+
+        ResponseEntity<?> response = metricsController.getPrincipalCacheStats();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(stats, response.getBody());
+    }
+
+    @Test
+    void getDbPoolStats_ReturnsStatsFromPoolMetrics() {
+        PoolStatsDTO stats = new PoolStatsDTO();
+        stats.setPoolName("primary");
+        when(poolMetrics.getStats()).thenReturn(List.of(stats));
+
+        ResponseEntity<?> response = metricsController.getDbPoolStats();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(stats), response.getBody());
+    }
+
+    @Test
+    void getCardCountCacheStats_ReturnsStatsFromCache() {
+        CacheStatsDTO stats = new CacheStatsDTO();
+        stats.setMissCount(3);
+        when(cardCountCache.getCacheStats()).thenReturn(stats);
+
+        ResponseEntity<?> response = metricsController.getCardCountCacheStats();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(stats, response.getBody());
+    }
+
+    @Test
+    void getEntityCacheStats_ReturnsStatsOfEveryRegion() {
+        CacheStatsDTO stats = new CacheStatsDTO();
+        stats.setHitCount(7);
+        when(entityCacheMetrics.getStats()).thenReturn(Map.of("users", stats));
+
+        ResponseEntity<?> response = metricsController.getEntityCacheStats();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(Map.of("users", stats), response.getBody());
+    }
+
+    @Test
+    void getExistenceFilterStats_ReturnsStatsOfEveryFilter() {
+        ExistenceFilterStatsDTO stats = new ExistenceFilterStatsDTO();
+        stats.setName("cardNumbers");
+        when(existenceFilters.getStats()).thenReturn(List.of(stats));
+
+        ResponseEntity<?> response = metricsController.getExistenceFilterStats();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(stats), response.getBody());
+    }
+
+    @Test
+    void rebuildExistenceFilters_RebuildsAndReturnsFreshStats() {
+        when(existenceFilters.getStats()).thenReturn(List.of());
+
+        ResponseEntity<?> response = metricsController.rebuildExistenceFilters();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(existenceFilters).rebuild();
+    }
+}
@@ -19,8 +19,10 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
@@ -30,6 +32,7 @@ import com.app.aspect.ValidationAspect;
 import com.app.dto.UserDTO;
 import com.app.dto.UsernameDTO;
 import com.app.exception.ValidationValueException;
+import com.app.service.ExportFormat;
 import com.app.service.UserService;
 
 @ExtendWith(MockitoExtension.class)
@@ -53,6 +56,17 @@ class UserControllerTest {
         proxiedController = factory.getProxy();
     }
 
+    @Test
+    void exportUsers_ShouldStreamNdjsonByDefault() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        userController.exportUsers("ndjson", response);
+
+        assertEquals("application/x-ndjson;charset=UTF-8", response.getContentType());
+        assertEquals("attachment; filename=\"users.ndjson\"", response.getHeader(HttpHeaders.CONTENT_DISPOSITION));
+        verify(userService, times(1)).exportUsers(ExportFormat.NDJSON, response.getOutputStream());
+    }
+
     @Test
     void getAllUsers_ShouldReturnListOfUsers() {
         List<UserDTO> expectedUsers = Arrays.asList(
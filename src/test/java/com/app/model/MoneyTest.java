@@ -0,0 +1,56 @@
+package com.app.model;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void of_DecimalAmount_StoresExactMinorUnits() {
+        assertEquals(29, Money.of("0.29").minorUnits());
+        assertEquals(100000, Money.of("1000").minorUnits());
+        assertEquals(-150, Money.of("-1.5").minorUnits());
+    }
+
+    @Test
+    void of_MoreThanTwoDecimalPlaces_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> Money.of("0.001"));
+    }
+
+    @Test
+    void arithmetic_RepeatedCentOperations_HasNoRoundingDrift() {
+        Money balance = Money.ZERO;
+        for (int i = 0; i < 1000; i++) {
+            balance = balance.plus(Money.of("0.10"));
+        }
+        assertEquals(Money.of("100.00"), balance);
+        assertEquals(Money.ZERO, balance.minus(Money.of("100")));
+    }
+
+    @Test
+    void plus_Overflow_ThrowsException() {
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MAX_VALUE).plus(Money.ofMinor(1)));
+    }
+
+    @Test
+    void compare_OrdersByAmount() {
+        assertTrue(Money.of("9.99").isLessThan(Money.of("10")));
+        assertTrue(Money.of("0.01").isPositive());
+        assertTrue(Money.of("10.00").compareTo(Money.of("10")) == 0);
+    }
+
+    @Test
+    void json_RoundTripsAsDecimalNumber() throws Exception {
+        assertEquals("12.30", objectMapper.writeValueAsString(Money.of("12.3")));
+        assertEquals(Money.of("12.30"), objectMapper.readValue("12.3", Money.class));
+        assertEquals(new BigDecimal("0.07"), objectMapper.readValue("0.07", Money.class).toDecimal());
+    }
+}
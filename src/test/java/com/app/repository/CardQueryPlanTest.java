@@ -0,0 +1,249 @@
+package com.app.repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+import com.app.model.Card;
+import com.app.model.Money;
+import com.app.model.STATUS;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import liquibase.integration.spring.SpringLiquibase;
+
+/**
+ * Runs the SQL that Hibernate generates for the card listings through EXPLAIN on the schema built by the
+ * Liquibase changelog, and fails if the cards table is read without an index condition.
+ */
+@SpringJUnitConfig(CardQueryPlanTest.Config.class)
+class CardQueryPlanTest {
+
+    private static final String OWNER = "Kororok";
+    // the single query all listings used before the filters were built per request
+    private static final String CATCH_ALL_JPQL = "SELECT c FROM Card c JOIN FETCH c.owner u WHERE " +
+        "((:isAdminSearch = false AND u.username = :username) OR " +
+        "(:isAdminSearch = true AND (:username IS NULL OR u.username LIKE CONCAT('%', :username, '%')))) " +
+        "AND (:cardNumber IS NULL OR c.cardNumber LIKE CONCAT('%', :cardNumber, '%')) " +
+        "AND (:status IS NULL OR c.status = :status) " +
+        "AND (:minBalance IS NULL OR c.balance >= :minBalance) " +
+        "AND (:maxBalance IS NULL OR c.balance <= :maxBalance) " +
+        "AND (:minEndDate IS NULL OR c.validityPeriod >= :minEndDate) " +
+        "AND (:maxEndDate IS NULL OR c.validityPeriod <= :maxEndDate) ORDER BY c.id";
+    private static final Pattern CARDS_ACCESS = Pattern.compile("\"PUBLIC\"\\.\"CARDS\" \"\\w+\"\\s*/\\* ([^*]*) \\*/");
+
+    @Autowired
+    private CardRepository cardRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private CapturingStatementInspector statements;
+
+    @BeforeEach
+    void setUp() {
+        statements.clear();
+    }
+
+    @Test
+    void ownerListing_DefaultSort_UsesOwnerIndex() {
+        cardRepo.findCardDtos(owned(null, null, null, null, null), PageRequest.of(0, 10, Sort.by("id")));
+
+        assertCardsReadThroughIndex();
+    }
+
+    @Test
+    void ownerListing_WithFiltersAndSorts_UsesOwnerIndex() {
+        for (CardSortField sortField : CardSortField.values()) {
+            cardRepo.findCardDtos(owned(STATUS.ACTIVE, Money.ZERO, Money.of("1000.00"), LocalDate.now(), LocalDate.now().plusYears(5)),
+                PageRequest.of(2, 10, Sort.by(Sort.Direction.DESC, sortField.getProperty())));
+        }
+
+        assertCardsReadThroughIndex();
+    }
+
+    @Test
+    void ownerListing_SliceAndCount_UseOwnerIndex() {
+        cardRepo.findCardDtoSlice(owned(STATUS.BLOCKED, null, null, null, null), PageRequest.of(0, 10, Sort.by("balance")));
+        cardRepo.findCardDtos(owned(null, null, null, null, null), PageRequest.of(3, 10, Sort.by("id")));
+
+        assertCardsReadThroughIndex();
+    }
+
+    @Test
+    void ownerListing_KeysetPages_UseOwnerIndex() {
+        for (CardSortField sortField : CardSortField.values()) {
+            cardRepo.findCardDtos(owned(null, null, null, null, null), Sort.by(sortField.getProperty(), "id"), Limit.of(11));
+        }
+        cardRepo.findCardDtos(owned(null, null, null, null, null).and(CardSpecifications.after(CardSortField.BALANCE, Sort.Direction.ASC, Money.ZERO, 1)),
+            Sort.by("balance", "id"), Limit.of(11));
+
+        assertCardsReadThroughIndex();
+    }
+
+    @ParameterizedTest
+    @MethodSource("typicalAdminFilters")
+    void adminListing_OnlySetFiltersReachTheQuery_WhereCatchAllQueryScans(STATUS status, Money minBalance, Money maxBalance,
+                                                                           LocalDate minEndDate, LocalDate maxEndDate) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("username", null);
+        parameters.put("cardNumber", null);
+        parameters.put("status", status);
+        parameters.put("minBalance", minBalance);
+        parameters.put("maxBalance", maxBalance);
+        parameters.put("minEndDate", minEndDate);
+        parameters.put("maxEndDate", maxEndDate);
+        parameters.put("isAdminSearch", true);
+        TypedQuery<Card> catchAll = entityManager.createQuery(CATCH_ALL_JPQL, Card.class).setMaxResults(10);
+        parameters.forEach(catchAll::setParameter);
+        catchAll.getResultList();
+        List<String> catchAllPlans = plans();
+        statements.clear();
+
+        cardRepo.findCardDtos(CardSpecifications.matching(null, null, status, minBalance, maxBalance, minEndDate, maxEndDate, true),
+            PageRequest.of(0, 10, Sort.by("id")));
+
+        assertTrue(catchAllPlans.stream().noneMatch(CardQueryPlanTest::readsCardsThroughIndex), () -> String.join("\n", catchAllPlans));
+        assertCardsReadThroughIndex();
+    }
+
+    static Stream<Arguments> typicalAdminFilters() {
+        LocalDate today = LocalDate.now();
+        return Stream.of(
+            Arguments.of(STATUS.ACTIVE, null, null, today, today.plusMonths(1)),
+            Arguments.of(STATUS.BLOCKED, null, null, null, null),
+            Arguments.of(null, Money.of("1000.00"), null, null, null),
+            Arguments.of(null, null, null, null, today.plusDays(30))
+        );
+    }
+
+    private Specification<Card> owned(STATUS status, Money minBalance, Money maxBalance, LocalDate minEndDate, LocalDate maxEndDate) {
+        return CardSpecifications.matching(OWNER, null, status, minBalance, maxBalance, minEndDate, maxEndDate, false);
+    }
+
+    private List<String> plans() {
+        List<String> captured = statements.get();
+        assertFalse(captured.isEmpty());
+        return captured.stream().map(sql -> jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class)).toList();
+    }
+
+    private static boolean readsCardsThroughIndex(String plan) {
+        Matcher access = CARDS_ACCESS.matcher(plan);
+        // an index lookup is printed as "INDEX_NAME: CONDITION", a full scan has no condition
+        return access.find() && access.group(1).contains(":");
+    }
+
+    private void assertCardsReadThroughIndex() {
+        for (String plan : plans()) {
+            assertTrue(readsCardsThroughIndex(plan), () -> "cards is fully scanned by\n" + plan);
+        }
+    }
+
+    static class CapturingStatementInspector implements StatementInspector {
+        private final List<String> statements = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.toLowerCase().contains("cards")) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+
+        List<String> get() {
+            return List.copyOf(statements);
+        }
+
+        void clear() {
+            statements.clear();
+        }
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    @EnableJpaRepositories(basePackages = "com.app.repository")
+    static class Config {
+
+        @Bean
+        public DataSource dataSource() {
+            return new DriverManagerDataSource("jdbc:h2:mem:plans;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        }
+
+        @Bean
+        public SpringLiquibase liquibase() {
+            SpringLiquibase liquibase = new SpringLiquibase();
+            liquibase.setDataSource(dataSource());
+            liquibase.setChangeLog("classpath:db/changelog/db.changelog-master.xml");
+            return liquibase;
+        }
+
+        @Bean
+        public CapturingStatementInspector statementInspector() {
+            return new CapturingStatementInspector();
+        }
+
+        @Bean
+        @DependsOn("liquibase")
+        public LocalContainerEntityManagerFactoryBean entityManagerFactory() {
+            LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
+            em.setDataSource(dataSource());
+            em.setPackagesToScan("com.app.model");
+            em.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+            em.setJpaPropertyMap(Map.of(
+                "hibernate.hbm2ddl.auto", "validate",
+                "jakarta.persistence.validation.mode", "none",
+                "hibernate.session_factory.statement_inspector", statementInspector()));
+            return em;
+        }
+
+        @Bean
+        public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+            return new JpaTransactionManager(entityManagerFactory);
+        }
+
+        @Bean
+        public JdbcTemplate jdbcTemplate() {
+            return new JdbcTemplate(dataSource());
+        }
+    }
+}
@@ -1,11 +1,20 @@
 package com.app.security;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -16,7 +25,9 @@ import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import com.app.dto.CacheStatsDTO;
 import com.app.model.User;
 import com.app.repository.UserRepository;
 
@@ -29,6 +40,21 @@ class CustomUserServiceImplTest {
     @InjectMocks
     private CustomUserServiceImpl customUserService;
 
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(customUserService, "principalCacheSize", 100L);
+        ReflectionTestUtils.setField(customUserService, "principalCacheTtl", 60L);
+        customUserService.init();
+    }
+
+    private User newUser(String username, String role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("encodedPassword");
+        user.setRole(role);
+        return user;
+    }
+
     @Test
     void loadUserByUsername_WhenUserExists_ShouldReturnUserDetails() {
         // Arrange
@@ -107,4 +133,84 @@ class CustomUserServiceImplTest {
         
         verify(userRepository, times(1)).findByUsername("");
     }
-}
\ No newline at end of file
+
+    @Test
+    void loadUserByUsername_RepeatedCalls_ShouldQueryDatabaseOnce() {
+        // Arrange
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(newUser("testuser", "ROLE_USER")));
+
+        // Act
+        UserDetails first = customUserService.loadUserByUsername("testuser");
+        UserDetails second = customUserService.loadUserByUsername("testuser");
+
+        // Assert
+        assertSame(first, second);
+        verify(userRepository, times(1)).findByUsername("testuser");
+        CacheStatsDTO stats = customUserService.getCacheStats();
+        assertEquals(1, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+        assertEquals(1, stats.getSize());
+    }
+
+    @Test
+    void loadUserByUsername_WhenUserNotFound_ShouldNotCacheMiss() {
+        // Arrange
+        when(userRepository.findByUsername("nonexistent")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(UsernameNotFoundException.class, () -> customUserService.loadUserByUsername("nonexistent"));
+        assertThrows(UsernameNotFoundException.class, () -> customUserService.loadUserByUsername("nonexistent"));
+        verify(userRepository, times(2)).findByUsername("nonexistent");
+    }
+
+    @Test
+    void evict_ShouldForceReloadFromDatabase() {
+        // Arrange
+        when(userRepository.findByUsername("testuser"))
+            .thenReturn(Optional.of(newUser("testuser", "ROLE_USER")))
+            .thenReturn(Optional.of(newUser("testuser", "ROLE_ADMIN")));
+        customUserService.loadUserByUsername("testuser");
+
+        // Act
+        customUserService.evict("testuser");
+        UserDetails reloaded = customUserService.loadUserByUsername("testuser");
+
+        // Assert
+        assertTrue(reloaded.getAuthorities().stream()
+            .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN")));
+        verify(userRepository, times(2)).findByUsername("testuser");
+    }
+
+    @Test
+    void loadUserByUsername_ConcurrentMisses_ShouldQueryDatabaseOnce() throws Exception {
+        // Arrange
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(userRepository.findByUsername("testuser")).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(newUser("testuser", "ROLE_USER"));
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            // Act
+            List<Future<CustomUserDetails>> results = new ArrayList<>();
+            results.add(executor.submit(() -> customUserService.loadUserByUsername("testuser")));
+            loading.await(5, TimeUnit.SECONDS);
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> customUserService.loadUserByUsername("testuser")));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            // Assert
+            for (Future<CustomUserDetails> result : results) {
+                assertEquals("testuser", result.get(5, TimeUnit.SECONDS).getUsername());
+            }
+            verify(userRepository, times(1)).findByUsername("testuser");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
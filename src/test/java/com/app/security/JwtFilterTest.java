@@ -1,6 +1,9 @@
 package com.app.security;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
@@ -12,9 +15,16 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import com.app.service.JwtService;
+import com.app.service.JwtVerificationResult;
+import com.app.service.JwtVerificationResult.Failure;
+
+import io.jsonwebtoken.Jwts;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
@@ -41,6 +51,10 @@ class JwtFilterTest {
     @InjectMocks
     private JwtFilter jwtFilter;
 
+    private JwtVerificationResult verified(String username) {
+        return JwtVerificationResult.verified(Jwts.claims().subject(username).build());
+    }
+
     @Test
     void doFilterInternal_WithValidToken_ShouldSetAuthentication() throws Exception {
         // Arrange
@@ -48,8 +62,7 @@ class JwtFilterTest {
         String username = "testuser";
         
         when(jwtService.getTokenFromRequest(request)).thenReturn(token);
-        when(jwtService.validateJwtToken(token)).thenReturn(true);
-        when(jwtService.getUsernameFromToken(token)).thenReturn(username);
+        when(jwtService.verifyToken(token)).thenReturn(verified(username));
         
         CustomUserDetails userDetails = mock(CustomUserDetails.class);
         when(customUserService.loadUserByUsername(username)).thenReturn(userDetails);
@@ -59,8 +72,8 @@ class JwtFilterTest {
 
         // Assert
         verify(jwtService, times(1)).getTokenFromRequest(request);
-        verify(jwtService, times(1)).validateJwtToken(token);
-        verify(jwtService, times(1)).getUsernameFromToken(token);
+        verify(jwtService, times(1)).verifyToken(token);
+        verify(jwtService, never()).getUsernameFromToken(any());
         verify(customUserService, times(1)).loadUserByUsername(username);
         verify(filterChain, times(1)).doFilter(request, response);
         
@@ -68,20 +81,74 @@ class JwtFilterTest {
         SecurityContextHolder.clearContext();
     }
 
+    @Test
+    void doFilterInternal_StatelessWithRoleClaims_ShouldNotLoadUserFromDatabase() throws Exception {
+        // Arrange
+        String token = "valid.jwt.token";
+        ReflectionTestUtils.setField(jwtFilter, "statelessPrincipal", true);
+        JwtVerificationResult verification = JwtVerificationResult.verified(Jwts.claims()
+                .subject("testuser")
+                .add(JwtService.CLAIM_USER_ID, 5)
+                .add(JwtService.CLAIM_ROLE, "ROLE_ADMIN")
+                .build());
+
+        when(jwtService.getTokenFromRequest(request)).thenReturn(token);
+        when(jwtService.verifyToken(token)).thenReturn(verification);
+
+        // Act
+        jwtFilter.doFilterInternal(request, response, filterChain);
+
+        // Assert
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertInstanceOf(JwtUserPrincipal.class, authentication.getPrincipal());
+        assertEquals(5, ((JwtUserPrincipal) authentication.getPrincipal()).id());
+        assertEquals("testuser", authentication.getName());
+        assertTrue(authentication.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        verify(customUserService, never()).loadUserByUsername(any());
+        verify(filterChain, times(1)).doFilter(request, response);
+
+        // Clean up security context
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilterInternal_StatelessWithoutRoleClaims_ShouldFallBackToDatabase() throws Exception {
+        // Arrange
+        String token = "legacy.jwt.token";
+        String username = "testuser";
+        ReflectionTestUtils.setField(jwtFilter, "statelessPrincipal", true);
+
+        when(jwtService.getTokenFromRequest(request)).thenReturn(token);
+        when(jwtService.verifyToken(token)).thenReturn(verified(username));
+
+        CustomUserDetails userDetails = mock(CustomUserDetails.class);
+        when(customUserService.loadUserByUsername(username)).thenReturn(userDetails);
+
+        // Act
+        jwtFilter.doFilterInternal(request, response, filterChain);
+
+        // Assert
+        verify(customUserService, times(1)).loadUserByUsername(username);
+        verify(filterChain, times(1)).doFilter(request, response);
+
+        // Clean up security context
+        SecurityContextHolder.clearContext();
+    }
+
     @Test
     void doFilterInternal_WithInvalidToken_ShouldNotSetAuthentication() throws Exception {
         // Arrange
         String token = "invalid.jwt.token";
         
         when(jwtService.getTokenFromRequest(request)).thenReturn(token);
-        when(jwtService.validateJwtToken(token)).thenReturn(false);
+        when(jwtService.verifyToken(token)).thenReturn(JwtVerificationResult.failed(Failure.MALFORMED));
 
         // Act
         jwtFilter.doFilterInternal(request, response, filterChain);
 
         // Assert
         verify(jwtService, times(1)).getTokenFromRequest(request);
-        verify(jwtService, times(1)).validateJwtToken(token);
+        verify(jwtService, times(1)).verifyToken(token);
         verify(jwtService, never()).getUsernameFromToken(any());
         verify(customUserService, never()).loadUserByUsername(any());
         verify(filterChain, times(1)).doFilter(request, response);
@@ -99,7 +166,7 @@ class JwtFilterTest {
 
         // Assert
         verify(jwtService, times(1)).getTokenFromRequest(request);
-        verify(jwtService, never()).validateJwtToken(any());
+        verify(jwtService, never()).verifyToken(any());
         verify(jwtService, never()).getUsernameFromToken(any());
         verify(customUserService, never()).loadUserByUsername(any());
         verify(filterChain, times(1)).doFilter(request, response);
@@ -113,14 +180,14 @@ class JwtFilterTest {
         String token = "expired.jwt.token";
         
         when(jwtService.getTokenFromRequest(request)).thenReturn(token);
-        when(jwtService.validateJwtToken(token)).thenReturn(false);
+        when(jwtService.verifyToken(token)).thenReturn(JwtVerificationResult.failed(Failure.EXPIRED));
 
         // Act
         jwtFilter.doFilterInternal(request, response, filterChain);
 
         // Assert
         verify(jwtService, times(1)).getTokenFromRequest(request);
-        verify(jwtService, times(1)).validateJwtToken(token);
+        verify(jwtService, times(1)).verifyToken(token);
         verify(jwtService, never()).getUsernameFromToken(any());
         verify(customUserService, never()).loadUserByUsername(any());
         verify(filterChain, times(1)).doFilter(request, response);
@@ -133,8 +200,7 @@ class JwtFilterTest {
         String username = "testuser";
         
         when(jwtService.getTokenFromRequest(request)).thenReturn(token);
-        when(jwtService.validateJwtToken(token)).thenReturn(true);
-        when(jwtService.getUsernameFromToken(token)).thenReturn(username);
+        when(jwtService.verifyToken(token)).thenReturn(verified(username));
         
         CustomUserDetails userDetails = mock(CustomUserDetails.class);
         when(customUserService.loadUserByUsername(username)).thenReturn(userDetails);
@@ -0,0 +1,50 @@
+package com.app.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import com.app.service.JwtService;
+
+import io.jsonwebtoken.Jwts;
+
+class JwtUserPrincipalTest {
+
+    @Test
+    void fromClaims_WithIdAndRole_BuildsPrincipal() {
+        JwtUserPrincipal principal = JwtUserPrincipal.fromClaims(Jwts.claims()
+                .subject("testuser")
+                .add(JwtService.CLAIM_USER_ID, 3)
+                .add(JwtService.CLAIM_ROLE, "ROLE_USER")
+                .build());
+
+        assertNotNull(principal);
+        assertEquals(3, principal.id());
+        assertEquals("testuser", principal.getUsername());
+        assertNull(principal.getPassword());
+        assertTrue(principal.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+
+    @Test
+    void fromClaims_WithoutRole_ReturnsNull() {
+        JwtUserPrincipal principal = JwtUserPrincipal.fromClaims(Jwts.claims()
+                .subject("testuser")
+                .add(JwtService.CLAIM_USER_ID, 3)
+                .build());
+
+        assertNull(principal);
+    }
+
+    @Test
+    void fromClaims_WithoutUserId_ReturnsNull() {
+        JwtUserPrincipal principal = JwtUserPrincipal.fromClaims(Jwts.claims()
+                .subject("testuser")
+                .add(JwtService.CLAIM_ROLE, "ROLE_USER")
+                .build());
+
+        assertNull(principal);
+    }
+}
@@ -0,0 +1,143 @@
+package com.app.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import com.app.dto.BatchTransferDTO;
+import com.app.dto.BatchTransferResultDTO;
+import com.app.dto.TransferBetweenCardsDTO;
+import com.app.model.Card;
+import com.app.model.Money;
+import com.app.model.STATUS;
+import com.app.model.User;
+import com.app.repository.CardRepository;
+import com.app.repository.CardTransactionRepository;
+import com.app.repository.UserRepository;
+import com.app.security.JwtUserPrincipal;
+
+@SpringJUnitConfig(CardH2TestConfig.class)
+class CardBatchTransferIntegrationTest {
+
+    private static final int CARDS = 10;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private CardRepository cardRepo;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private CardTransactionRepository cardTransactionRepo;
+
+    private Authentication authentication;
+    private List<String> cardNumbers;
+
+    @BeforeEach
+    void setUp() {
+        cardTransactionRepo.deleteAllInBatch();
+        cardRepo.deleteAll();
+        userRepo.deleteAll();
+
+        User user = new User();
+        user.setUsername("payroll");
+        user.setPassword("password");
+        user.setRole("ROLE_USER");
+        user = userRepo.save(user);
+
+        cardNumbers = new ArrayList<>();
+        for (int i = 0; i < CARDS; i++) {
+            Card card = new Card();
+            card.setCardNumber(String.format("70000000000000%02d", i));
+            card.setOwnerId(user.getId());
+            card.setValidityPeriod(LocalDate.now().plusYears(3));
+            card.setStatus(STATUS.ACTIVE);
+            card.setBalance(Money.of("100.00"));
+            cardRepo.save(card);
+            cardNumbers.add(card.getCardNumber());
+        }
+
+        JwtUserPrincipal principal = new JwtUserPrincipal(user.getId(), user.getUsername(), user.getRole());
+        authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+
+    @Test
+    void transferBatch_ManyPairs_AppliesEveryTransferAndLedgerEntry() {
+        List<TransferBetweenCardsDTO> transfers = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            transfers.add(transfer(cardNumbers.get(i % CARDS), cardNumbers.get((i + 1) % CARDS), "1.00"));
+        }
+
+        BatchTransferResultDTO result = cardService.transferBatch(authentication, batch(BatchTransferDTO.Mode.ALL_OR_NOTHING, transfers));
+
+        assertTrue(result.isApplied());
+        assertEquals(500, result.getSucceeded());
+        // every card sends and receives the same amount in a ring
+        for (String cardNumber : cardNumbers) {
+            assertEquals(Money.of("100.00"), balanceOf(cardNumber));
+        }
+        assertEquals(1000, cardTransactionRepo.count());
+    }
+
+    @Test
+    void transferBatch_AllOrNothingWithFailure_LeavesBalancesUntouched() {
+        BatchTransferResultDTO result = cardService.transferBatch(authentication, batch(BatchTransferDTO.Mode.ALL_OR_NOTHING, List.of(
+            transfer(cardNumbers.get(0), cardNumbers.get(1), "60.00"),
+            transfer(cardNumbers.get(0), cardNumbers.get(2), "60.00"))));
+
+        assertFalse(result.isApplied());
+        assertEquals(2, result.getFailed());
+        assertEquals(Money.of("100.00"), balanceOf(cardNumbers.get(0)));
+        assertEquals(0, cardTransactionRepo.count());
+    }
+
+    @Test
+    void transferBatch_BestEffortWithFailure_AppliesTheRest() {
+        BatchTransferResultDTO result = cardService.transferBatch(authentication, batch(BatchTransferDTO.Mode.BEST_EFFORT, List.of(
+            transfer(cardNumbers.get(0), cardNumbers.get(1), "60.00"),
+            transfer(cardNumbers.get(0), cardNumbers.get(2), "60.00"),
+            transfer(cardNumbers.get(3), "7999999999999999", "1.00"),
+            transfer(cardNumbers.get(1), cardNumbers.get(2), "160.00"))));
+
+        assertTrue(result.isApplied());
+        assertEquals(2, result.getSucceeded());
+        assertFalse(result.getResults().get(1).isSuccess());
+        assertFalse(result.getResults().get(2).isSuccess());
+        assertEquals(Money.of("40.00"), balanceOf(cardNumbers.get(0)));
+        assertEquals(Money.of("0.00"), balanceOf(cardNumbers.get(1)));
+        assertEquals(Money.of("260.00"), balanceOf(cardNumbers.get(2)));
+        assertEquals(4, cardTransactionRepo.count());
+    }
+
+    private TransferBetweenCardsDTO transfer(String from, String to, String amount) {
+        TransferBetweenCardsDTO transfer = new TransferBetweenCardsDTO();
+        transfer.setFirstCardNumber(from);
+        transfer.setSecondCardNumber(to);
+        transfer.setAmountTransferBetweenCards(Money.of(amount));
+        return transfer;
+    }
+
+    private BatchTransferDTO batch(BatchTransferDTO.Mode mode, List<TransferBetweenCardsDTO> transfers) {
+        BatchTransferDTO batch = new BatchTransferDTO();
+        batch.setMode(mode);
+        batch.setTransfers(transfers);
+        return batch;
+    }
+
+    private Money balanceOf(String cardNumber) {
+        return cardRepo.findByCardNumber(cardNumber).orElseThrow().getBalance();
+    }
+}
@@ -0,0 +1,158 @@
+package com.app.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import com.app.dto.BatchCardDTO;
+import com.app.dto.BatchNewCardsDTO;
+import com.app.dto.CardDTO;
+import com.app.dto.FilterPageCardDTO;
+import com.app.exception.ValidationValueException;
+import com.app.model.Card;
+import com.app.model.Money;
+import com.app.model.STATUS;
+import com.app.model.User;
+import com.app.repository.CardRepository;
+import com.app.repository.CardTransactionRepository;
+import com.app.repository.UserRepository;
+
+@SpringJUnitConfig(CardH2TestConfig.class)
+class CardBulkIssueIntegrationTest {
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private CardRepository cardRepo;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private CardTransactionRepository cardTransactionRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ExistenceFilters existenceFilters;
+
+    private User alice;
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM card_number_suffixes");
+        jdbcTemplate.update("DELETE FROM username_suffixes");
+        cardTransactionRepo.deleteAllInBatch();
+        cardRepo.deleteAll();
+        userRepo.deleteAll();
+
+        alice = newUser("alice");
+        bob = newUser("bob");
+    }
+
+    @Test
+    void addNewCards_InsertsEveryCardWithIdAndSearchSuffixes() {
+        // more than one insert chunk
+        List<BatchCardDTO> rows = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            rows.add(row(String.format("4000%012d", i), i % 2 == 0 ? alice : bob));
+        }
+
+        int added = cardService.addNewCards(batch(rows));
+
+        assertEquals(2500, added);
+        assertEquals(2500, cardRepo.count());
+        Card card = cardRepo.findByCardNumber("4000000000001234").get();
+        assertEquals(alice.getId(), card.getOwnerId());
+        assertEquals(STATUS.ACTIVE, card.getStatus());
+        assertEquals(Money.ZERO, card.getBalance());
+        assertEquals(0L, card.getVersion());
+        Integer suffixes = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM card_number_suffixes WHERE card_id = ?", Integer.class, card.getId());
+        assertEquals(16, suffixes);
+        assertEquals(2500 * 16, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM card_number_suffixes", Integer.class));
+        assertTrue(existenceFilters.cardNumbers().exists("4000000000002499", cardRepo::existsByCardNumber));
+    }
+
+    @Test
+    void addNewCards_CardsAreFoundBySubstringSearch() {
+        cardService.addNewCards(batch(List.of(row("1111222233334444", alice), row("5555666677778888", bob))));
+
+        FilterPageCardDTO filters = new FilterPageCardDTO();
+        filters.setSortBy("id");
+        filters.setDirectionSort("asc");
+        filters.setSize(10);
+        filters.setCardNumber("6677");
+        List<CardDTO> cards = cardService.getPaginatedAllCardsAsDto(filters).getContent();
+
+        assertEquals(1, cards.size());
+        assertEquals(bob.getId(), cards.get(0).getOwnerId());
+    }
+
+    @Test
+    void addNewCards_WithInvalidRows_AddsNothingAndReportsEachRow() {
+        cardService.addNewCards(batch(List.of(row("1111222233334444", alice))));
+        BatchNewCardsDTO batch = batch(List.of(
+            row("5555666677778888", alice),
+            row("1111222233334444", bob),
+            row("9999000011112222", alice),
+            row("9999000011112222", bob),
+            row("4444333322221111", alice)));
+        batch.getCards().get(4).setOwnerId(alice.getId() + bob.getId() + 100);
+
+        ValidationValueException exception = assertThrows(ValidationValueException.class, () -> cardService.addNewCards(batch));
+
+        assertEquals(Map.of(
+            "cards[1].cardNumber", "Card with specified number exist already",
+            "cards[3].cardNumber", "Card number is repeated in the batch",
+            "cards[4].ownerId", "Specified id does not match any user"), exception.getValidationErrors());
+        assertEquals(1, cardRepo.count());
+    }
+
+    @Test
+    void addNewCards_NumberInsertedBehindTheFilter_ReportsTheRowAndAddsNothing() {
+        // inserted without the service, so the existence filter has not seen the number
+        jdbcTemplate.update("INSERT INTO cards (card_number, owner_id, validity_period, status, balance, version) VALUES (?, ?, ?, 'ACTIVE', 0, 0)",
+            "7777000011110001", bob.getId(), LocalDate.now().plusYears(1));
+        BatchNewCardsDTO batch = batch(List.of(row("7777000011110002", alice), row("7777000011110001", alice)));
+
+        ValidationValueException exception = assertThrows(ValidationValueException.class, () -> cardService.addNewCards(batch));
+
+        assertEquals(Map.of("cards[1].cardNumber", "Card with specified number exist already"), exception.getValidationErrors());
+        assertEquals(1, cardRepo.count());
+    }
+
+    private BatchNewCardsDTO batch(List<BatchCardDTO> rows) {
+        BatchNewCardsDTO batch = new BatchNewCardsDTO();
+        batch.setCards(rows);
+        return batch;
+    }
+
+    private BatchCardDTO row(String cardNumber, User owner) {
+        BatchCardDTO row = new BatchCardDTO();
+        row.setCardNumber(cardNumber);
+        row.setOwnerId(owner.getId());
+        row.setValidityPeriod(LocalDate.now().plusYears(1));
+        return row;
+    }
+
+    private User newUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("password");
+        user.setRole("ROLE_USER");
+        return userRepo.save(user);
+    }
+}
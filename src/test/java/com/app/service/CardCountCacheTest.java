@@ -0,0 +1,46 @@
+package com.app.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.app.model.STATUS;
+
+class CardCountCacheTest {
+
+    private CardCountCache cardCountCache;
+
+    @BeforeEach
+    void setUp() {
+        cardCountCache = new CardCountCache();
+        ReflectionTestUtils.setField(cardCountCache, "cacheSize", 100L);
+        ReflectionTestUtils.setField(cardCountCache, "cacheTtl", 60L);
+        cardCountCache.init();
+    }
+
+    @Test
+    void get_SameFilter_CountsOnce() {
+        AtomicInteger counted = new AtomicInteger();
+        CardCountCache.Key key = new CardCountCache.Key("user", null, STATUS.ACTIVE, null, null, null, null, false);
+
+        assertEquals(5, cardCountCache.get(key, () -> { counted.incrementAndGet(); return 5L; }));
+        assertEquals(5, cardCountCache.get(new CardCountCache.Key("user", null, STATUS.ACTIVE, null, null, null, null, false),
+            () -> { counted.incrementAndGet(); return 7L; }));
+
+        assertEquals(1, counted.get());
+        assertEquals(1, cardCountCache.getCacheStats().getHitCount());
+    }
+
+    @Test
+    void get_DifferentFilter_CountsAgain() {
+        AtomicInteger counted = new AtomicInteger();
+
+        cardCountCache.get(new CardCountCache.Key("user", null, STATUS.ACTIVE, null, null, null, null, false), () -> { counted.incrementAndGet(); return 5L; });
+        cardCountCache.get(new CardCountCache.Key("user", null, STATUS.BLOCKED, null, null, null, null, false), () -> { counted.incrementAndGet(); return 2L; });
+
+        assertEquals(2, counted.get());
+    }
+}
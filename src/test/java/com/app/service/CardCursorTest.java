@@ -0,0 +1,96 @@
+package com.app.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import com.app.dto.CardDTO;
+import com.app.exception.ValidationValueException;
+import com.app.model.Money;
+import com.app.model.STATUS;
+import com.app.repository.CardSortField;
+
+class CardCursorTest {
+
+    private final CardCursorCipher cipher = new CardCursorCipher("Y3Vyc29yLXRlc3Qtc2VjcmV0");
+
+    @Test
+    void decode_EncodedCursor_RestoresTypedSortValue() {
+        CardDTO card = new CardDTO(42, "1234567890123456", 7, LocalDate.of(2030, 1, 31), STATUS.BLOCKED, Money.of("12.34"));
+
+        assertRoundTrip(card, CardSortField.ID, 42);
+        assertRoundTrip(card, CardSortField.CARD_NUMBER, "1234567890123456");
+        assertRoundTrip(card, CardSortField.OWNER_ID, 7);
+        assertRoundTrip(card, CardSortField.VALIDITY_PERIOD, LocalDate.of(2030, 1, 31));
+        assertRoundTrip(card, CardSortField.STATUS, STATUS.BLOCKED);
+        assertRoundTrip(card, CardSortField.BALANCE, Money.of("12.34"));
+    }
+
+    @Test
+    void encode_CardNumberSort_SealsNumber() {
+        CardDTO card = new CardDTO(42, "1234567890123456", 7, LocalDate.of(2030, 1, 31), STATUS.ACTIVE, Money.ZERO);
+
+        String token = CardCursor.after(card, CardSortField.CARD_NUMBER, Sort.Direction.ASC).encode(cipher);
+
+        String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        assertFalse(decoded.contains("1234"), decoded);
+        assertEquals("1234567890123456", CardCursor.decode(token, CardSortField.CARD_NUMBER, Sort.Direction.ASC, cipher).sortValue());
+    }
+
+    @Test
+    void decode_CardNumberSortWithNumberInToken_ThrowsException() {
+        String token = Base64.getUrlEncoder().withoutPadding()
+            .encodeToString("CARD_NUMBER:ASC:42:1234567890123456".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(ValidationValueException.class, () -> CardCursor.decode(token, CardSortField.CARD_NUMBER, Sort.Direction.ASC, cipher));
+    }
+
+    @Test
+    void decode_CardNumberSortWithChangedId_ThrowsException() {
+        CardDTO card = new CardDTO(42, "1234567890123456", 7, LocalDate.of(2030, 1, 31), STATUS.ACTIVE, Money.ZERO);
+        String token = CardCursor.after(card, CardSortField.CARD_NUMBER, Sort.Direction.ASC).encode(cipher);
+        String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        String tampered = Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(decoded.replace(":42:", ":43:").getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(ValidationValueException.class, () -> CardCursor.decode(tampered, CardSortField.CARD_NUMBER, Sort.Direction.ASC, cipher));
+    }
+
+    @Test
+    void decode_CardNumberSortSealedWithAnotherKey_ThrowsException() {
+        CardDTO card = new CardDTO(42, "1234567890123456", 7, LocalDate.of(2030, 1, 31), STATUS.ACTIVE, Money.ZERO);
+        String token = CardCursor.after(card, CardSortField.CARD_NUMBER, Sort.Direction.ASC).encode(new CardCursorCipher(""));
+
+        assertThrows(ValidationValueException.class, () -> CardCursor.decode(token, CardSortField.CARD_NUMBER, Sort.Direction.ASC, cipher));
+    }
+
+    @Test
+    void decode_DifferentSort_ThrowsException() {
+        CardDTO card = new CardDTO(1, "1234567890123456", 7, LocalDate.of(2030, 1, 31), STATUS.ACTIVE, Money.ZERO);
+        String token = CardCursor.after(card, CardSortField.BALANCE, Sort.Direction.ASC).encode(cipher);
+
+        assertThrows(ValidationValueException.class, () -> CardCursor.decode(token, CardSortField.BALANCE, Sort.Direction.DESC, cipher));
+        assertThrows(ValidationValueException.class, () -> CardCursor.decode(token, CardSortField.ID, Sort.Direction.ASC, cipher));
+    }
+
+    @Test
+    void decode_MalformedToken_ThrowsException() {
+        assertThrows(ValidationValueException.class, () -> CardCursor.decode("not a cursor!", CardSortField.ID, Sort.Direction.ASC, cipher));
+        assertThrows(ValidationValueException.class, () -> CardCursor.decode("SUQ6QVND", CardSortField.ID, Sort.Direction.ASC, cipher));
+    }
+
+    private void assertRoundTrip(CardDTO card, CardSortField sortField, Object expectedValue) {
+        String token = CardCursor.after(card, sortField, Sort.Direction.DESC).encode(cipher);
+
+        CardCursor cursor = CardCursor.decode(token, sortField, Sort.Direction.DESC, cipher);
+
+        assertEquals(42, cursor.id());
+        assertEquals(expectedValue, cursor.sortValue());
+    }
+}
@@ -0,0 +1,174 @@
+package com.app.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.dto.UserDTO;
+import com.app.model.Card;
+import com.app.model.Money;
+import com.app.model.STATUS;
+import com.app.model.User;
+import com.app.repository.CardRepository;
+import com.app.repository.CardTransactionRepository;
+import com.app.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+@SpringJUnitConfig(CardH2TestConfig.class)
+@TestPropertySource(properties = "existence.filter.add.window=0")
+class CardExportIntegrationTest {
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private CardRepository cardRepo;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private CardTransactionRepository cardTransactionRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ExistenceFilters existenceFilters;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private User alice;
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM card_number_suffixes");
+        jdbcTemplate.update("DELETE FROM username_suffixes");
+        cardTransactionRepo.deleteAllInBatch();
+        cardRepo.deleteAll();
+        userRepo.deleteAll();
+
+        alice = newUser("alice");
+        bob = newUser("bob");
+        newCard("1111222233334444", alice, STATUS.ACTIVE, Money.of("100.50"));
+        newCard("5555666677778888", bob, STATUS.BLOCKED, Money.ZERO);
+        newCard("9999000011112222", alice, STATUS.ACTIVE, Money.of("0.07"));
+    }
+
+    @Test
+    void exportCards_Ndjson_WritesOneMaskedCardPerLineInIdOrder() throws IOException {
+        List<String> lines = export(ExportFormat.NDJSON);
+
+        assertEquals(3, lines.size());
+        List<JsonNode> cards = new ArrayList<>();
+        for (String line : lines) {
+            cards.add(objectMapper.readTree(line));
+        }
+        assertEquals("************4444", cards.get(0).get("cardNumber").asText());
+        assertEquals("************8888", cards.get(1).get("cardNumber").asText());
+        assertEquals("************2222", cards.get(2).get("cardNumber").asText());
+        assertEquals(alice.getId().intValue(), cards.get(0).get("ownerId").asInt());
+        assertEquals("BLOCKED", cards.get(1).get("status").asText());
+        assertTrue(lines.get(0).contains("\"balance\":100.50"));
+        assertEquals(LocalDate.now().plusYears(1).toString(), cards.get(0).get("validityPeriod").asText());
+        assertTrue(cards.get(0).get("id").asInt() < cards.get(1).get("id").asInt());
+    }
+
+    @Test
+    void exportCards_Csv_WritesHeaderAndMaskedRows() throws IOException {
+        List<String> lines = export(ExportFormat.CSV);
+
+        Card first = cardRepo.findByCardNumber("1111222233334444").get();
+        assertEquals(4, lines.size());
+        assertEquals("id,cardNumber,ownerId,validityPeriod,status,balance", lines.get(0));
+        assertEquals(first.getId() + ",************4444," + alice.getId() + "," + LocalDate.now().plusYears(1) + ",ACTIVE,100.50", lines.get(1));
+        assertTrue(lines.get(2).endsWith(",BLOCKED,0.00"));
+        assertTrue(lines.get(3).endsWith(",ACTIVE,0.07"));
+    }
+
+    @Test
+    void exportCards_LoadsNoEntitiesIntoPersistenceContext() {
+        int managed = new TransactionTemplate(transactionManager).execute(status -> {
+            try {
+                cardService.exportCards(ExportFormat.NDJSON, new ByteArrayOutputStream());
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return entityManager.unwrap(Session.class).getStatistics().getEntityCount();
+        });
+
+        assertEquals(0, managed);
+    }
+
+    @Test
+    void forEachUserDto_StreamsEveryUserInIdOrder() {
+        List<UserDTO> users = new ArrayList<>();
+
+        userRepo.forEachUserDto(users::add);
+
+        assertEquals(List.of("alice", "bob"), users.stream().map(UserDTO::getUsername).toList());
+        assertEquals(alice.getId(), users.get(0).getId());
+        assertEquals("ROLE_USER", users.get(1).getRole());
+    }
+
+    @Test
+    void existenceFilters_Rebuild_LoadsEveryCardNumberAndUsername() {
+        existenceFilters.rebuild();
+
+        assertTrue(existenceFilters.cardNumbers().exists("5555666677778888", cardRepo::existsByCardNumber));
+        assertTrue(existenceFilters.usernames().exists("alice", userRepo::existsByUsername));
+        assertEquals(3, existenceFilters.cardNumbers().getStats().getInsertions());
+        assertEquals(2, existenceFilters.usernames().getStats().getInsertions());
+    }
+
+    private List<String> export(ExportFormat format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        cardService.exportCards(format, out);
+        return out.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+
+    private void newCard(String cardNumber, User owner, STATUS status, Money balance) {
+        Card card = new Card();
+        card.setCardNumber(cardNumber);
+        card.setOwnerId(owner.getId());
+        card.setValidityPeriod(LocalDate.now().plusYears(1));
+        card.setStatus(status);
+        card.setBalance(balance);
+        cardRepo.save(card);
+    }
+
+    private User newUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("password");
+        user.setRole("ROLE_USER");
+        return userRepo.save(user);
+    }
+}
@@ -0,0 +1,119 @@
+package com.app.service;
+
+import java.util.Properties;
+
+import javax.cache.CacheManager;
+import javax.sql.DataSource;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+import com.app.config.EntityCacheConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@Configuration
+@EnableTransactionManagement
+@EnableJpaRepositories(basePackages = "com.app.repository")
+@Import(EntityCacheConfig.class)
+class CardH2TestConfig {
+    static final int POOL_SIZE = 16;
+
+    // idempotency_keys has no entity, so hbm2ddl does not create it
+    static final String IDEMPOTENCY_KEYS_DDL = "CREATE TABLE IF NOT EXISTS idempotency_keys ("
+        + "user_id INT NOT NULL, idempotency_key VARCHAR(100) NOT NULL, request_hash CHAR(64) NOT NULL, "
+        + "created_at TIMESTAMP(6) NOT NULL, PRIMARY KEY (user_id, idempotency_key))";
+
+    @Bean
+    public DataSource dataSource() {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:cards;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000");
+        config.setMaximumPoolSize(POOL_SIZE);
+        return new HikariDataSource(config);
+    }
+
+    @Bean
+    public LocalContainerEntityManagerFactoryBean entityManagerFactory(CacheManager entityCacheManager) {
+        LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
+        em.setDataSource(dataSource());
+        em.setPackagesToScan("com.app.model");
+        em.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        Properties properties = new Properties();
+        properties.setProperty("hibernate.hbm2ddl.auto", "create-drop");
+        // the suffix entities have no association to map, so the cascading foreign keys of changelog 009 are added after the schema
+        properties.setProperty("hibernate.hbm2ddl.import_files", "/search-suffix-foreign-keys.sql");
+        properties.setProperty("jakarta.persistence.validation.mode", "none");
+        properties.setProperty("hibernate.jdbc.batch_size", "50");
+        properties.setProperty("hibernate.order_updates", "true");
+        properties.setProperty("hibernate.order_inserts", "true");
+        properties.setProperty("hibernate.query.in_clause_parameter_padding", "true");
+        properties.setProperty("hibernate.cache.use_second_level_cache", "true");
+        properties.setProperty("hibernate.cache.region.factory_class", "jcache");
+        properties.put("hibernate.javax.cache.cache_manager", entityCacheManager);
+        properties.setProperty("hibernate.javax.cache.missing_cache_strategy", "fail");
+        properties.setProperty("hibernate.cache.default_cache_concurrency_strategy", "read-write");
+        em.setJpaProperties(properties);
+        return em;
+    }
+
+    @Bean
+    public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new JpaTransactionManager(entityManagerFactory);
+    }
+
+    @Bean
+    public JdbcTemplate jdbcTemplate() {
+        return new JdbcTemplate(dataSource());
+    }
+
+    @Bean
+    public TransactionRetrier transactionRetrier() {
+        return new TransactionRetrier();
+    }
+
+    @Bean
+    public IdempotencyStore idempotencyStore() {
+        jdbcTemplate().execute(IDEMPOTENCY_KEYS_DDL);
+        return new IdempotencyStore();
+    }
+
+    @Bean
+    public CardCountCache cardCountCache() {
+        return new CardCountCache();
+    }
+
+    @Bean
+    public CardCursorCipher cardCursorCipher() {
+        return new CardCursorCipher();
+    }
+
+    @Bean
+    public ExistenceFilters existenceFilters() {
+        return new ExistenceFilters();
+    }
+
+    @Bean
+    public ObjectMapper objectMapper() {
+        return new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    @Bean
+    public CardService cardService() {
+        return new CardService();
+    }
+}
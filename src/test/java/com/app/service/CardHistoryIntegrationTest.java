@@ -0,0 +1,168 @@
+package com.app.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import com.app.dto.CardHistoryDTO;
+import com.app.dto.CardHistoryRequestDTO;
+import com.app.dto.CardTransactionDTO;
+import com.app.dto.TransferBetweenCardsDTO;
+import com.app.exception.NotYourCardException;
+import com.app.model.Card;
+import com.app.model.Money;
+import com.app.model.STATUS;
+import com.app.model.User;
+import com.app.repository.CardRepository;
+import com.app.repository.CardTransactionRepository;
+import com.app.repository.UserRepository;
+import com.app.security.JwtUserPrincipal;
+
+@SpringJUnitConfig(CardH2TestConfig.class)
+class CardHistoryIntegrationTest {
+
+    private static final String FIRST_CARD = "5000000000000001";
+    private static final String SECOND_CARD = "5000000000000002";
+    private static final String FOREIGN_CARD = "5000000000000003";
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private CardRepository cardRepo;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private CardTransactionRepository cardTransactionRepo;
+
+    private Authentication authentication;
+
+    @BeforeEach
+    void setUp() {
+        cardTransactionRepo.deleteAllInBatch();
+        cardRepo.deleteAll();
+        userRepo.deleteAll();
+
+        User owner = newUser("owner");
+        User stranger = newUser("stranger");
+        newCard(FIRST_CARD, owner, Money.of("100.00"));
+        newCard(SECOND_CARD, owner, Money.of("100.00"));
+        newCard(FOREIGN_CARD, stranger, Money.of("100.00"));
+
+        JwtUserPrincipal principal = new JwtUserPrincipal(owner.getId(), owner.getUsername(), owner.getRole());
+        authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+
+    @Test
+    void transfer_WritesDebitAndCreditEntries() {
+        transfer(FIRST_CARD, SECOND_CARD, Money.of("12.34"));
+
+        CardTransactionDTO debit = cardService.getCardHistory(authentication, historyRequest(FIRST_CARD, 10)).getContent().get(0);
+        CardTransactionDTO credit = cardService.getCardHistory(authentication, historyRequest(SECOND_CARD, 10)).getContent().get(0);
+
+        assertEquals(Money.of("-12.34"), debit.getAmount());
+        assertEquals(Money.of("87.66"), debit.getBalanceAfter());
+        assertEquals(Money.of("12.34"), credit.getAmount());
+        assertEquals(Money.of("112.34"), credit.getBalanceAfter());
+        assertEquals("************0002", debit.getCounterpartyCardNumber());
+        assertEquals("************0001", credit.getCounterpartyCardNumber());
+    }
+
+    @Test
+    void getCardHistory_CounterpartyCardDeleted_KeepsEntryWithoutNumber() {
+        transfer(FIRST_CARD, SECOND_CARD, Money.of("1.00"));
+        cardRepo.delete(cardRepo.findByCardNumber(SECOND_CARD).get());
+
+        CardTransactionDTO debit = cardService.getCardHistory(authentication, historyRequest(FIRST_CARD, 10)).getContent().get(0);
+
+        assertEquals(Money.of("-1.00"), debit.getAmount());
+        assertNull(debit.getCounterpartyCardNumber());
+    }
+
+    @Test
+    void getCardHistory_KeysetPages_ReturnEveryEntryOnceNewestFirst() {
+        for (int i = 1; i <= 25; i++) {
+            transfer(FIRST_CARD, SECOND_CARD, Money.ofMinor(i));
+        }
+
+        List<CardTransactionDTO> seen = new ArrayList<>();
+        CardHistoryRequestDTO request = historyRequest(FIRST_CARD, 10);
+        CardHistoryDTO page;
+        int pages = 0;
+        do {
+            page = cardService.getCardHistory(authentication, request);
+            seen.addAll(page.getContent());
+            request.setBeforeCreatedAt(page.getNextBeforeCreatedAt());
+            request.setBeforeId(page.getNextBeforeId());
+            pages++;
+        } while (page.isHasNext());
+
+        assertEquals(3, pages);
+        assertEquals(25, seen.size());
+        assertEquals(25, new HashSet<>(seen.stream().map(CardTransactionDTO::getId).toList()).size());
+        assertEquals(Money.ofMinor(-25), seen.get(0).getAmount());
+        assertEquals(Money.ofMinor(-1), seen.get(24).getAmount());
+        assertNull(page.getNextBeforeId());
+    }
+
+    @Test
+    void getCardHistory_NoTransfers_ReturnsEmptyPage() {
+        CardHistoryDTO page = cardService.getCardHistory(authentication, historyRequest(FIRST_CARD, 10));
+
+        assertTrue(page.getContent().isEmpty());
+        assertFalse(page.isHasNext());
+    }
+
+    @Test
+    void getCardHistory_ForeignCard_ThrowsException() {
+        assertThrows(NotYourCardException.class, () -> cardService.getCardHistory(authentication, historyRequest(FOREIGN_CARD, 10)));
+    }
+
+    private User newUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("password");
+        user.setRole("ROLE_USER");
+        return userRepo.save(user);
+    }
+
+    private void newCard(String cardNumber, User owner, Money balance) {
+        Card card = new Card();
+        card.setCardNumber(cardNumber);
+        card.setOwnerId(owner.getId());
+        card.setValidityPeriod(LocalDate.now().plusYears(3));
+        card.setStatus(STATUS.ACTIVE);
+        card.setBalance(balance);
+        cardRepo.save(card);
+    }
+
+    private void transfer(String from, String to, Money amount) {
+        TransferBetweenCardsDTO transfer = new TransferBetweenCardsDTO();
+        transfer.setFirstCardNumber(from);
+        transfer.setSecondCardNumber(to);
+        transfer.setAmountTransferBetweenCards(amount);
+        cardService.transferBetweenCards(authentication, transfer);
+    }
+
+    private CardHistoryRequestDTO historyRequest(String cardNumber, int size) {
+        CardHistoryRequestDTO request = new CardHistoryRequestDTO();
+        request.setCardNumber(cardNumber);
+        request.setSize(size);
+        return request;
+    }
+}
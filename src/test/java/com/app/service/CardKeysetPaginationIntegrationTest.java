@@ -0,0 +1,252 @@
+package com.app.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.dto.CardDTO;
+import com.app.dto.FilterPageCardDTO;
+import com.app.dto.PaginatedResponse;
+import com.app.model.Card;
+import com.app.model.Money;
+import com.app.model.STATUS;
+import com.app.model.User;
+import com.app.repository.CardRepository;
+import com.app.repository.CardTransactionRepository;
+import com.app.repository.UserRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+@SpringJUnitConfig(CardH2TestConfig.class)
+class CardKeysetPaginationIntegrationTest {
+
+    private static final int CARDS = 37;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private CardRepository cardRepo;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private CardTransactionRepository cardTransactionRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        cardTransactionRepo.deleteAllInBatch();
+        cardRepo.deleteAll();
+        userRepo.deleteAll();
+
+        User alice = newUser("alice");
+        User bob = newUser("bob");
+        // few distinct values per column, so pages break inside runs of equal sort keys
+        for (int i = 0; i < CARDS; i++) {
+            Card card = new Card();
+            card.setCardNumber(String.format("80000000000000%02d", (i * 7) % CARDS));
+            card.setOwnerId(i % 3 == 0 ? bob.getId() : alice.getId());
+            card.setValidityPeriod(LocalDate.now().plusYears(1 + i % 4));
+            card.setStatus(i % 5 == 0 ? STATUS.BLOCKED : STATUS.ACTIVE);
+            card.setBalance(Money.ofMinor(100L * (i % 6)));
+            cardRepo.save(card);
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "id, asc", "id, desc",
+        "card_number, asc", "card_number, desc",
+        "owner_id, asc", "owner_id, desc",
+        "validity_period, asc", "validity_period, desc",
+        "status, asc", "status, desc",
+        "balance, asc", "balance, desc"
+    })
+    void keysetPages_MatchOffsetOrderForEverySortColumn(String sortBy, String direction) {
+        FilterPageCardDTO offsetFilters = filters(sortBy, direction, CARDS);
+        List<Integer> expected = ids(cardService.getPaginatedAllCardsAsDto(offsetFilters).getContent());
+
+        List<Integer> actual = new ArrayList<>();
+        FilterPageCardDTO keysetFilters = filters(sortBy, direction, 5);
+        keysetFilters.setKeyset(true);
+        PaginatedResponse<CardDTO> page;
+        do {
+            page = cardService.getPaginatedAllCardsAsDto(keysetFilters);
+            actual.addAll(ids(page.getContent()));
+            keysetFilters.setCursor(page.getNextCursor());
+        } while (page.isHasNext());
+
+        assertEquals(CARDS, expected.size());
+        assertEquals(expected, actual);
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void keysetPages_ApplyFiltersAndUserScope() {
+        FilterPageCardDTO filters = filters("balance", "asc", 4);
+        filters.setKeyset(true);
+        filters.setStatus(STATUS.ACTIVE);
+
+        List<CardDTO> seen = new ArrayList<>();
+        PaginatedResponse<CardDTO> page;
+        do {
+            page = cardService.getPaginatedAllUserCardsAsDto(filters, "alice", true);
+            seen.addAll(page.getContent());
+            filters.setCursor(page.getNextCursor());
+        } while (page.isHasNext());
+
+        long expected = cardRepo.findAll().stream()
+            .filter(card -> card.getStatus() == STATUS.ACTIVE && !card.getOwnerId().equals(userRepo.findByUsername("bob").get().getId()))
+            .count();
+        assertEquals(expected, seen.size());
+        assertTrue(seen.stream().allMatch(card -> card.getStatus() == STATUS.ACTIVE));
+        assertTrue(seen.stream().allMatch(card -> card.getCardNumber().startsWith("*")));
+    }
+
+    @Test
+    void maskedListingsSortedByCardNumber_DoNotExposeNumbersInCursor() {
+        FilterPageCardDTO adminFilters = filters("card_number", "asc", 5);
+        adminFilters.setKeyset(true);
+        FilterPageCardDTO offsetFilters = filters("card_number", "asc", 5);
+        FilterPageCardDTO ownerFilters = filters("card_number", "asc", 5);
+        ownerFilters.setKeyset(true);
+
+        List<String> cursors = List.of(
+            cardService.getPaginatedAllCardsAsDto(adminFilters).getNextCursor(),
+            cardService.getPaginatedAllCardsAsDto(offsetFilters).getNextCursor(),
+            cardService.getPaginatedAllUserCardsAsDto(ownerFilters, "alice", true).getNextCursor());
+
+        for (String cursor : cursors) {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            assertFalse(decoded.contains("80000000000000"), decoded);
+        }
+    }
+
+    @Test
+    void cardNumberCursor_LastCardOfPageDeleted_ContinuesAfterIt() {
+        List<Integer> expected = ids(cardService.getPaginatedAllCardsAsDto(filters("card_number", "asc", CARDS)).getContent()).subList(5, 10);
+        FilterPageCardDTO filters = filters("card_number", "asc", 5);
+        filters.setKeyset(true);
+        PaginatedResponse<CardDTO> first = cardService.getPaginatedAllCardsAsDto(filters);
+        List<CardDTO> firstCards = first.getContent();
+        cardRepo.deleteById(firstCards.get(firstCards.size() - 1).getId());
+
+        filters.setCursor(first.getNextCursor());
+        PaginatedResponse<CardDTO> second = cardService.getPaginatedAllCardsAsDto(filters);
+
+        assertEquals(expected, ids(second.getContent()));
+    }
+
+    @Test
+    void offsetPage_ReturnsCursorToContinueWithKeyset() {
+        FilterPageCardDTO filters = filters("validity_period", "desc", 10);
+        filters.setPage(1);
+        PaginatedResponse<CardDTO> offsetPage = cardService.getPaginatedAllCardsAsDto(filters);
+        assertNotNull(offsetPage.getNextCursor());
+
+        FilterPageCardDTO next = filters("validity_period", "desc", 10);
+        next.setCursor(offsetPage.getNextCursor());
+        PaginatedResponse<CardDTO> keysetPage = cardService.getPaginatedAllCardsAsDto(next);
+
+        filters.setPage(2);
+        assertEquals(ids(cardService.getPaginatedAllCardsAsDto(filters).getContent()), ids(keysetPage.getContent()));
+        assertTrue(keysetPage.isHasPrevious());
+        assertEquals(-1, keysetPage.getTotalItems());
+    }
+
+    @Test
+    void keysetFirstPage_HasNoPrevious() {
+        FilterPageCardDTO filters = filters("id", "asc", CARDS);
+        filters.setKeyset(true);
+
+        PaginatedResponse<CardDTO> page = cardService.getPaginatedAllCardsAsDto(filters);
+
+        assertEquals(CARDS, page.getContent().size());
+        assertFalse(page.isHasNext());
+        assertFalse(page.isHasPrevious());
+    }
+
+    @Test
+    void slicePages_WithoutAndWithCachedCount_MatchExactPages() {
+        FilterPageCardDTO exact = filters("balance", "desc", 10);
+        exact.setPage(1);
+        exact.setStatus(STATUS.ACTIVE);
+        PaginatedResponse<CardDTO> exactPage = cardService.getPaginatedAllCardsAsDto(exact);
+
+        FilterPageCardDTO none = filters("balance", "desc", 10);
+        none.setPage(1);
+        none.setStatus(STATUS.ACTIVE);
+        none.setCountMode(FilterPageCardDTO.CountMode.NONE);
+        PaginatedResponse<CardDTO> slicePage = cardService.getPaginatedAllCardsAsDto(none);
+
+        none.setCountMode(FilterPageCardDTO.CountMode.CACHED);
+        PaginatedResponse<CardDTO> cachedPage = cardService.getPaginatedAllCardsAsDto(none);
+
+        assertEquals(ids(exactPage.getContent()), ids(slicePage.getContent()));
+        assertEquals(exactPage.isHasNext(), slicePage.isHasNext());
+        assertEquals(-1, slicePage.getTotalItems());
+        assertEquals(exactPage.getTotalItems(), cachedPage.getTotalItems());
+        assertEquals(exactPage.getTotalPages(), cachedPage.getTotalPages());
+    }
+
+    @Test
+    void listings_LoadNoEntitiesIntoPersistenceContext() {
+        FilterPageCardDTO filters = filters("balance", "asc", 10);
+        FilterPageCardDTO keyset = filters("balance", "asc", 10);
+        keyset.setKeyset(true);
+
+        int managed = new TransactionTemplate(transactionManager).execute(status -> {
+            cardService.getPaginatedAllCardsAsDto(filters);
+            cardService.getPaginatedAllCardsAsDto(keyset);
+            cardService.getPaginatedAllUserCardsAsDto(filters, "alice", true);
+            return entityManager.unwrap(Session.class).getStatistics().getEntityCount();
+        });
+
+        assertEquals(0, managed);
+    }
+
+    private FilterPageCardDTO filters(String sortBy, String direction, int size) {
+        FilterPageCardDTO filters = new FilterPageCardDTO();
+        filters.setSortBy(sortBy);
+        filters.setDirectionSort(direction);
+        filters.setSize(size);
+        return filters;
+    }
+
+    private List<Integer> ids(List<CardDTO> cards) {
+        return cards.stream().map(CardDTO::getId).toList();
+    }
+
+    private User newUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("password");
+        user.setRole("ROLE_USER");
+        return userRepo.save(user);
+    }
+}
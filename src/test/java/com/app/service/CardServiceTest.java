@@ -1,29 +1,54 @@
 package com.app.service;
 
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.app.dto.BatchTransferDTO;
+import com.app.dto.BatchTransferResultDTO;
 import com.app.dto.CardDTO;
+import com.app.dto.CardHistoryRequestDTO;
 import com.app.dto.CardNumberDTO;
 import com.app.dto.FilterPageCardDTO;
 import com.app.dto.NewCardDTO;
@@ -35,10 +60,14 @@ import com.app.exception.CardNotFoundException;
 import com.app.exception.NotEnoughBalanceException;
 import com.app.exception.NotYourCardException;
 import com.app.exception.UserNotFoundException;
+import com.app.exception.ValidationValueException;
 import com.app.model.Card;
+import com.app.model.Money;
 import com.app.model.STATUS;
 import com.app.repository.CardRepository;
+import com.app.repository.CardTransactionRepository;
 import com.app.repository.UserRepository;
+import com.app.security.JwtUserPrincipal;
 
 @ExtendWith(MockitoExtension.class)
 class CardServiceTest {
@@ -52,6 +81,24 @@ class CardServiceTest {
     @Mock
     private Authentication authentication;
 
+    @Mock
+    private CardTransactionRepository cardTransactionRepo;
+
+    @Mock
+    private TransactionRetrier transactionRetrier;
+
+    @Mock
+    private IdempotencyStore idempotencyStore;
+
+    @Mock
+    private CardCountCache cardCountCache;
+
+    @Mock
+    private ExistenceFilters existenceFilters;
+
+    @Mock
+    private ExistenceFilter cardNumberFilter;
+
     @InjectMocks
     private CardService cardService;
 
@@ -62,13 +109,20 @@ class CardServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(transactionRetrier).execute(any(Runnable.class));
+        lenient().when(existenceFilters.cardNumbers()).thenReturn(cardNumberFilter);
+        ReflectionTestUtils.setField(cardService, "lockingMode", CardService.LockingMode.PESSIMISTIC);
+
         testCard = new Card();
         testCard.setId(1);
         testCard.setCardNumber("1234567890123456");
         testCard.setOwnerId(testUserId);
         testCard.setValidityPeriod(LocalDate.now().plusYears(1));
         testCard.setStatus(STATUS.ACTIVE);
-        testCard.setBalance(1000.0);
+        testCard.setBalance(Money.of("1000.0"));
 
         testCard2 = new Card();
         testCard2.setId(2);
@@ -76,7 +130,7 @@ class CardServiceTest {
         testCard2.setOwnerId(testUserId);
         testCard2.setValidityPeriod(LocalDate.now().plusYears(1));
         testCard2.setStatus(STATUS.ACTIVE);
-        testCard2.setBalance(500.0);
+        testCard2.setBalance(Money.of("500.0"));
     }
 
     @Test
@@ -84,7 +138,75 @@ class CardServiceTest {
         TransferBetweenCardsDTO transfer = new TransferBetweenCardsDTO();
         transfer.setFirstCardNumber("1234567890123456");
         transfer.setSecondCardNumber("9876543210987654");
-        transfer.setAmountTransferBetweenCards(200.0);
+        transfer.setAmountTransferBetweenCards(Money.of("200.0"));
+
+        when(authentication.getName()).thenReturn(testUsername);
+        when(userRepo.findUserIdByUsername(testUsername)).thenReturn(Optional.of(testUserId));
+        ownedBy(testUserId, "1234567890123456", "9876543210987654");
+        when(cardRepo.findByCardNumberForUpdate("1234567890123456")).thenReturn(Optional.of(testCard));
+        when(cardRepo.findByCardNumberForUpdate("9876543210987654")).thenReturn(Optional.of(testCard2));
+
+        cardService.transferBetweenCards(authentication, transfer);
+
+        assertEquals(Money.of("800.0"), testCard.getBalance());
+        assertEquals(Money.of("700.0"), testCard2.getBalance());
+        verify(cardTransactionRepo).append(argThat(entries -> entries.size() == 2
+            && entries.get(0).getCardId().equals(1) && entries.get(0).getAmount().equals(Money.of("-200"))
+            && entries.get(0).getBalanceAfter().equals(Money.of("800"))
+            && entries.get(1).getCardId().equals(2) && entries.get(1).getAmount().equals(Money.of("200"))
+            && entries.get(1).getBalanceAfter().equals(Money.of("700"))));
+        verify(cardRepo, times(2)).save(any(Card.class));
+    }
+
+    @Test
+    void transferBetweenCards_StatelessPrincipal_SkipsUserIdLookup() {
+        TransferBetweenCardsDTO transfer = new TransferBetweenCardsDTO();
+        transfer.setFirstCardNumber("1234567890123456");
+        transfer.setSecondCardNumber("9876543210987654");
+        transfer.setAmountTransferBetweenCards(Money.of("200.0"));
+
+        when(authentication.getPrincipal()).thenReturn(new JwtUserPrincipal(testUserId, testUsername, "ROLE_USER"));
+        ownedBy(testUserId, "1234567890123456", "9876543210987654");
+        when(cardRepo.findByCardNumberForUpdate("1234567890123456")).thenReturn(Optional.of(testCard));
+        when(cardRepo.findByCardNumberForUpdate("9876543210987654")).thenReturn(Optional.of(testCard2));
+
+        cardService.transferBetweenCards(authentication, transfer);
+
+        assertEquals(Money.of("800.0"), testCard.getBalance());
+        assertEquals(Money.of("700.0"), testCard2.getBalance());
+        verify(userRepo, never()).findUserIdByUsername(any());
+    }
+
+    @Test
+    void transferBetweenCards_LocksCardsInCardNumberOrder() {
+        TransferBetweenCardsDTO transfer = new TransferBetweenCardsDTO();
+        transfer.setFirstCardNumber("9876543210987654");
+        transfer.setSecondCardNumber("1234567890123456");
+        transfer.setAmountTransferBetweenCards(Money.of("100.0"));
+
+        when(authentication.getName()).thenReturn(testUsername);
+        when(userRepo.findUserIdByUsername(testUsername)).thenReturn(Optional.of(testUserId));
+        ownedBy(testUserId, "1234567890123456", "9876543210987654");
+        when(cardRepo.findByCardNumberForUpdate("1234567890123456")).thenReturn(Optional.of(testCard));
+        when(cardRepo.findByCardNumberForUpdate("9876543210987654")).thenReturn(Optional.of(testCard2));
+
+        cardService.transferBetweenCards(authentication, transfer);
+
+        InOrder lockOrder = inOrder(cardRepo);
+        lockOrder.verify(cardRepo).findByCardNumberForUpdate("1234567890123456");
+        lockOrder.verify(cardRepo).findByCardNumberForUpdate("9876543210987654");
+        assertEquals(Money.of("1100.0"), testCard.getBalance());
+        assertEquals(Money.of("400.0"), testCard2.getBalance());
+        verify(transactionRetrier).execute(any(Runnable.class));
+    }
+
+    @Test
+    void transferBetweenCards_OptimisticMode_ReadsWithoutRowLock() {
+        ReflectionTestUtils.setField(cardService, "lockingMode", CardService.LockingMode.OPTIMISTIC);
+        TransferBetweenCardsDTO transfer = new TransferBetweenCardsDTO();
+        transfer.setFirstCardNumber("1234567890123456");
+        transfer.setSecondCardNumber("9876543210987654");
+        transfer.setAmountTransferBetweenCards(Money.of("200.0"));
 
         when(authentication.getName()).thenReturn(testUsername);
         when(userRepo.findUserIdByUsername(testUsername)).thenReturn(Optional.of(testUserId));
@@ -93,9 +215,132 @@ class CardServiceTest {
 
         cardService.transferBetweenCards(authentication, transfer);
 
-        assertEquals(800.0, testCard.getBalance());
-        assertEquals(700.0, testCard2.getBalance());
-        verify(cardRepo, times(2)).save(any(Card.class));
+        assertEquals(Money.of("800.0"), testCard.getBalance());
+        assertEquals(Money.of("700.0"), testCard2.getBalance());
+        verify(cardRepo, never()).findByCardNumberForUpdate(any());
+    }
+
+    @Test
+    void transferBetweenCards_NewIdempotencyKey_ClaimsKeyAndTransfers() {
+        TransferBetweenCardsDTO transfer = new TransferBetweenCardsDTO();
+        transfer.setFirstCardNumber("1234567890123456");
+        transfer.setSecondCardNumber("9876543210987654");
+        transfer.setAmountTransferBetweenCards(Money.of("200.0"));
+
+        when(authentication.getName()).thenReturn(testUsername);
+        when(userRepo.findUserIdByUsername(testUsername)).thenReturn(Optional.of(testUserId));
+        when(idempotencyStore.isCompleted(eq(testUserId), eq("key-1"), any())).thenReturn(false);
+        ownedBy(testUserId, "1234567890123456", "9876543210987654");
+        when(cardRepo.findByCardNumberForUpdate("1234567890123456")).thenReturn(Optional.of(testCard));
+        when(cardRepo.findByCardNumberForUpdate("9876543210987654")).thenReturn(Optional.of(testCard2));
+
+        assertTrue(cardService.transferBetweenCards(authentication, transfer, "key-1"));
+
+        assertEquals(Money.of("800.0"), testCard.getBalance());
+        verify(idempotencyStore).claim(eq(testUserId), eq("key-1"), any());
+        verify(idempotencyStore).remember(eq(testUserId), eq("key-1"), any());
+    }
+
+    @Test
+    void transferBetweenCards_CompletedIdempotencyKey_SkipsTransfer() {
+        TransferBetweenCardsDTO transfer = new TransferBetweenCardsDTO();
+        transfer.setFirstCardNumber("1234567890123456");
+        transfer.setSecondCardNumber("9876543210987654");
+        transfer.setAmountTransferBetweenCards(Money.of("200.0"));
+
+        when(authentication.getName()).thenReturn(testUsername);
+        when(userRepo.findUserIdByUsername(testUsername)).thenReturn(Optional.of(testUserId));
+        when(idempotencyStore.isCompleted(eq(testUserId), eq("key-1"), any())).thenReturn(true);
+
+        assertFalse(cardService.transferBetweenCards(authentication, transfer, "key-1"));
+
+        verify(transactionRetrier, never()).execute(any(Runnable.class));
+        verify(cardRepo, never()).save(any());
+    }
+
+    @Test
+    void transferBetweenCards_ConcurrentClaimOfSameKey_ReturnsReplayed() {
+        TransferBetweenCardsDTO transfer = new TransferBetweenCardsDTO();
+        transfer.setFirstCardNumber("1234567890123456");
+        transfer.setSecondCardNumber("9876543210987654");
+        transfer.setAmountTransferBetweenCards(Money.of("200.0"));
+
+        when(authentication.getName()).thenReturn(testUsername);
+        when(userRepo.findUserIdByUsername(testUsername)).thenReturn(Optional.of(testUserId));
+        when(idempotencyStore.isCompleted(eq(testUserId), eq("key-1"), any())).thenReturn(false, true);
+        doThrow(new DuplicateKeyException("duplicate")).when(idempotencyStore).claim(eq(testUserId), eq("key-1"), any());
+
+        assertFalse(cardService.transferBetweenCards(authentication, transfer, "key-1"));
+
+        verify(cardRepo, never()).save(any());
+        verify(idempotencyStore, never()).remember(any(), any(), any());
+    }
+
+    @Test
+    void transferBatch_BestEffort_AppliesValidTransfersAndReportsFailures() {
+        mockSupplierRetrier();
+        when(authentication.getName()).thenReturn(testUsername);
+        when(userRepo.findUserIdByUsername(testUsername)).thenReturn(Optional.of(testUserId));
+        when(cardRepo.findByCardNumberInForUpdate(any())).thenReturn(List.of(testCard, testCard2));
+
+        BatchTransferResultDTO result = cardService.transferBatch(authentication, batch(BatchTransferDTO.Mode.BEST_EFFORT,
+            transfer("1234567890123456", "9876543210987654", "300.0"),
+            transfer("9876543210987654", "1234567890123456", "5000.0"),
+            transfer("1234567890123456", "1111222233334444", "1.0"),
+            transfer("9876543210987654", "1234567890123456", "100.0")));
+
+        assertEquals(2, result.getSucceeded());
+        assertEquals(2, result.getFailed());
+        assertTrue(result.isApplied());
+        assertTrue(result.getResults().get(0).isSuccess());
+        assertEquals(new NotEnoughBalanceException().getMessage(), result.getResults().get(1).getError());
+        assertFalse(result.getResults().get(2).isSuccess());
+        assertEquals(Money.of("800.0"), testCard.getBalance());
+        assertEquals(Money.of("700.0"), testCard2.getBalance());
+        verify(cardRepo, times(1)).findByCardNumberInForUpdate(any());
+        verify(cardRepo, never()).findByCardNumberForUpdate(any());
+        verify(cardTransactionRepo).append(argThat(entries -> entries.size() == 4
+            && entries.get(0).getBalanceAfter().equals(Money.of("700.0"))
+            && entries.get(2).getBalanceAfter().equals(Money.of("700.0"))
+            && entries.get(3).getBalanceAfter().equals(Money.of("800.0"))));
+    }
+
+    @Test
+    void transferBatch_AllOrNothingWithFailure_AppliesNothing() {
+        mockSupplierRetrier();
+        when(authentication.getName()).thenReturn(testUsername);
+        when(userRepo.findUserIdByUsername(testUsername)).thenReturn(Optional.of(testUserId));
+        testCard2.setOwnerId(99);
+        when(cardRepo.findCardNumbersOwnedByOthers(any(), eq(testUserId))).thenReturn(List.of("9876543210987654"));
+        when(cardRepo.findByCardNumberInForUpdate(any())).thenReturn(List.of(testCard));
+
+        BatchTransferResultDTO result = cardService.transferBatch(authentication, batch(BatchTransferDTO.Mode.ALL_OR_NOTHING,
+            transfer("1234567890123456", "1234567890123456", "1.0"),
+            transfer("1234567890123456", "9876543210987654", "1.0")));
+
+        assertFalse(result.isApplied());
+        assertEquals(0, result.getSucceeded());
+        assertEquals(new NotYourCardException().getMessage(), result.getResults().get(1).getError());
+        assertEquals(Money.of("1000.0"), testCard.getBalance());
+        verify(cardRepo).findByCardNumberInForUpdate(argThat(cardNumbers -> cardNumbers.equals(Set.of("1234567890123456"))));
+        verify(cardRepo, never()).saveAll(any());
+        verify(cardTransactionRepo, never()).append(any());
+    }
+
+    @Test
+    void transferBatch_OptimisticMode_LoadsCardsWithoutLock() {
+        mockSupplierRetrier();
+        ReflectionTestUtils.setField(cardService, "lockingMode", CardService.LockingMode.OPTIMISTIC);
+        when(authentication.getName()).thenReturn(testUsername);
+        when(userRepo.findUserIdByUsername(testUsername)).thenReturn(Optional.of(testUserId));
+        when(cardRepo.findByCardNumberInOrderByCardNumber(any())).thenReturn(List.of(testCard, testCard2));
+
+        BatchTransferResultDTO result = cardService.transferBatch(authentication, batch(BatchTransferDTO.Mode.ALL_OR_NOTHING,
+            transfer("1234567890123456", "9876543210987654", "10.0")));
+
+        assertEquals(1, result.getSucceeded());
+        verify(cardRepo, never()).findByCardNumberInForUpdate(any());
+        verify(cardRepo).saveAll(List.of(testCard, testCard2));
     }
 
     @Test
@@ -111,23 +356,57 @@ class CardServiceTest {
     void transferBetweenCards_FirstCardNotFound_ThrowsException() {
         TransferBetweenCardsDTO transfer = new TransferBetweenCardsDTO();
         transfer.setFirstCardNumber("1234567890123456");
+        transfer.setSecondCardNumber("9876543210987654");
 
         when(authentication.getName()).thenReturn(testUsername);
         when(userRepo.findUserIdByUsername(testUsername)).thenReturn(Optional.of(testUserId));
-        when(cardRepo.findByCardNumber("1234567890123456")).thenReturn(Optional.empty());
+        when(cardRepo.findOwnerIdByCardNumber("1234567890123456")).thenReturn(Optional.empty());
 
         assertThrows(CardNotFoundException.class, () -> cardService.transferBetweenCards(authentication, transfer));
+        verify(cardRepo, never()).findByCardNumberForUpdate(any());
     }
 
     @Test
-    void transferBetweenCards_NotUsersCard_ThrowsException() {
+    void transferBetweenCards_NotUsersCard_ThrowsExceptionWithoutLockingAnyCard() {
         TransferBetweenCardsDTO transfer = new TransferBetweenCardsDTO();
         transfer.setFirstCardNumber("1234567890123456");
-        testCard.setOwnerId(999);
+        transfer.setSecondCardNumber("9876543210987654");
 
         when(authentication.getName()).thenReturn(testUsername);
         when(userRepo.findUserIdByUsername(testUsername)).thenReturn(Optional.of(testUserId));
-        when(cardRepo.findByCardNumber("1234567890123456")).thenReturn(Optional.of(testCard));
+        ownedBy(testUserId, "1234567890123456");
+        ownedBy(999, "9876543210987654");
+
+        assertThrows(NotYourCardException.class, () -> cardService.transferBetweenCards(authentication, transfer));
+        verify(cardRepo, never()).findByCardNumberForUpdate(any());
+    }
+
+    @Test
+    void transferBetweenCards_MissingFirstCardAndForeignSecondCard_ReportsTheFirstCard() {
+        // the second card sorts first, but the cards are checked in request order
+        TransferBetweenCardsDTO transfer = new TransferBetweenCardsDTO();
+        transfer.setFirstCardNumber("9876543210987654");
+        transfer.setSecondCardNumber("1234567890123456");
+
+        when(authentication.getName()).thenReturn(testUsername);
+        when(userRepo.findUserIdByUsername(testUsername)).thenReturn(Optional.of(testUserId));
+        when(cardRepo.findOwnerIdByCardNumber("9876543210987654")).thenReturn(Optional.empty());
+
+        CardNotFoundException exception = assertThrows(CardNotFoundException.class, () -> cardService.transferBetweenCards(authentication, transfer));
+        assertEquals(new CardNotFoundException("9876543210987654").getMessage(), exception.getMessage());
+    }
+
+    @Test
+    void transferBetweenCards_OptimisticModeForeignFirstCardAndMissingSecondCard_ReportsTheFirstCard() {
+        ReflectionTestUtils.setField(cardService, "lockingMode", CardService.LockingMode.OPTIMISTIC);
+        TransferBetweenCardsDTO transfer = new TransferBetweenCardsDTO();
+        transfer.setFirstCardNumber("9876543210987654");
+        transfer.setSecondCardNumber("1234567890123456");
+        testCard2.setOwnerId(999);
+
+        when(authentication.getName()).thenReturn(testUsername);
+        when(userRepo.findUserIdByUsername(testUsername)).thenReturn(Optional.of(testUserId));
+        when(cardRepo.findByCardNumber("9876543210987654")).thenReturn(Optional.of(testCard2));
 
         assertThrows(NotYourCardException.class, () -> cardService.transferBetweenCards(authentication, transfer));
     }
@@ -137,13 +416,16 @@ class CardServiceTest {
         TransferBetweenCardsDTO transfer = new TransferBetweenCardsDTO();
         transfer.setFirstCardNumber("1234567890123456");
         transfer.setSecondCardNumber("9876543210987654");
-        transfer.setAmountTransferBetweenCards(2000.0);
+        transfer.setAmountTransferBetweenCards(Money.of("2000.0"));
 
         when(authentication.getName()).thenReturn(testUsername);
         when(userRepo.findUserIdByUsername(testUsername)).thenReturn(Optional.of(testUserId));
-        when(cardRepo.findByCardNumber("1234567890123456")).thenReturn(Optional.of(testCard));
+        ownedBy(testUserId, "1234567890123456", "9876543210987654");
+        when(cardRepo.findByCardNumberForUpdate("1234567890123456")).thenReturn(Optional.of(testCard));
+        when(cardRepo.findByCardNumberForUpdate("9876543210987654")).thenReturn(Optional.of(testCard2));
 
         assertThrows(NotEnoughBalanceException.class, () -> cardService.transferBetweenCards(authentication, transfer));
+        verify(cardTransactionRepo, never()).append(any());
     }
 
     @Test
@@ -156,6 +438,34 @@ class CardServiceTest {
         cardService.addNewCard(newCard);
 
         verify(cardRepo).save(any(Card.class));
+        verify(cardRepo).indexCardNumber(any(), eq("1234567890123456"));
+        verify(cardNumberFilter).add("1234567890123456");
+    }
+
+    @Test
+    void addNewCard_NumberTakenConcurrently_ThrowsValidationValueException() {
+        NewCardDTO newCard = new NewCardDTO();
+        newCard.setCardNumber("1234567890123456");
+        newCard.setOwnerId(testUserId);
+        newCard.setValidityPeriod(LocalDate.now().plusYears(1));
+        when(cardRepo.save(any(Card.class))).thenThrow(uniqueViolation("Duplicate entry '1234567890123456' for key 'cards.card_number'", "cards.card_number"));
+
+        ValidationValueException exception = assertThrows(ValidationValueException.class, () -> cardService.addNewCard(newCard));
+
+        assertEquals(Map.of("cardNumber", "Card with specified number exist already"), exception.getValidationErrors());
+        verify(cardRepo, never()).indexCardNumber(any(), any());
+        verify(cardNumberFilter, never()).add(any());
+    }
+
+    @Test
+    void addNewCard_OtherUniqueKeyViolated_RethrowsException() {
+        NewCardDTO newCard = new NewCardDTO();
+        newCard.setCardNumber("1234567890123456");
+        newCard.setOwnerId(testUserId);
+        newCard.setValidityPeriod(LocalDate.now().plusYears(1));
+        when(cardRepo.save(any(Card.class))).thenThrow(uniqueViolation("Duplicate entry '7' for key 'cards.PRIMARY'", "cards.PRIMARY"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> cardService.addNewCard(newCard));
     }
 
     @Test
@@ -166,6 +476,7 @@ class CardServiceTest {
         cardService.deleteCard(cardNumber);
 
         verify(cardRepo).deleteByCardNumber("1234567890123456");
+        verify(cardNumberFilter).remove("1234567890123456");
     }
 
     @Test
@@ -173,7 +484,7 @@ class CardServiceTest {
         CardNumberDTO cardNumber = new CardNumberDTO();
         cardNumber.setCardNumber("1234567890123456");
 
-        when(cardRepo.findByCardNumber("1234567890123456")).thenReturn(Optional.of(testCard));
+        when(cardRepo.findByCardNumberForUpdate("1234567890123456")).thenReturn(Optional.of(testCard));
 
         cardService.blockCard(cardNumber);
 
@@ -181,13 +492,28 @@ class CardServiceTest {
         verify(cardRepo).save(testCard);
     }
 
+    @Test
+    void blockCard_OptimisticMode_ReadsWithoutRowLock() {
+        ReflectionTestUtils.setField(cardService, "lockingMode", CardService.LockingMode.OPTIMISTIC);
+        CardNumberDTO cardNumber = new CardNumberDTO();
+        cardNumber.setCardNumber("1234567890123456");
+
+        when(cardRepo.findByCardNumber("1234567890123456")).thenReturn(Optional.of(testCard));
+
+        cardService.blockCard(cardNumber);
+
+        assertEquals(STATUS.BLOCKED, testCard.getStatus());
+        verify(cardRepo, never()).findByCardNumberForUpdate(any());
+        verify(transactionRetrier).execute(any(Runnable.class));
+    }
+
     @Test
     void blockCard_AlreadyBlocked_ThrowsException() {
         CardNumberDTO cardNumber = new CardNumberDTO();
         cardNumber.setCardNumber("1234567890123456");
         testCard.setStatus(STATUS.BLOCKED);
 
-        when(cardRepo.findByCardNumber("1234567890123456")).thenReturn(Optional.of(testCard));
+        when(cardRepo.findByCardNumberForUpdate("1234567890123456")).thenReturn(Optional.of(testCard));
 
         assertThrows(BlockedAlreadyException.class, () -> cardService.blockCard(cardNumber));
     }
@@ -197,7 +523,7 @@ class CardServiceTest {
         CardNumberDTO cardNumber = new CardNumberDTO();
         cardNumber.setCardNumber("1234567890123456");
 
-        when(cardRepo.findByCardNumber("1234567890123456")).thenReturn(Optional.empty());
+        when(cardRepo.findByCardNumberForUpdate("1234567890123456")).thenReturn(Optional.empty());
 
         assertThrows(CardNotFoundException.class, () -> cardService.blockCard(cardNumber));
     }
@@ -208,7 +534,7 @@ class CardServiceTest {
         cardNumber.setCardNumber("1234567890123456");
         testCard.setStatus(STATUS.BLOCKED);
 
-        when(cardRepo.findByCardNumber("1234567890123456")).thenReturn(Optional.of(testCard));
+        when(cardRepo.findByCardNumberForUpdate("1234567890123456")).thenReturn(Optional.of(testCard));
 
         cardService.activateCard(cardNumber);
 
@@ -221,7 +547,7 @@ class CardServiceTest {
         CardNumberDTO cardNumber = new CardNumberDTO();
         cardNumber.setCardNumber("1234567890123456");
 
-        when(cardRepo.findByCardNumber("1234567890123456")).thenReturn(Optional.of(testCard));
+        when(cardRepo.findByCardNumberForUpdate("1234567890123456")).thenReturn(Optional.of(testCard));
 
         assertThrows(ActivatedAlreadyException.class, () -> cardService.activateCard(cardNumber));
     }
@@ -229,9 +555,9 @@ class CardServiceTest {
     @Test
     void getPaginatedAllCardsAsDto_ReturnsPaginatedResponse() {
         FilterPageCardDTO filters = new FilterPageCardDTO();
-        Page<Card> cardPage = new PageImpl<>(List.of(testCard));
+        Page<CardDTO> cardPage = new PageImpl<>(List.of(testCardDto()));
         
-        when(cardRepo.findByCriteria(any(), any(), any(), any(), any(), any(), any(), eq(true), any()))
+        when(cardRepo.findCardDtos(ArgumentMatchers.<Specification<Card>>any(), any(Pageable.class)))
             .thenReturn(cardPage);
 
         PaginatedResponse<CardDTO> response = cardService.getPaginatedAllCardsAsDto(filters);
@@ -245,9 +571,9 @@ class CardServiceTest {
     @Test
     void getPaginatedAllUserCardsAsDto_ReturnsPaginatedResponse() {
         FilterPageCardDTO filters = new FilterPageCardDTO();
-        Page<Card> cardPage = new PageImpl<>(List.of(testCard));
+        Page<CardDTO> cardPage = new PageImpl<>(List.of(testCardDto()));
         
-        when(cardRepo.findByCriteria(eq(testUsername), any(), any(), any(), any(), any(), any(), eq(false), any()))
+        when(cardRepo.findCardDtos(ArgumentMatchers.<Specification<Card>>any(), any(Pageable.class)))
             .thenReturn(cardPage);
 
         PaginatedResponse<CardDTO> response = cardService.getPaginatedAllUserCardsAsDto(filters, testUsername, true);
@@ -260,13 +586,100 @@ class CardServiceTest {
     @Test
     void getPaginatedAllUserCardsAsDto_UnmaskedCardNumber_ReturnsFullNumber() {
         FilterPageCardDTO filters = new FilterPageCardDTO();
-        Page<Card> cardPage = new PageImpl<>(List.of(testCard));
+        Page<CardDTO> cardPage = new PageImpl<>(List.of(testCardDto()));
         
-        when(cardRepo.findByCriteria(eq(testUsername), any(), any(), any(), any(), any(), any(), eq(false), any()))
+        when(cardRepo.findCardDtos(ArgumentMatchers.<Specification<Card>>any(), any(Pageable.class)))
             .thenReturn(cardPage);
 
         PaginatedResponse<CardDTO> response = cardService.getPaginatedAllUserCardsAsDto(filters, testUsername, false);
 
         assertEquals("1234567890123456", response.getContent().get(0).getCardNumber());
     }
+
+    @Test
+    void getPaginatedAllUserCardsAsDto_CountModeNone_SkipsCountQuery() {
+        FilterPageCardDTO filters = new FilterPageCardDTO();
+        filters.setCountMode(FilterPageCardDTO.CountMode.NONE);
+        filters.setSize(1);
+        Slice<CardDTO> cardSlice = new SliceImpl<>(List.of(testCardDto()), PageRequest.of(0, 1), true);
+
+        when(cardRepo.findCardDtoSlice(any(), any()))
+            .thenReturn(cardSlice);
+
+        PaginatedResponse<CardDTO> response = cardService.getPaginatedAllUserCardsAsDto(filters, testUsername, true);
+
+        assertEquals(1, response.getContent().size());
+        assertTrue(response.isHasNext());
+        assertEquals(-1, response.getTotalItems());
+        assertEquals(-1, response.getTotalPages());
+        assertNotNull(response.getNextCursor());
+        verify(cardRepo, never()).findCardDtos(ArgumentMatchers.<Specification<Card>>any(), any(Pageable.class));
+        verify(cardRepo, never()).count(ArgumentMatchers.<Specification<Card>>any());
+    }
+
+    @Test
+    void getPaginatedAllCardsAsDto_CountModeCached_TakesTotalFromCache() {
+        FilterPageCardDTO filters = new FilterPageCardDTO();
+        filters.setCountMode(FilterPageCardDTO.CountMode.CACHED);
+        filters.setSize(1);
+        Slice<CardDTO> cardSlice = new SliceImpl<>(List.of(testCardDto()), PageRequest.of(0, 1), true);
+
+        when(cardRepo.findCardDtoSlice(any(), any()))
+            .thenReturn(cardSlice);
+        when(cardCountCache.get(any(), any())).thenReturn(3L);
+
+        PaginatedResponse<CardDTO> response = cardService.getPaginatedAllCardsAsDto(filters);
+
+        assertEquals(3, response.getTotalItems());
+        assertEquals(3, response.getTotalPages());
+        verify(cardCountCache).get(eq(new CardCountCache.Key(null, null, null, null, null, null, null, true)), any());
+        verify(cardRepo, never()).findCardDtos(ArgumentMatchers.<Specification<Card>>any(), any(Pageable.class));
+    }
+
+    @Test
+    void readMethods_RunInReadOnlyTransactions() throws NoSuchMethodException {
+        assertTrue(CardService.class.getMethod("getPaginatedAllCardsAsDto", FilterPageCardDTO.class)
+            .getAnnotation(Transactional.class).readOnly());
+        assertTrue(CardService.class.getMethod("getPaginatedAllUserCardsAsDto", FilterPageCardDTO.class, String.class, boolean.class)
+            .getAnnotation(Transactional.class).readOnly());
+        assertTrue(CardService.class.getMethod("getCardHistory", Authentication.class, CardHistoryRequestDTO.class)
+            .getAnnotation(Transactional.class).readOnly());
+    }
+
+    private CardDTO testCardDto() {
+        return new CardDTO(testCard.getId(), testCard.getCardNumber(), testCard.getOwnerId(), testCard.getValidityPeriod(),
+            testCard.getStatus(), testCard.getBalance());
+    }
+
+    @SuppressWarnings("unchecked")
+    // what the EntityManager path throws: Spring does not translate Hibernate's violation to DuplicateKeyException
+    private static DataIntegrityViolationException uniqueViolation(String message, String constraintName) {
+        return new DataIntegrityViolationException("could not execute statement", new ConstraintViolationException(
+            "could not execute statement", new SQLException(message), ConstraintViolationException.ConstraintKind.UNIQUE, constraintName));
+    }
+
+    private void ownedBy(Integer ownerId, String... cardNumbers) {
+        for (String cardNumber : cardNumbers) {
+            when(cardRepo.findOwnerIdByCardNumber(cardNumber)).thenReturn(Optional.of(ownerId));
+        }
+    }
+
+    private void mockSupplierRetrier() {
+        when(transactionRetrier.execute(ArgumentMatchers.<Supplier<Object>>any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+    }
+
+    private TransferBetweenCardsDTO transfer(String from, String to, String amount) {
+        TransferBetweenCardsDTO transfer = new TransferBetweenCardsDTO();
+        transfer.setFirstCardNumber(from);
+        transfer.setSecondCardNumber(to);
+        transfer.setAmountTransferBetweenCards(Money.of(amount));
+        return transfer;
+    }
+
+    private BatchTransferDTO batch(BatchTransferDTO.Mode mode, TransferBetweenCardsDTO... transfers) {
+        BatchTransferDTO batch = new BatchTransferDTO();
+        batch.setMode(mode);
+        batch.setTransfers(List.of(transfers));
+        return batch;
+    }
 }
@@ -0,0 +1,146 @@
+package com.app.service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import com.app.dto.CardDTO;
+import com.app.dto.CardNumberDTO;
+import com.app.dto.FilterPageCardDTO;
+import com.app.dto.NewCardDTO;
+import com.app.model.Card;
+import com.app.model.User;
+import com.app.repository.CardRepository;
+import com.app.repository.CardTransactionRepository;
+import com.app.repository.UserRepository;
+
+@SpringJUnitConfig(CardH2TestConfig.class)
+class CardSubstringSearchIntegrationTest {
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private CardRepository cardRepo;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private CardTransactionRepository cardTransactionRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM card_number_suffixes");
+        jdbcTemplate.update("DELETE FROM username_suffixes");
+        cardTransactionRepo.deleteAllInBatch();
+        cardRepo.deleteAll();
+        userRepo.deleteAll();
+
+        User alice = newUser("alice");
+        User malice = newUser("malice");
+        User bob = newUser("bob");
+        addCard("1111222233334444", alice);
+        addCard("5555222266667777", malice);
+        addCard("9999000011112222", bob);
+        addCard("4444333322221111", bob);
+    }
+
+    @Test
+    void adminSearch_ByCardNumberSubstring_FindsCardsContainingIt() {
+        assertEquals(Set.of("1111222233334444", "5555222266667777", "9999000011112222", "4444333322221111"), search(null, "2222"));
+        assertEquals(Set.of("1111222233334444", "9999000011112222"), search(null, "11112222"));
+        assertEquals(Set.of("4444333322221111"), search(null, "3322"));
+        assertEquals(Set.of(), search(null, "12345"));
+    }
+
+    @Test
+    void adminSearch_ByUsernameSubstring_FindsCardsOfEveryMatchingOwner() {
+        assertEquals(Set.of("1111222233334444", "5555222266667777"), search("lice", null));
+        assertEquals(Set.of("5555222266667777"), search("mal", null));
+        assertEquals(Set.of("5555222266667777"), search("lice", "6666"));
+    }
+
+    @Test
+    void ownerListing_ByCardNumberSubstring_StaysInsideOwnersCards() {
+        FilterPageCardDTO filters = filters();
+        filters.setCardNumber("1111");
+
+        List<CardDTO> cards = cardService.getPaginatedAllUserCardsAsDto(filters, "bob", false).getContent();
+
+        assertEquals(Set.of("9999000011112222", "4444333322221111"), cards.stream().map(CardDTO::getCardNumber).collect(Collectors.toSet()));
+    }
+
+    @Test
+    void deleteCard_RemovesItsSuffixes() {
+        CardNumberDTO cardNumber = new CardNumberDTO();
+        cardNumber.setCardNumber("4444333322221111");
+
+        cardService.deleteCard(cardNumber);
+
+        assertEquals(Set.of(), search(null, "3322"));
+        Integer remaining = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM card_number_suffixes", Integer.class);
+        assertEquals(3 * 16, remaining);
+    }
+
+    @Test
+    void addNewCard_IndexesEverySuffix() {
+        Card card = cardRepo.findByCardNumber("1111222233334444").get();
+
+        List<String> suffixes = jdbcTemplate.queryForList(
+            "SELECT suffix FROM card_number_suffixes WHERE card_id = ? ORDER BY suffix", String.class, card.getId());
+
+        assertEquals(16, suffixes.size());
+        assertTrue(suffixes.contains("1111222233334444"));
+        assertTrue(suffixes.contains("4"));
+    }
+
+    private Set<String> search(String username, String cardNumber) {
+        FilterPageCardDTO filters = filters();
+        filters.setUsername(username);
+        filters.setCardNumber(cardNumber);
+        // the admin listing masks numbers, so matches are resolved back through the ids
+        Set<Integer> ids = cardService.getPaginatedAllCardsAsDto(filters).getContent().stream()
+            .map(CardDTO::getId)
+            .collect(Collectors.toSet());
+        return cardRepo.findAllById(ids).stream().map(Card::getCardNumber).collect(Collectors.toSet());
+    }
+
+    private FilterPageCardDTO filters() {
+        FilterPageCardDTO filters = new FilterPageCardDTO();
+        filters.setSortBy("id");
+        filters.setDirectionSort("asc");
+        filters.setSize(10);
+        return filters;
+    }
+
+    private void addCard(String cardNumber, User owner) {
+        NewCardDTO newCard = new NewCardDTO();
+        newCard.setCardNumber(cardNumber);
+        newCard.setOwnerId(owner.getId());
+        newCard.setValidityPeriod(LocalDate.now().plusYears(1));
+        cardService.addNewCard(newCard);
+    }
+
+    private User newUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("password");
+        user.setRole("ROLE_USER");
+        userRepo.save(user);
+        userRepo.indexUsername(user.getId(), username);
+        return user;
+    }
+}
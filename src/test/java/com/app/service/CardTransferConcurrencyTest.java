@@ -0,0 +1,144 @@
+package com.app.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.app.dto.TransferBetweenCardsDTO;
+import com.app.exception.NotEnoughBalanceException;
+import com.app.model.Card;
+import com.app.model.CardTransaction;
+import com.app.model.Money;
+import com.app.model.STATUS;
+import com.app.model.User;
+import com.app.repository.CardRepository;
+import com.app.repository.CardTransactionRepository;
+import com.app.repository.UserRepository;
+import com.app.security.JwtUserPrincipal;
+
+@SpringJUnitConfig(CardH2TestConfig.class)
+class CardTransferConcurrencyTest {
+
+    private static final int CARDS = 4;
+    private static final int TRANSFERS = 2000;
+    private static final int THREADS = CardH2TestConfig.POOL_SIZE;
+    private static final Money INITIAL_BALANCE = Money.of("1000.00");
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private TransactionRetrier transactionRetrier;
+
+    @Autowired
+    private CardRepository cardRepo;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private CardTransactionRepository cardTransactionRepo;
+
+    private Authentication authentication;
+    private List<String> cardNumbers;
+
+    @BeforeEach
+    void setUp() {
+        cardTransactionRepo.deleteAllInBatch();
+        cardRepo.deleteAll();
+        userRepo.deleteAll();
+
+        User user = new User();
+        user.setUsername("owner");
+        user.setPassword("password");
+        user.setRole("ROLE_USER");
+        user = userRepo.save(user);
+
+        cardNumbers = new ArrayList<>();
+        for (int i = 0; i < CARDS; i++) {
+            Card card = new Card();
+            card.setCardNumber("400000000000000" + i);
+            card.setOwnerId(user.getId());
+            card.setValidityPeriod(LocalDate.now().plusYears(3));
+            card.setStatus(STATUS.ACTIVE);
+            card.setBalance(INITIAL_BALANCE);
+            cardRepo.save(card);
+            cardNumbers.add(card.getCardNumber());
+        }
+
+        JwtUserPrincipal principal = new JwtUserPrincipal(user.getId(), user.getUsername(), user.getRole());
+        authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+
+    @ParameterizedTest
+    @EnumSource(CardService.LockingMode.class)
+    void concurrentOpposingTransfers_ConserveTotalBalance(CardService.LockingMode lockingMode) throws Exception {
+        CardService target = AopTestUtils.getTargetObject(cardService);
+        ReflectionTestUtils.setField(target, "lockingMode", lockingMode);
+        // optimistic mode on four hot rows conflicts constantly, give it room to converge
+        ReflectionTestUtils.setField(transactionRetrier, "maxAttempts", lockingMode == CardService.LockingMode.OPTIMISTIC ? 100 : 3);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < TRANSFERS; i++) {
+                results.add(executor.submit(() -> {
+                    try {
+                        cardService.transferBetweenCards(authentication, randomTransfer());
+                    } catch (NotEnoughBalanceException e) {
+                        // a drained card is a legitimate outcome, not a lost update
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<Card> cards = cardRepo.findAll();
+        assertEquals(CARDS * INITIAL_BALANCE.minorUnits(), cards.stream().mapToLong(card -> card.getBalance().minorUnits()).sum());
+        assertTrue(cards.stream().noneMatch(card -> card.getBalance().isLessThan(Money.ZERO)));
+
+        // the ledger must explain every balance change
+        List<CardTransaction> ledger = cardTransactionRepo.findAll();
+        for (Card card : cards) {
+            long ledgerTotal = ledger.stream()
+                .filter(transaction -> transaction.getCardId().equals(card.getId()))
+                .mapToLong(transaction -> transaction.getAmount().minorUnits())
+                .sum();
+            assertEquals(card.getBalance().minorUnits() - INITIAL_BALANCE.minorUnits(), ledgerTotal);
+        }
+        assertEquals(0, ledger.stream().mapToLong(transaction -> transaction.getAmount().minorUnits()).sum());
+    }
+
+    private TransferBetweenCardsDTO randomTransfer() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(CARDS);
+        int to = (from + 1 + random.nextInt(CARDS - 1)) % CARDS;
+
+        TransferBetweenCardsDTO transfer = new TransferBetweenCardsDTO();
+        transfer.setFirstCardNumber(cardNumbers.get(from));
+        transfer.setSecondCardNumber(cardNumbers.get(to));
+        transfer.setAmountTransferBetweenCards(Money.ofMinor(1 + random.nextInt(1000)));
+        return transfer;
+    }
+}
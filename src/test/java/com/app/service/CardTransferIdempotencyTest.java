@@ -0,0 +1,155 @@
+package com.app.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import com.app.dto.TransferBetweenCardsDTO;
+import com.app.exception.IdempotencyKeyReusedException;
+import com.app.exception.NotEnoughBalanceException;
+import com.app.model.Card;
+import com.app.model.Money;
+import com.app.model.STATUS;
+import com.app.model.User;
+import com.app.repository.CardRepository;
+import com.app.repository.CardTransactionRepository;
+import com.app.repository.UserRepository;
+import com.app.security.JwtUserPrincipal;
+
+@SpringJUnitConfig(CardH2TestConfig.class)
+class CardTransferIdempotencyTest {
+
+    private static final String FIRST_CARD = "6000000000000001";
+    private static final String SECOND_CARD = "6000000000000002";
+    private static final int THREADS = 8;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private CardRepository cardRepo;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private CardTransactionRepository cardTransactionRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Authentication authentication;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM idempotency_keys");
+        cardTransactionRepo.deleteAllInBatch();
+        cardRepo.deleteAll();
+        userRepo.deleteAll();
+
+        User user = new User();
+        user.setUsername("owner");
+        user.setPassword("password");
+        user.setRole("ROLE_USER");
+        user = userRepo.save(user);
+        newCard(FIRST_CARD, user, Money.of("100.00"));
+        newCard(SECOND_CARD, user, Money.of("100.00"));
+
+        JwtUserPrincipal principal = new JwtUserPrincipal(user.getId(), user.getUsername(), user.getRole());
+        authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+
+    @Test
+    void transfer_RepeatedKey_IsAppliedOnce() {
+        assertTrue(cardService.transferBetweenCards(authentication, transfer(Money.of("10.00")), "key-1"));
+        assertFalse(cardService.transferBetweenCards(authentication, transfer(Money.of("10.00")), "key-1"));
+
+        assertEquals(Money.of("90.00"), balanceOf(FIRST_CARD));
+        assertEquals(2, cardTransactionRepo.count());
+    }
+
+    @Test
+    void transfer_RepeatedKeyWithDifferentAmount_ThrowsException() {
+        cardService.transferBetweenCards(authentication, transfer(Money.of("10.00")), "key-1");
+
+        assertThrows(IdempotencyKeyReusedException.class,
+            () -> cardService.transferBetweenCards(authentication, transfer(Money.of("20.00")), "key-1"));
+        assertEquals(Money.of("90.00"), balanceOf(FIRST_CARD));
+    }
+
+    @Test
+    void transfer_FailedAttempt_DoesNotConsumeKey() {
+        assertThrows(NotEnoughBalanceException.class,
+            () -> cardService.transferBetweenCards(authentication, transfer(Money.of("500.00")), "key-1"));
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM idempotency_keys", Integer.class));
+    }
+
+    @Test
+    void transfer_SameKeyConcurrently_IsAppliedOnce() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        Callable<Boolean> task = () -> {
+            start.await();
+            return cardService.transferBetweenCards(authentication, transfer(Money.of("10.00")), "key-1");
+        };
+        for (int i = 0; i < THREADS; i++) {
+            results.add(executor.submit(task));
+        }
+        start.countDown();
+
+        int executed = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get()) {
+                executed++;
+            }
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(1, executed);
+        assertEquals(Money.of("90.00"), balanceOf(FIRST_CARD));
+        assertEquals(Money.of("110.00"), balanceOf(SECOND_CARD));
+    }
+
+    private void newCard(String cardNumber, User owner, Money balance) {
+        Card card = new Card();
+        card.setCardNumber(cardNumber);
+        card.setOwnerId(owner.getId());
+        card.setValidityPeriod(LocalDate.now().plusYears(3));
+        card.setStatus(STATUS.ACTIVE);
+        card.setBalance(balance);
+        cardRepo.save(card);
+    }
+
+    private TransferBetweenCardsDTO transfer(Money amount) {
+        TransferBetweenCardsDTO transfer = new TransferBetweenCardsDTO();
+        transfer.setFirstCardNumber(FIRST_CARD);
+        transfer.setSecondCardNumber(SECOND_CARD);
+        transfer.setAmountTransferBetweenCards(amount);
+        return transfer;
+    }
+
+    private Money balanceOf(String cardNumber) {
+        return cardRepo.findByCardNumber(cardNumber).orElseThrow().getBalance();
+    }
+}
@@ -0,0 +1,100 @@
+package com.app.service;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import com.app.dto.NewCardDTO;
+import com.app.dto.RegistrationDTO;
+import com.app.exception.ValidationValueException;
+import com.app.model.User;
+import com.app.repository.CardRepository;
+import com.app.repository.CardTransactionRepository;
+import com.app.repository.UserRepository;
+
+// rows are inserted with plain SQL, so the existence filters have not seen them and only the unique index catches the duplicate
+@SpringJUnitConfig(UserH2TestConfig.class)
+class DuplicateKeyIntegrationTest {
+
+    @MockitoBean
+    private PasswordEncoder passwordEncoder;
+
+    @MockitoBean
+    private JwtService jwtService;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CardRepository cardRepo;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private CardTransactionRepository cardTransactionRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User alice;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM card_number_suffixes");
+        jdbcTemplate.update("DELETE FROM username_suffixes");
+        cardTransactionRepo.deleteAllInBatch();
+        cardRepo.deleteAll();
+        userRepo.deleteAll();
+
+        alice = new User();
+        alice.setUsername("alice");
+        alice.setPassword("password");
+        alice.setRole("ROLE_USER");
+        alice = userRepo.save(alice);
+    }
+
+    @Test
+    void addNewCard_NumberInsertedBehindTheFilter_ThrowsValidationValueException() {
+        jdbcTemplate.update("INSERT INTO cards (card_number, owner_id, validity_period, status, balance, version) VALUES (?, ?, ?, 'ACTIVE', 0, 0)",
+            "7777000022220001", alice.getId(), LocalDate.now().plusYears(1));
+        NewCardDTO newCard = new NewCardDTO();
+        newCard.setCardNumber("7777000022220001");
+        newCard.setOwnerId(alice.getId());
+        newCard.setValidityPeriod(LocalDate.now().plusYears(1));
+
+        ValidationValueException exception = assertThrows(ValidationValueException.class, () -> cardService.addNewCard(newCard));
+
+        assertEquals(Map.of("cardNumber", "Card with specified number exist already"), exception.getValidationErrors());
+        assertEquals(1, cardRepo.count());
+    }
+
+    @Test
+    void registerUser_UsernameInsertedBehindTheFilter_ThrowsValidationValueException() {
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        jdbcTemplate.update("INSERT INTO users (username, password, role) VALUES ('carol-duplicate', 'password', 'ROLE_USER')");
+        RegistrationDTO registration = new RegistrationDTO();
+        registration.setUsername("carol-duplicate");
+        registration.setPassword("password");
+        registration.setPasswordConfirm("password");
+
+        ValidationValueException exception = assertThrows(ValidationValueException.class, () -> userService.registerUser(registration));
+
+        assertEquals(Map.of("username", "Specified username is not unique"), exception.getValidationErrors());
+        assertEquals(2, userRepo.count());
+    }
+}
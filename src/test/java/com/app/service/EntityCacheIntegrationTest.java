@@ -0,0 +1,190 @@
+package com.app.service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.app.config.EntityCacheMetrics;
+import com.app.dto.BatchCardDTO;
+import com.app.dto.BatchNewCardsDTO;
+import com.app.dto.CardNumberDTO;
+import com.app.dto.NewCardDTO;
+import com.app.dto.UsernameDTO;
+import com.app.model.Card;
+import com.app.model.Money;
+import com.app.model.User;
+import com.app.repository.CardRepository;
+import com.app.repository.CardTransactionRepository;
+import com.app.repository.UserRepository;
+
+@SpringJUnitConfig(UserH2TestConfig.class)
+class EntityCacheIntegrationTest {
+
+    @MockitoBean
+    private PasswordEncoder passwordEncoder;
+
+    @MockitoBean
+    private JwtService jwtService;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CardRepository cardRepo;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private CardTransactionRepository cardTransactionRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityCacheMetrics entityCacheMetrics;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User alice;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM card_number_suffixes");
+        jdbcTemplate.update("DELETE FROM username_suffixes");
+        cardTransactionRepo.deleteAllInBatch();
+        cardRepo.deleteAll();
+        userRepo.deleteAll();
+
+        alice = newUser("alice");
+    }
+
+    @Test
+    void findByUsername_SecondLookup_IsServedFromTheCache() {
+        userRepo.findByUsername("alice");
+        long usernameHits = hits(User.NATURAL_ID_CACHE_REGION);
+        long userHits = hits(User.CACHE_REGION);
+
+        User user = userRepo.findByUsername("alice").get();
+
+        assertEquals(alice.getId(), user.getId());
+        assertEquals("ROLE_USER", user.getRole());
+        assertEquals(usernameHits + 1, hits(User.NATURAL_ID_CACHE_REGION));
+        assertEquals(userHits + 1, hits(User.CACHE_REGION));
+    }
+
+    @Test
+    void findByUsername_AfterUserIsDeletedAndRegisteredAgain_ReturnsTheNewUser() {
+        userRepo.findByUsername("alice");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> userRepo.deleteByUsername("alice"));
+
+        assertTrue(userRepo.findByUsername("alice").isEmpty());
+        assertTrue(userRepo.findById(alice.getId()).isEmpty());
+        User newAlice = newUser("alice");
+        assertEquals(newAlice.getId(), userRepo.findByUsername("alice").get().getId());
+    }
+
+    @Test
+    void findByCardNumber_ReadsTheBalanceFromTheDatabaseEveryTime() {
+        addCard("1111222233334444");
+        cardRepo.findByCardNumber("1111222233334444");
+        long cardNumberHits = hits(Card.NATURAL_ID_CACHE_REGION);
+
+        jdbcTemplate.update("UPDATE cards SET balance = 12345 WHERE card_number = ?", "1111222233334444");
+        Card card = cardRepo.findByCardNumber("1111222233334444").get();
+
+        assertEquals(Money.ofMinor(12345), card.getBalance());
+        assertEquals(cardNumberHits + 1, hits(Card.NATURAL_ID_CACHE_REGION));
+    }
+
+    @Test
+    void findByCardNumber_AfterCardIsDeletedAndIssuedAgain_ReturnsTheNewCard() {
+        addCard("1111222233334444");
+        Integer oldId = cardRepo.findByCardNumber("1111222233334444").get().getId();
+        CardNumberDTO cardNumber = new CardNumberDTO();
+        cardNumber.setCardNumber("1111222233334444");
+
+        cardService.deleteCard(cardNumber);
+
+        assertTrue(cardRepo.findByCardNumber("1111222233334444").isEmpty());
+        // the bulk path inserts through JDBC, bypassing the session
+        BatchCardDTO row = new BatchCardDTO();
+        row.setCardNumber("1111222233334444");
+        row.setOwnerId(alice.getId());
+        row.setValidityPeriod(LocalDate.now().plusYears(1));
+        BatchNewCardsDTO batch = new BatchNewCardsDTO();
+        batch.setCards(List.of(row));
+        cardService.addNewCards(batch);
+        Card card = cardRepo.findByCardNumber("1111222233334444").get();
+        assertNotEquals(oldId, card.getId());
+    }
+
+    @Test
+    void findByCardNumber_AfterOwnerIsDeletedWithTheCardAndNumberIssuedAgain_ReturnsTheNewCard() {
+        cascadeCardsWithTheirOwner();
+        addCard("1111222233334444");
+        Integer oldId = cardRepo.findByCardNumber("1111222233334444").get().getId();
+        UsernameDTO username = new UsernameDTO();
+        username.setUsername("alice");
+
+        userService.deleteUserByUsername(username);
+
+        assertEquals(0, cardRepo.count());
+        User bob = newUser("bob");
+        BatchCardDTO row = new BatchCardDTO();
+        row.setCardNumber("1111222233334444");
+        row.setOwnerId(bob.getId());
+        row.setValidityPeriod(LocalDate.now().plusYears(1));
+        BatchNewCardsDTO batch = new BatchNewCardsDTO();
+        batch.setCards(List.of(row));
+        cardService.addNewCards(batch);
+        Card card = cardRepo.findByCardNumber("1111222233334444").get();
+        assertNotEquals(oldId, card.getId());
+        assertEquals(bob.getId(), card.getOwnerId());
+    }
+
+    // the Liquibase schema deletes cards together with their owner, the schema hbm2ddl creates does not
+    private void cascadeCardsWithTheirOwner() {
+        String foreignKey = jdbcTemplate.queryForObject("SELECT CONSTRAINT_NAME FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS "
+            + "WHERE TABLE_NAME = 'CARDS' AND CONSTRAINT_TYPE = 'FOREIGN KEY'", String.class);
+        jdbcTemplate.execute("ALTER TABLE cards DROP CONSTRAINT " + foreignKey);
+        jdbcTemplate.execute("ALTER TABLE cards ADD CONSTRAINT fk_cards_owner_id FOREIGN KEY (owner_id) REFERENCES users (id) ON DELETE CASCADE");
+    }
+
+    private long hits(String region) {
+        return entityCacheMetrics.getStats().get(region).getHitCount();
+    }
+
+    private void addCard(String cardNumber) {
+        NewCardDTO newCard = new NewCardDTO();
+        newCard.setCardNumber(cardNumber);
+        newCard.setOwnerId(alice.getId());
+        newCard.setValidityPeriod(LocalDate.now().plusYears(1));
+        cardService.addNewCard(newCard);
+    }
+
+    private User newUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("password");
+        user.setRole("ROLE_USER");
+        return userRepo.save(user);
+    }
+}
@@ -0,0 +1,176 @@
+package com.app.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.app.dto.ExistenceFilterStatsDTO;
+
+class ExistenceFilterTest {
+
+    @Test
+    void existing_OnlyQueriesKeysThatMightExist() {
+        ExistenceFilter filter = new ExistenceFilter("cardNumbers", 1000, 0.01);
+        filter.add("1111222233334444");
+        filter.add("5555666677778888");
+        List<List<String>> queried = new ArrayList<>();
+
+        Set<String> existing = filter.existing(List.of("1111222233334444", "5555666677778888", "9999000011112222"), candidates -> {
+            queried.add(candidates);
+            return List.of("1111222233334444");
+        });
+
+        assertEquals(Set.of("1111222233334444"), existing);
+        assertEquals(List.of(List.of("1111222233334444", "5555666677778888")), queried);
+        ExistenceFilterStatsDTO stats = filter.getStats();
+        assertEquals(1, stats.getConfirmedExisting());
+        assertEquals(1, stats.getFalsePositives());
+        assertEquals(1, stats.getSkippedQueries());
+    }
+
+    @Test
+    void bloomFilter_NeverForgetsAddedKeysAndKeepsFalsePositivesNearTarget() {
+        BloomFilter filter = new BloomFilter(100_000, 0.01);
+        for (long i = 0; i < 100_000; i++) {
+            filter.put(cardNumber(i));
+        }
+
+        int falsePositives = 0;
+        for (long i = 0; i < 100_000; i++) {
+            assertTrue(filter.mightContain(cardNumber(i)));
+            if (filter.mightContain(cardNumber(1_000_000 + i))) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+        assertTrue(filter.expectedFalsePositiveRate() < 0.02);
+    }
+
+    @Test
+    void exists_WhenKeyWasNeverAdded_SkipsQuery() {
+        ExistenceFilter filter = new ExistenceFilter("cardNumbers", 1000, 0.01);
+        AtomicInteger queries = new AtomicInteger();
+
+        assertFalse(filter.exists("1111222233334444", key -> queries.incrementAndGet() > 0));
+
+        assertEquals(0, queries.get());
+        assertEquals(1, filter.getStats().getSkippedQueries());
+    }
+
+    @Test
+    void exists_WhenKeyWasAdded_AsksQueryAndCountsFalsePositives() {
+        ExistenceFilter filter = new ExistenceFilter("cardNumbers", 1000, 0.01);
+        filter.add("1111222233334444");
+        filter.add("5555666677778888");
+
+        assertTrue(filter.exists("1111222233334444", key -> true));
+        // added but rolled back or deleted: the filter cannot tell, the query can
+        assertFalse(filter.exists("5555666677778888", key -> false));
+        assertFalse(filter.exists("9999000011112222", key -> true));
+
+        ExistenceFilterStatsDTO stats = filter.getStats();
+        assertEquals(1, stats.getConfirmedExisting());
+        assertEquals(1, stats.getFalsePositives());
+        assertEquals(1, stats.getSkippedQueries());
+        assertEquals(0.5, stats.getObservedFalsePositiveRate());
+        assertEquals(2, stats.getInsertions());
+    }
+
+    @Test
+    void rebuild_DropsRemovedKeysAndResetsCounters() {
+        // no add window: every insert counts as committed
+        ExistenceFilter filter = new ExistenceFilter("usernames", 1000, 0.01, 0);
+        filter.add("alice");
+        filter.add("bob");
+        filter.remove("bob");
+        filter.exists("bob", key -> false);
+        assertEquals(1, filter.getStats().getRemovedSinceRebuild());
+
+        filter.rebuild(1, keys -> List.of("alice").forEach(keys));
+
+        assertFalse(filter.exists("bob", key -> true));
+        assertTrue(filter.exists("alice", key -> true));
+        ExistenceFilterStatsDTO stats = filter.getStats();
+        assertEquals(0, stats.getRemovedSinceRebuild());
+        assertEquals(0, stats.getFalsePositives());
+        assertEquals(1, stats.getInsertions());
+    }
+
+    @Test
+    void rebuild_KeepsKeysAddedWhileItStreams() {
+        ExistenceFilter filter = new ExistenceFilter("usernames", 1000, 0.01);
+
+        filter.rebuild(1, keys -> {
+            keys.accept("alice");
+            // registered after the rebuild read its snapshot
+            filter.add("carol");
+        });
+
+        for (String username : Set.of("alice", "carol")) {
+            assertTrue(filter.exists(username, key -> true), username);
+        }
+    }
+
+    @Test
+    void rebuild_KeepsKeysAddedBeforeItWhoseInsertsHaveNotCommitted() {
+        ExistenceFilter filter = new ExistenceFilter("usernames", 1000, 0.01);
+        // added just before the rebuild, committed after the rebuild read the table
+        filter.add("dave");
+
+        filter.rebuild(1, keys -> keys.accept("alice"));
+
+        assertTrue(filter.exists("dave", key -> true));
+    }
+
+    @Test
+    void rebuild_SizesFilterForTwiceTheKeyCount() {
+        ExistenceFilter filter = new ExistenceFilter("cardNumbers", 100, 0.01);
+
+        filter.rebuild(5_000, keys -> {});
+
+        assertEquals(10_000, filter.getStats().getCapacity());
+    }
+
+    @Test
+    void rebuildIfOverCapacity_RebuildsOnlyPastCapacityAndReportsOverflow() {
+        ExistenceFilter filter = new ExistenceFilter("cardNumbers", 10, 0.01, 0);
+        AtomicInteger counts = new AtomicInteger();
+        for (long i = 0; i < 10; i++) {
+            filter.add(cardNumber(i));
+        }
+
+        assertFalse(filter.rebuildIfOverCapacity(counts::incrementAndGet, keys -> {}));
+        assertEquals(0, counts.get());
+
+        for (long i = 10; i < 25; i++) {
+            filter.add(cardNumber(i));
+        }
+        ExistenceFilterStatsDTO overflowing = filter.getStats();
+        assertTrue(filter.isOverCapacity());
+        assertEquals(15, overflowing.getOverflow());
+
+        assertTrue(filter.rebuildIfOverCapacity(() -> 25, keys -> {
+            for (long i = 0; i < 25; i++) {
+                keys.accept(cardNumber(i));
+            }
+        }));
+
+        ExistenceFilterStatsDTO stats = filter.getStats();
+        assertFalse(filter.isOverCapacity());
+        assertEquals(50, stats.getCapacity());
+        assertEquals(0, stats.getOverflow());
+        assertEquals(1, stats.getOverflowRebuilds());
+        assertTrue(filter.exists(cardNumber(24), key -> true));
+    }
+
+    private static String cardNumber(long i) {
+        return String.format("4000%012d", i);
+    }
+}
@@ -0,0 +1,95 @@
+package com.app.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+import com.app.dto.UserDTO;
+import com.app.exception.ValidationValueException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class ExportWriterTest {
+    private static final List<ExportWriter.Column<UserDTO>> COLUMNS = List.of(
+        new ExportWriter.Column<>("id", UserDTO::getId),
+        new ExportWriter.Column<>("username", UserDTO::getUsername),
+        new ExportWriter.Column<>("role", UserDTO::getRole));
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void csv_QuotesValuesWithSeparatorsAndLeavesNullsEmpty() throws IOException {
+        String csv = write(ExportFormat.CSV, user(1, "smith, john", "ROLE_USER"), user(2, "say \"hi\"", null));
+
+        assertEquals("id,username,role\r\n1,\"smith, john\",ROLE_USER\r\n2,\"say \"\"hi\"\"\",\r\n", csv);
+    }
+
+    @Test
+    void csv_PrefixesTextThatSpreadsheetsWouldRunAsFormula() throws IOException {
+        String csv = write(ExportFormat.CSV, user(-1, "=HYPERLINK(\"http://x\")", "+1"), user(2, "-2+3", "@SUM(A1)"), user(3, "a=b", "\tx"));
+
+        assertEquals("id,username,role\r\n-1,\"'=HYPERLINK(\"\"http://x\"\")\",'+1\r\n2,'-2+3,'@SUM(A1)\r\n3,a=b,'\tx\r\n", csv);
+    }
+
+    @Test
+    void ndjson_WritesOneObjectPerLine() throws IOException {
+        String ndjson = write(ExportFormat.NDJSON, user(1, "alice", "ROLE_USER"), user(2, "bob", "ROLE_ADMIN"));
+
+        assertEquals("{\"id\":1,\"username\":\"alice\",\"role\":\"ROLE_USER\"}\n"
+            + "{\"id\":2,\"username\":\"bob\",\"role\":\"ROLE_ADMIN\"}\n", ndjson);
+    }
+
+    @Test
+    void ndjson_WithoutRows_WritesNothing() throws IOException {
+        assertEquals("", write(ExportFormat.NDJSON));
+    }
+
+    @Test
+    void close_LeavesTargetStreamOpen() throws IOException {
+        ClosingTrackingStream out = new ClosingTrackingStream();
+
+        ExportWriter.open(ExportFormat.NDJSON, out, objectMapper, COLUMNS).close();
+        ExportWriter.open(ExportFormat.CSV, out, objectMapper, COLUMNS).close();
+
+        assertFalse(out.closed);
+    }
+
+    @Test
+    void exportFormat_IsCaseInsensitiveAndRejectsUnknownFormats() {
+        assertEquals(ExportFormat.CSV, ExportFormat.of("csv"));
+        assertEquals(ExportFormat.NDJSON, ExportFormat.of("NDJSON"));
+        assertThrows(ValidationValueException.class, () -> ExportFormat.of("xml"));
+    }
+
+    private String write(ExportFormat format, UserDTO... rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ExportWriter<UserDTO> writer = ExportWriter.open(format, out, objectMapper, COLUMNS)) {
+            for (UserDTO row : rows) {
+                writer.write(row);
+            }
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private UserDTO user(Integer id, String username, String role) {
+        UserDTO user = new UserDTO();
+        user.setId(id);
+        user.setUsername(username);
+        user.setRole(role);
+        return user;
+    }
+
+    private static class ClosingTrackingStream extends ByteArrayOutputStream {
+        private boolean closed;
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.app.service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.app.exception.IdempotencyKeyReusedException;
+import com.app.exception.ValidationValueException;
+
+class IdempotencyStoreTest {
+
+    private static final long TTL_SECONDS = 3600;
+    private static final String HASH = IdempotencyStore.fingerprint("request");
+    private static final String OTHER_HASH = IdempotencyStore.fingerprint("other request");
+
+    private JdbcTemplate jdbcTemplate;
+    private IdempotencyStore idempotencyStore;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:idempotency;DB_CLOSE_DELAY=-1"));
+        jdbcTemplate.execute(CardH2TestConfig.IDEMPOTENCY_KEYS_DDL);
+        jdbcTemplate.update("DELETE FROM idempotency_keys");
+
+        idempotencyStore = new IdempotencyStore();
+        ReflectionTestUtils.setField(idempotencyStore, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(idempotencyStore, "keyTtl", TTL_SECONDS);
+        ReflectionTestUtils.setField(idempotencyStore, "cacheSize", 100L);
+        idempotencyStore.init();
+    }
+
+    @Test
+    void isCompleted_UnknownKey_ReturnsFalse() {
+        assertFalse(idempotencyStore.isCompleted(1, "key", HASH));
+    }
+
+    @Test
+    void isCompleted_ClaimedKeyWithSameRequest_ReturnsTrue() {
+        idempotencyStore.claim(1, "key", HASH);
+
+        assertTrue(idempotencyStore.isCompleted(1, "key", HASH));
+        assertFalse(idempotencyStore.isCompleted(2, "key", HASH));
+    }
+
+    @Test
+    void isCompleted_ClaimedKeyWithDifferentRequest_ThrowsException() {
+        idempotencyStore.claim(1, "key", HASH);
+
+        assertThrows(IdempotencyKeyReusedException.class, () -> idempotencyStore.isCompleted(1, "key", OTHER_HASH));
+    }
+
+    @Test
+    void isCompleted_RememberedKey_IsServedFromCache() {
+        idempotencyStore.remember(1, "key", HASH);
+
+        assertTrue(idempotencyStore.isCompleted(1, "key", HASH));
+    }
+
+    @Test
+    void claim_SameKeyTwice_ThrowsDuplicateKeyException() {
+        idempotencyStore.claim(1, "key", HASH);
+
+        assertThrows(DuplicateKeyException.class, () -> idempotencyStore.claim(1, "key", HASH));
+    }
+
+    @Test
+    void claim_ExpiredKey_CanBeReused() {
+        insertExpired(1, "key", OTHER_HASH);
+
+        assertFalse(idempotencyStore.isCompleted(1, "key", HASH));
+        idempotencyStore.claim(1, "key", HASH);
+
+        assertTrue(idempotencyStore.isCompleted(1, "key", HASH));
+    }
+
+    @Test
+    void removeExpired_DeletesOnlyExpiredKeys() {
+        insertExpired(1, "old", HASH);
+        idempotencyStore.claim(1, "fresh", HASH);
+
+        idempotencyStore.removeExpired();
+
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM idempotency_keys", Integer.class));
+        assertTrue(idempotencyStore.isCompleted(1, "fresh", HASH));
+    }
+
+    @Test
+    void validateKey_BlankOrTooLongKey_ThrowsException() {
+        assertThrows(ValidationValueException.class, () -> idempotencyStore.validateKey(" "));
+        assertThrows(ValidationValueException.class, () -> idempotencyStore.validateKey("k".repeat(IdempotencyStore.MAX_KEY_LENGTH + 1)));
+    }
+
+    @Test
+    void fingerprint_DependsOnEveryPart() {
+        assertEquals(IdempotencyStore.fingerprint("a", "b", 1L), IdempotencyStore.fingerprint("a", "b", 1L));
+        assertNotEquals(IdempotencyStore.fingerprint("a", "b", 1L), IdempotencyStore.fingerprint("a", "b", 2L));
+        assertNotEquals(IdempotencyStore.fingerprint("ab", "c"), IdempotencyStore.fingerprint("a", "bc"));
+    }
+
+    private void insertExpired(Integer userId, String key, String hash) {
+        jdbcTemplate.update("INSERT INTO idempotency_keys (user_id, idempotency_key, request_hash, created_at) VALUES (?, ?, ?, ?)",
+            userId, key, hash, Timestamp.from(Instant.now().minusSeconds(TTL_SECONDS + 60)));
+    }
+}
@@ -0,0 +1,70 @@
+package com.app.service;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SignatureException;
+
+class JwtKeyHolderTest {
+
+    private final String jwtSecret = "veryLongAndSecureSecretKeyThatIsAtLeast256BitsLongForHS512Algorithm";
+    private final String rotatedSecret = "anotherVeryLongAndSecureSecretKeyThatIsAtLeast256BitsLongForHS512";
+
+    private JwtKeyHolder keyHolder;
+
+    @BeforeEach
+    void setUp() {
+        keyHolder = new JwtKeyHolder(jwtSecret);
+    }
+
+    private String signToken(String username) {
+        return Jwts.builder()
+                .subject(username)
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(keyHolder.getSigningKey())
+                .compact();
+    }
+
+    @Test
+    void getParser_ReturnsSharedInstance() {
+        assertSame(keyHolder.getParser(), keyHolder.getParser());
+        assertSame(keyHolder.getSigningKey(), keyHolder.getSigningKey());
+    }
+
+    @Test
+    void getParser_VerifiesTokenSignedWithHeldKey() {
+        String token = signToken("testuser");
+
+        String subject = keyHolder.getParser().parseSignedClaims(token).getPayload().getSubject();
+
+        assertEquals("testuser", subject);
+    }
+
+    @Test
+    void rotate_ReplacesKeyAndParser() {
+        Object oldKey = keyHolder.getSigningKey();
+        Object oldParser = keyHolder.getParser();
+
+        keyHolder.rotate(rotatedSecret);
+
+        assertNotSame(oldKey, keyHolder.getSigningKey());
+        assertNotSame(oldParser, keyHolder.getParser());
+    }
+
+    @Test
+    void rotate_TokensSignedWithOldKeyAreRejected() {
+        String oldToken = signToken("testuser");
+
+        keyHolder.rotate(rotatedSecret);
+
+        assertThrows(SignatureException.class, () -> keyHolder.getParser().parseSignedClaims(oldToken));
+        assertEquals("testuser", keyHolder.getParser().parseSignedClaims(signToken("testuser")).getPayload().getSubject());
+    }
+}
@@ -20,6 +20,8 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import com.app.dto.JwtAuthenticationDTO;
+import com.app.model.User;
+import com.app.service.JwtVerificationResult.Failure;
 
 import jakarta.servlet.http.HttpServletRequest;
 
@@ -33,17 +35,26 @@ class JwtServiceTest {
     private HttpServletRequest request;
 
     private final String testUsername = "testuser";
+    private final User testUser = newUser(7, testUsername, "ROLE_ADMIN");
     private final String jwtSecret = "veryLongAndSecureSecretKeyThatIsAtLeast256BitsLongForHS512Algorithm";
     private final long tokenExpiration = 3600;
     private final long refreshTokenExpiration = 86400;
 
     @BeforeEach
     void setUp() throws Exception {
-        setPrivateField(jwtService, "jwtSecret", jwtSecret);
+        setPrivateField(jwtService, "keyHolder", new JwtKeyHolder(jwtSecret));
         setPrivateField(jwtService, "jwtTokenExpiration", tokenExpiration);
         setPrivateField(jwtService, "jwtRefreshTokenExpiration", refreshTokenExpiration);
     }
 
+    private static User newUser(Integer id, String username, String role) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setRole(role);
+        return user;
+    }
+
     private void setPrivateField(Object target, String fieldName, Object value) 
             throws NoSuchFieldException, IllegalAccessException {
         Field field = target.getClass().getDeclaredField(fieldName);
@@ -53,7 +64,7 @@ class JwtServiceTest {
 
     @Test
     void generateAuthToken_WithValidUsername_ReturnsValidJwtTokens() {
-        JwtAuthenticationDTO result = jwtService.generateAuthToken(testUsername);
+        JwtAuthenticationDTO result = jwtService.generateAuthToken(testUser);
 
         assertNotNull(result);
         assertNotNull(result.getToken());
@@ -64,7 +75,7 @@ class JwtServiceTest {
 
     @Test
     void generateAuthToken_TokensContainUsername() {
-        JwtAuthenticationDTO result = jwtService.generateAuthToken(testUsername);
+        JwtAuthenticationDTO result = jwtService.generateAuthToken(testUser);
         String usernameFromToken = jwtService.getUsernameFromToken(result.getToken());
         String usernameFromRefreshToken = jwtService.getUsernameFromToken(result.getRefreshToken());
 
@@ -72,11 +83,23 @@ class JwtServiceTest {
         assertEquals(testUsername, usernameFromRefreshToken);
     }
 
+    @Test
+    void generateAuthToken_AccessTokenCarriesUserIdAndRole() {
+        JwtAuthenticationDTO result = jwtService.generateAuthToken(testUser);
+
+        JwtVerificationResult access = jwtService.verifyToken(result.getToken());
+        JwtVerificationResult refresh = jwtService.verifyToken(result.getRefreshToken());
+
+        assertEquals(7, access.claims().get(JwtService.CLAIM_USER_ID, Integer.class));
+        assertEquals("ROLE_ADMIN", access.claims().get(JwtService.CLAIM_ROLE, String.class));
+        assertNull(refresh.claims().get(JwtService.CLAIM_ROLE, String.class));
+    }
+
     @Test
     void refreshBaseToken_WithValidInput_ReturnsNewAccessTokenWithSameRefreshToken() {
-        String existingRefreshToken = jwtService.generateAuthToken(testUsername).getRefreshToken();
+        String existingRefreshToken = jwtService.generateAuthToken(testUser).getRefreshToken();
 
-        JwtAuthenticationDTO result = jwtService.refreshBaseToken(testUsername, existingRefreshToken);
+        JwtAuthenticationDTO result = jwtService.refreshBaseToken(testUser, existingRefreshToken);
 
         assertNotNull(result);
         assertNotNull(result.getToken());
@@ -86,7 +109,7 @@ class JwtServiceTest {
 
     @Test
     void getUsernameFromToken_WithValidToken_ReturnsUsername() {
-        String token = jwtService.generateAuthToken(testUsername).getToken();
+        String token = jwtService.generateAuthToken(testUser).getToken();
 
         String username = jwtService.getUsernameFromToken(token);
 
@@ -95,7 +118,7 @@ class JwtServiceTest {
 
     @Test
     void getUsernameFromRequest_WithValidAuthorizationHeader_ReturnsUsername() {
-        String token = jwtService.generateAuthToken(testUsername).getToken();
+        String token = jwtService.generateAuthToken(testUser).getToken();
         when(request.getHeader(HttpHeaders.AUTHORIZATION)).thenReturn("Bearer " + token);
 
         String username = jwtService.getUsernameFromRequest(request);
@@ -147,7 +170,7 @@ class JwtServiceTest {
 
     @Test
     void validateJwtToken_WithValidToken_ReturnsTrue() {
-        String validToken = jwtService.generateAuthToken(testUsername).getToken();
+        String validToken = jwtService.generateAuthToken(testUser).getToken();
 
         boolean isValid = jwtService.validateJwtToken(validToken);
 
@@ -157,7 +180,7 @@ class JwtServiceTest {
     @Test
     void validateJwtToken_WithExpiredToken_ReturnsFalse() throws Exception {
         setPrivateField(jwtService, "jwtTokenExpiration", -3600L);
-        String expiredToken = jwtService.generateAuthToken(testUsername).getToken();
+        String expiredToken = jwtService.generateAuthToken(testUser).getToken();
         setPrivateField(jwtService, "jwtTokenExpiration", tokenExpiration);
 
         boolean isValid = jwtService.validateJwtToken(expiredToken);
@@ -187,13 +210,62 @@ class JwtServiceTest {
         assertFalse(isValid);
     }
 
+    @Test
+    void verifyToken_WithValidToken_ReturnsClaims() {
+        String validToken = jwtService.generateAuthToken(testUser).getToken();
+
+        JwtVerificationResult result = jwtService.verifyToken(validToken);
+
+        assertTrue(result.isValid());
+        assertNull(result.failure());
+        assertEquals(testUsername, result.getSubject());
+    }
+
+    @Test
+    void verifyToken_WithExpiredToken_ReturnsExpiredFailure() throws Exception {
+        setPrivateField(jwtService, "jwtTokenExpiration", -3600L);
+        String expiredToken = jwtService.generateAuthToken(testUser).getToken();
+        setPrivateField(jwtService, "jwtTokenExpiration", tokenExpiration);
+
+        JwtVerificationResult result = jwtService.verifyToken(expiredToken);
+
+        assertFalse(result.isValid());
+        assertEquals(Failure.EXPIRED, result.failure());
+        assertNull(result.claims());
+    }
+
+    @Test
+    void verifyToken_WithMalformedToken_ReturnsMalformedFailure() {
+        JwtVerificationResult result = jwtService.verifyToken("invalid.token.here");
+
+        assertEquals(Failure.MALFORMED, result.failure());
+    }
+
+    @Test
+    void verifyToken_WithForeignSignature_ReturnsBadSignatureFailure() {
+        String token = jwtService.generateAuthToken(testUser).getToken();
+        JwtKeyHolder keyHolder = (JwtKeyHolder) ReflectionTestUtils.getField(jwtService, "keyHolder");
+        keyHolder.rotate("anotherVeryLongAndSecureSecretKeyThatIsAtLeast256BitsLongForHS512");
+
+        JwtVerificationResult result = jwtService.verifyToken(token);
+
+        assertEquals(Failure.BAD_SIGNATURE, result.failure());
+    }
+
+    @Test
+    void verifyToken_WithEmptyToken_ReturnsInvalidFailure() {
+        JwtVerificationResult result = jwtService.verifyToken("");
+
+        assertEquals(Failure.INVALID, result.failure());
+    }
+
     @Test
     void generateJwtToken_WithDifferentUsernames_ProducesDifferentTokens() {
         String username1 = "user1";
         String username2 = "user2";
 
-        String token1 = jwtService.generateAuthToken(username1).getToken();
-        String token2 = jwtService.generateAuthToken(username2).getToken();
+        String token1 = jwtService.generateAuthToken(newUser(1, username1, "ROLE_USER")).getToken();
+        String token2 = jwtService.generateAuthToken(newUser(2, username2, "ROLE_USER")).getToken();
 
         assertNotEquals(token1, token2);
         assertEquals(username1, jwtService.getUsernameFromToken(token1));
@@ -202,7 +274,7 @@ class JwtServiceTest {
 
     @Test
     void tokenAndRefreshToken_HaveDifferentExpirationTimes() {
-        JwtAuthenticationDTO tokens = jwtService.generateAuthToken(testUsername);
+        JwtAuthenticationDTO tokens = jwtService.generateAuthToken(testUser);
         String accessToken = tokens.getToken();
         String refreshToken = tokens.getRefreshToken();
 
@@ -210,10 +282,11 @@ class JwtServiceTest {
     }
 
     @Test
-    void getSingInKey_ReturnsConsistentKey() throws Exception {
+    void getSigningKey_ReturnsConsistentKey() throws Exception {
+        JwtKeyHolder keyHolder = (JwtKeyHolder) ReflectionTestUtils.getField(jwtService, "keyHolder");
 
-        Object key1 = ReflectionTestUtils.invokeMethod(jwtService, "getSingInKey");
-        Object key2 = ReflectionTestUtils.invokeMethod(jwtService, "getSingInKey");
+        Object key1 = keyHolder.getSigningKey();
+        Object key2 = keyHolder.getSigningKey();
 
         assertEquals(key1, key2);
     }
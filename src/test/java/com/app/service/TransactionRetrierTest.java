@@ -0,0 +1,80 @@
+package com.app.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.app.exception.NotEnoughBalanceException;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionRetrierTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private TransactionRetrier transactionRetrier;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(transactionRetrier, "maxAttempts", 3);
+        ReflectionTestUtils.setField(transactionRetrier, "backoffMillis", 1L);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    @Test
+    void execute_LockFailure_RetriesUntilSuccess() {
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = transactionRetrier.execute(() -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new CannotAcquireLockException("deadlock");
+            }
+            return "done";
+        });
+
+        assertEquals("done", result);
+        assertEquals(3, calls.get());
+        verify(transactionManager, times(2)).rollback(any());
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    void execute_LockFailureEveryAttempt_RethrowsAfterMaxAttempts() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(CannotAcquireLockException.class, () -> transactionRetrier.execute(() -> {
+            calls.incrementAndGet();
+            throw new CannotAcquireLockException("deadlock");
+        }));
+
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void execute_BusinessException_IsNotRetried() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(NotEnoughBalanceException.class, () -> transactionRetrier.execute(() -> {
+            calls.incrementAndGet();
+            throw new NotEnoughBalanceException();
+        }));
+
+        assertEquals(1, calls.get());
+    }
+}
@@ -0,0 +1,22 @@
+package com.app.service;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import com.app.security.CustomUserServiceImpl;
+
+// UserService on top of the card test context; tests supply PasswordEncoder and JwtService as mocks
+@Configuration
+@Import(CardH2TestConfig.class)
+class UserH2TestConfig {
+    @Bean
+    public UserService userService() {
+        return new UserService();
+    }
+
+    @Bean
+    public CustomUserServiceImpl customUserService() {
+        return new CustomUserServiceImpl();
+    }
+}
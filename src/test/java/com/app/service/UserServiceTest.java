@@ -1,24 +1,33 @@
 package com.app.service;
 
+import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.app.dto.JwtAuthenticationDTO;
 import com.app.dto.RefreshTokenDTO;
@@ -29,8 +38,14 @@ import com.app.dto.UsernameDTO;
 import com.app.exception.AuthenticationFailedException;
 import com.app.exception.InvalidRefreshTokenException;
 import com.app.exception.UserNotFoundException;
+import com.app.exception.ValidationValueException;
 import com.app.model.User;
+import com.app.repository.CardRepository;
 import com.app.repository.UserRepository;
+import com.app.security.CustomUserServiceImpl;
+import com.app.service.JwtVerificationResult.Failure;
+
+import io.jsonwebtoken.Jwts;
 
 @ExtendWith(MockitoExtension.class)
 class UserServiceTest {
@@ -44,6 +59,21 @@ class UserServiceTest {
     @Mock
     private JwtService jwtService;
 
+    @Mock
+    private CustomUserServiceImpl customUserService;
+
+    @Mock
+    private ExistenceFilters existenceFilters;
+
+    @Mock
+    private ExistenceFilter usernameFilter;
+
+    @Mock
+    private ExistenceFilter cardNumberFilter;
+
+    @Mock
+    private CardRepository cardRepo;
+
     @InjectMocks
     private UserService userService;
 
@@ -53,6 +83,10 @@ class UserServiceTest {
     private RefreshTokenDTO refreshTokenDTO;
     private JwtAuthenticationDTO jwtAuthDTO;
 
+    private JwtVerificationResult verified(String username) {
+        return JwtVerificationResult.verified(Jwts.claims().subject(username).build());
+    }
+
     @BeforeEach
     void setUp() {
         testUser = new User();
@@ -82,7 +116,7 @@ class UserServiceTest {
     void signIn_WithValidCredentials_ReturnsJwtTokens() throws UserNotFoundException {
         when(userRepo.findByUsername(anyString())).thenReturn(Optional.of(testUser));
         when(passwordEncoder.matches(anyString(), anyString())).thenReturn(true);
-        when(jwtService.generateAuthToken(anyString())).thenReturn(jwtAuthDTO);
+        when(jwtService.generateAuthToken(any(User.class))).thenReturn(jwtAuthDTO);
 
         JwtAuthenticationDTO result = userService.singIn(credentialsDTO);
 
@@ -91,7 +125,7 @@ class UserServiceTest {
         assertEquals("refreshToken", result.getRefreshToken());
         verify(userRepo).findByUsername("testuser");
         verify(passwordEncoder).matches("password123", "encodedPassword");
-        verify(jwtService).generateAuthToken("testuser");
+        verify(jwtService).generateAuthToken(testUser);
     }
 
     @Test
@@ -115,50 +149,64 @@ class UserServiceTest {
 
     @Test
     void refreshToken_WithValidRefreshToken_ReturnsNewAccessToken() throws InvalidRefreshTokenException, UserNotFoundException {
-        when(jwtService.validateJwtToken(anyString())).thenReturn(true);
-        when(jwtService.getUsernameFromToken(anyString())).thenReturn("testuser");
+        when(jwtService.verifyToken(anyString())).thenReturn(verified("testuser"));
         when(userRepo.findByUsername(anyString())).thenReturn(Optional.of(testUser));
-        when(jwtService.refreshBaseToken(anyString(), anyString())).thenReturn(jwtAuthDTO);
+        when(jwtService.refreshBaseToken(any(User.class), anyString())).thenReturn(jwtAuthDTO);
 
         JwtAuthenticationDTO result = userService.refreshToken(refreshTokenDTO);
 
         assertNotNull(result);
         assertEquals("accessToken", result.getToken());
-        verify(jwtService).validateJwtToken("validRefreshToken");
-        verify(jwtService).getUsernameFromToken("validRefreshToken");
+        verify(jwtService).verifyToken("validRefreshToken");
         verify(userRepo).findByUsername("testuser");
-        verify(jwtService).refreshBaseToken("testuser", "validRefreshToken");
+        verify(jwtService).refreshBaseToken(testUser, "validRefreshToken");
     }
 
     @Test
     void refreshToken_WithInvalidRefreshToken_ThrowsInvalidRefreshTokenException() {
-        when(jwtService.validateJwtToken(anyString())).thenReturn(false);
+        when(jwtService.verifyToken(anyString())).thenReturn(JwtVerificationResult.failed(Failure.BAD_SIGNATURE));
 
         assertThrows(InvalidRefreshTokenException.class, () -> userService.refreshToken(refreshTokenDTO));
-        verify(jwtService).validateJwtToken("validRefreshToken");
-        verify(jwtService, never()).getUsernameFromToken(anyString());
+        verify(jwtService).verifyToken("validRefreshToken");
+        verify(userRepo, never()).findByUsername(anyString());
     }
 
     @Test
     void refreshToken_WithNonExistentUser_ThrowsUserNotFoundException() {
-        when(jwtService.validateJwtToken(anyString())).thenReturn(true);
-        when(jwtService.getUsernameFromToken(anyString())).thenReturn("nonexistent");
+        when(jwtService.verifyToken(anyString())).thenReturn(verified("nonexistent"));
         when(userRepo.findByUsername(anyString())).thenReturn(Optional.empty());
 
         assertThrows(UserNotFoundException.class, () -> userService.refreshToken(refreshTokenDTO));
-        verify(jwtService).validateJwtToken("validRefreshToken");
-        verify(jwtService).getUsernameFromToken("validRefreshToken");
+        verify(jwtService).verifyToken("validRefreshToken");
         verify(userRepo).findByUsername("nonexistent");
     }
 
     @Test
     void registerUser_WithMatchingPasswords_SavesUser() throws AuthenticationFailedException {
         when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        when(existenceFilters.usernames()).thenReturn(usernameFilter);
 
         userService.registerUser(registrationDTO);
 
         verify(passwordEncoder).encode("password123");
         verify(userRepo).save(any(User.class));
+        verify(userRepo).indexUsername(any(), eq(registrationDTO.getUsername()));
+        verify(usernameFilter).add(registrationDTO.getUsername());
+    }
+
+    @Test
+    void registerUser_UsernameTakenConcurrently_ThrowsValidationValueException() {
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        when(userRepo.save(any(User.class))).thenThrow(new DataIntegrityViolationException("could not execute statement",
+            new ConstraintViolationException("could not execute statement",
+                new SQLException("Duplicate entry '" + registrationDTO.getUsername() + "' for key 'users.uk_users_username'"),
+                ConstraintViolationException.ConstraintKind.UNIQUE, "users.uk_users_username")));
+
+        ValidationValueException exception = assertThrows(ValidationValueException.class, () -> userService.registerUser(registrationDTO));
+
+        assertEquals(Map.of("username", "Specified username is not unique"), exception.getValidationErrors());
+        verify(userRepo, never()).indexUsername(any(), anyString());
+        verify(existenceFilters, never()).usernames();
     }
 
     @Test
@@ -175,11 +223,38 @@ class UserServiceTest {
         UsernameDTO usernameDTO = new UsernameDTO();
         usernameDTO.setUsername("testuser");
         when(userRepo.existsByUsername(anyString())).thenReturn(true);
+        when(existenceFilters.usernames()).thenReturn(usernameFilter);
 
         userService.deleteUserByUsername(usernameDTO);
 
         verify(userRepo).existsByUsername("testuser");
         verify(userRepo).deleteByUsername("testuser");
+        verify(customUserService).evict("testuser");
+        verify(usernameFilter).remove("testuser");
+    }
+
+    @Test
+    void deleteUserByUsername_InTransaction_EvictsPrincipalAndCardNumbersOnlyAfterCommit() {
+        UsernameDTO usernameDTO = new UsernameDTO();
+        usernameDTO.setUsername("testuser");
+        when(userRepo.existsByUsername(anyString())).thenReturn(true);
+        when(cardRepo.findCardNumbersByOwnerUsername("testuser")).thenReturn(List.of("1234567890123456"));
+        when(existenceFilters.usernames()).thenReturn(usernameFilter);
+        when(existenceFilters.cardNumbers()).thenReturn(cardNumberFilter);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userService.deleteUserByUsername(usernameDTO);
+
+            verify(customUserService, never()).evict(anyString());
+            verify(cardRepo, never()).evictCachedCardNumbers(any());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verify(customUserService).evict("testuser");
+        verify(cardRepo).evictCachedCardNumbers(List.of("1234567890123456"));
+        verify(cardNumberFilter).remove("1234567890123456");
     }
 
     @Test
@@ -239,4 +314,12 @@ class UserServiceTest {
         verify(userRepo).findByUsername("testuser");
         verify(passwordEncoder).matches("password123", "encodedPassword");
     }
-}
\ No newline at end of file
+
+    @Test
+    void readMethods_RunInReadOnlyTransactions() throws NoSuchMethodException {
+        assertTrue(UserService.class.getMethod("singIn", UserCredentialsDTO.class).getAnnotation(Transactional.class).readOnly());
+        assertTrue(UserService.class.getMethod("refreshToken", RefreshTokenDTO.class).getAnnotation(Transactional.class).readOnly());
+        assertTrue(UserService.class.getMethod("findByCredentials", UserCredentialsDTO.class).getAnnotation(Transactional.class).readOnly());
+        assertTrue(UserService.class.getMethod("getAllUsersAsDTO").getAnnotation(Transactional.class).readOnly());
+    }
+}
@@ -1,22 +1,33 @@
 package com.app.validator;
 
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.hibernate.validator.messageinterpolation.ParameterMessageInterpolator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import com.app.dto.FilterPageCardDTO;
+import com.app.model.Money;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
 
 @ExtendWith(MockitoExtension.class)
 class FilterPageCardValidatorTest {
 
-    @InjectMocks
-    private FilterPageCardValidator validator;
+    private FilterPageCardValidator validator = new FilterPageCardValidator();
 
     private FilterPageCardDTO validFilters;
 
@@ -27,8 +38,8 @@ class FilterPageCardValidatorTest {
         validFilters.setSortBy("id");
         validFilters.setPage(0);
         validFilters.setSize(10);
-        validFilters.setMinBalance(0.0);
-        validFilters.setMaxBalance(10000.0);
+        validFilters.setMinBalance(Money.of("0.0"));
+        validFilters.setMaxBalance(Money.of("10000.0"));
     }
 
     @Test
@@ -98,6 +109,56 @@ class FilterPageCardValidatorTest {
         assertFalse(validator.isValid(validFilters, null));
     }
 
+    @Test
+    void isValid_WithSizeAboveMaximum_ShouldReturnFalse() {
+        validFilters.setSize(FilterPageCardValidator.DEFAULT_MAX_PAGE_SIZE + 1);
+        assertFalse(validator.isValid(validFilters, null));
+
+        validFilters.setSize(Integer.MAX_VALUE);
+        assertFalse(validator.isValid(validFilters, null));
+    }
+
+    @Test
+    void validate_WithSizeAboveMaximum_ReportsTheSizeProperty() {
+        validFilters.setSize(Integer.MAX_VALUE);
+        try (ValidatorFactory factory = Validation.byDefaultProvider().configure()
+                .messageInterpolator(new ParameterMessageInterpolator()).buildValidatorFactory()) {
+            Set<ConstraintViolation<FilterPageCardDTO>> violations = factory.getValidator().validate(validFilters);
+
+            assertEquals(1, violations.size());
+            ConstraintViolation<FilterPageCardDTO> violation = violations.iterator().next();
+            assertEquals("size", violation.getPropertyPath().toString());
+            assertEquals("Size must be between 1 and 100", violation.getMessage());
+        }
+    }
+
+    @Test
+    void isValid_WithMaximumSize_ShouldReturnTrue() {
+        validFilters.setSize(FilterPageCardValidator.DEFAULT_MAX_PAGE_SIZE);
+        assertTrue(validator.isValid(validFilters, null));
+    }
+
+    @Test
+    void isValid_WithConfiguredMaximumSize_UsesIt() {
+        ReflectionTestUtils.setField(validator, "maxPageSize", 20);
+        validFilters.setSize(21);
+        assertFalse(validator.isValid(validFilters, null));
+    }
+
+    @Test
+    void isValid_WithNullCountMode_ShouldReturnFalse() {
+        validFilters.setCountMode(null);
+        assertFalse(validator.isValid(validFilters, null));
+    }
+
+    @Test
+    void isValid_WithEmptyOrTooLongCursor_ShouldReturnFalse() {
+        validFilters.setCursor("");
+        assertFalse(validator.isValid(validFilters, null));
+        validFilters.setCursor("a".repeat(513));
+        assertFalse(validator.isValid(validFilters, null));
+    }
+
     @Test
     void isValid_WithValidCardNumber_ShouldReturnTrue() {
         validFilters.setCardNumber("1234567890123456");
@@ -156,22 +217,22 @@ class FilterPageCardValidatorTest {
 
     @Test
     void isValid_WithMinBalanceGreaterThanMaxBalance_ShouldReturnFalse() {
-        validFilters.setMinBalance(1000.0);
-        validFilters.setMaxBalance(500.0);
+        validFilters.setMinBalance(Money.of("1000.0"));
+        validFilters.setMaxBalance(Money.of("500.0"));
         assertFalse(validator.isValid(validFilters, null));
     }
 
     @Test
     void isValid_WithEqualMinMaxBalance_ShouldReturnTrue() {
-        validFilters.setMinBalance(500.0);
-        validFilters.setMaxBalance(500.0);
+        validFilters.setMinBalance(Money.of("500.0"));
+        validFilters.setMaxBalance(Money.of("500.0"));
         assertTrue(validator.isValid(validFilters, null));
     }
 
     @Test
-    void isValid_WithDefaultBalanceValues_ShouldReturnTrue() {
-        validFilters.setMinBalance(FilterPageCardDTO.DEFAULT_MIN_BALANCE);
-        validFilters.setMaxBalance(FilterPageCardDTO.DEFAULT_MAX_BALANCE);
+    void isValid_WithoutBalanceBounds_ShouldReturnTrue() {
+        validFilters.setMinBalance(null);
+        validFilters.setMaxBalance(null);
         assertTrue(validator.isValid(validFilters, null));
     }
 
@@ -185,4 +246,57 @@ class FilterPageCardValidatorTest {
         
         assertTrue(validator.isValid(nullFilters, null));
     }
-}
\ No newline at end of file
+
+    @Test
+    void isValid_WithTooLongOrNonAsciiDigitCardNumber_ShouldReturnFalse() {
+        validFilters.setCardNumber("1".repeat(17));
+        assertFalse(validator.isValid(validFilters, null));
+        validFilters.setCardNumber("\u0661\u0662\u0663");
+        assertFalse(validator.isValid(validFilters, null));
+    }
+
+    @Test
+    void isValid_WithNullDirectionOrSortBy_ShouldReturnFalse() {
+        validFilters.setDirectionSort(null);
+        assertFalse(validator.isValid(validFilters, null));
+
+        validFilters.setDirectionSort("asc");
+        validFilters.setSortBy(null);
+        assertFalse(validator.isValid(validFilters, null));
+    }
+
+    @Test
+    void isValid_AfterMidnight_ComparesWithNewDay() {
+        MutableClock clock = new MutableClock(Instant.parse("2030-05-10T23:59:59Z"));
+        validator = new FilterPageCardValidator(clock);
+        validFilters.setMinEndDate(LocalDate.parse("2030-05-10"));
+
+        assertTrue(validator.isValid(validFilters, null));
+
+        clock.instant = Instant.parse("2030-05-11T00:00:00Z");
+        assertFalse(validator.isValid(validFilters, null));
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -8,6 +8,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -16,6 +17,8 @@ import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.app.repository.CardRepository;
+import com.app.service.ExistenceFilter;
+import com.app.service.ExistenceFilters;
 
 @ExtendWith(MockitoExtension.class)
 class NoOneHasNumberValidatorTest {
@@ -23,17 +26,24 @@ class NoOneHasNumberValidatorTest {
     @Mock
     private CardRepository cardRepository;
 
+    @Mock
+    private ExistenceFilters existenceFilters;
+
+    private final ExistenceFilter cardNumbers = new ExistenceFilter("cardNumbers", 100, 0.01);
+
     @InjectMocks
     private NoOneHasNumberValidator validator;
 
     @BeforeEach
     void setUp() {
+        lenient().when(existenceFilters.cardNumbers()).thenReturn(cardNumbers);
         validator.initialize(mock(NoOneHasNumber.class));
     }
 
     @Test
     void isValid_WhenCardNumberDoesNotExist_ShouldReturnTrue() {
         String cardNumber = "1234567890123456";
+        cardNumbers.add(cardNumber);
         when(cardRepository.existsByCardNumber(cardNumber)).thenReturn(false);
 
         boolean result = validator.isValid(cardNumber, null);
@@ -45,6 +55,7 @@ class NoOneHasNumberValidatorTest {
     @Test
     void isValid_WhenCardNumberExists_ShouldReturnFalse() {
         String cardNumber = "1234567890123456";
+        cardNumbers.add(cardNumber);
         when(cardRepository.existsByCardNumber(cardNumber)).thenReturn(true);
 
         boolean result = validator.isValid(cardNumber, null);
@@ -63,6 +74,7 @@ class NoOneHasNumberValidatorTest {
 
     @Test
     void isValid_WhenCardNumberIsEmpty_ShouldCheckRepository() {
+        cardNumbers.add("");
         when(cardRepository.existsByCardNumber("")).thenReturn(false);
 
         boolean result = validator.isValid("", null);
@@ -76,7 +88,9 @@ class NoOneHasNumberValidatorTest {
         String cardNumber1 = "1111222233334444";
         String cardNumber2 = "5555666677778888";
         
+        cardNumbers.add(cardNumber1);
         when(cardRepository.existsByCardNumber(cardNumber1)).thenReturn(false);
+        cardNumbers.add(cardNumber2);
         when(cardRepository.existsByCardNumber(cardNumber2)).thenReturn(true);
         assertTrue(validator.isValid(cardNumber1, null));
         assertFalse(validator.isValid(cardNumber2, null));
@@ -84,4 +98,12 @@ class NoOneHasNumberValidatorTest {
         verify(cardRepository, times(1)).existsByCardNumber(cardNumber1);
         verify(cardRepository, times(1)).existsByCardNumber(cardNumber2);
     }
-}
\ No newline at end of file
+
+    @Test
+    void isValid_WhenFilterHasNeverSeenCardNumber_ShouldSkipRepository() {
+        boolean result = validator.isValid("1234567890123456", null);
+
+        assertTrue(result);
+        verify(cardRepository, never()).existsByCardNumber(any());
+    }
+}
@@ -8,6 +8,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -17,6 +18,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.Logger;
 
 import com.app.repository.UserRepository;
+import com.app.service.ExistenceFilter;
+import com.app.service.ExistenceFilters;
 
 @ExtendWith(MockitoExtension.class)
 class UniqueUsernameValidatorTest {
@@ -27,17 +30,24 @@ class UniqueUsernameValidatorTest {
     @Mock
     private Logger logger;
 
+    @Mock
+    private ExistenceFilters existenceFilters;
+
+    private final ExistenceFilter usernames = new ExistenceFilter("usernames", 100, 0.01);
+
     @InjectMocks
     private UniqueUsernameValidator validator;
 
     @BeforeEach
     void setUp() {
+        lenient().when(existenceFilters.usernames()).thenReturn(usernames);
         validator.initialize(mock(UniqueUsername.class));
     }
 
     @Test
     void isValid_WhenUsernameDoesNotExist_ShouldReturnTrue() {
         String username = "newuser";
+        usernames.add(username);
         when(userRepository.existsByUsername(username)).thenReturn(false);
 
         boolean result = validator.isValid(username, null);
@@ -49,6 +59,7 @@ class UniqueUsernameValidatorTest {
     @Test
     void isValid_WhenUsernameExists_ShouldReturnFalse() {
         String username = "existinguser";
+        usernames.add(username);
         when(userRepository.existsByUsername(username)).thenReturn(true);
 
         boolean result = validator.isValid(username, null);
@@ -67,6 +78,7 @@ class UniqueUsernameValidatorTest {
 
     @Test
     void isValid_WhenUsernameIsEmpty_ShouldCheckRepository() {
+        usernames.add("");
         when(userRepository.existsByUsername("")).thenReturn(false);
 
         boolean result = validator.isValid("", null);
@@ -80,7 +92,9 @@ class UniqueUsernameValidatorTest {
         String username1 = "user1";
         String username2 = "user2";
         
+        usernames.add(username1);
         when(userRepository.existsByUsername(username1)).thenReturn(false);
+        usernames.add(username2);
         when(userRepository.existsByUsername(username2)).thenReturn(true);
         assertTrue(validator.isValid(username1, null));
         assertFalse(validator.isValid(username2, null));
@@ -92,6 +106,7 @@ class UniqueUsernameValidatorTest {
     @Test
     void isValid_WithSpecialCharacters_ShouldHandleCorrectly() {
         String username = "user@test.com";
+        usernames.add(username);
         when(userRepository.existsByUsername(username)).thenReturn(false);
 
         boolean result = validator.isValid(username, null);
@@ -99,4 +114,12 @@ class UniqueUsernameValidatorTest {
         assertTrue(result);
         verify(userRepository, times(1)).existsByUsername(username);
     }
-}
\ No newline at end of file
+
+    @Test
+    void isValid_WhenFilterHasNeverSeenUsername_ShouldSkipRepository() {
+        boolean result = validator.isValid("newuser", null);
+
+        assertTrue(result);
+        verify(userRepository, never()).existsByUsername(any());
+    }
+}
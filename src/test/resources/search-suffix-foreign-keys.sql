@@ -0,0 +1,2 @@
+ALTER TABLE card_number_suffixes ADD CONSTRAINT fk_card_number_suffixes_card_id FOREIGN KEY (card_id) REFERENCES cards (id) ON DELETE CASCADE;
+ALTER TABLE username_suffixes ADD CONSTRAINT fk_username_suffixes_user_id FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE;